@@ -0,0 +1,54 @@
+//********************************************************************************************
+// Author:      V01D-PH03N1X (PinguBasti), TrueConnective Paul & Stolle GbR
+// Project:     TrueConnective Paper Plugin
+// Description: Management Plugin for Paper Servers (Minecraft)
+//********************************************************************************************
+package me.mydark.trueconnectiveplugin.manager;
+
+import java.lang.reflect.Proxy;
+import java.util.UUID;
+import org.bukkit.entity.Player;
+
+/**
+ * Creates lightweight player stand-ins for benchmarks that run without a server.
+ * Only the UUID and the name are backed, every other method returns a default value.
+ */
+final class BenchmarkPlayers {
+
+    private BenchmarkPlayers() {}
+
+    static Player[] players(int count) {
+        Player[] players = new Player[count];
+        for (int i = 0; i < count; i++) {
+            players[i] = player(UUID.nameUUIDFromBytes(("player-" + i).getBytes()), "Player" + i);
+        }
+        return players;
+    }
+
+    static Player player(UUID uuid, String name) {
+        return (Player) Proxy.newProxyInstance(
+                Player.class.getClassLoader(), new Class<?>[] {Player.class}, (proxy, method, args) -> {
+                    return switch (method.getName()) {
+                        case "getUniqueId" -> uuid;
+                        case "getName" -> name;
+                        case "isOnline" -> true;
+                        case "hashCode" -> uuid.hashCode();
+                        case "equals" -> proxy == args[0];
+                        case "toString" -> name;
+                        default -> defaultValue(method.getReturnType());
+                    };
+                });
+    }
+
+    private static Object defaultValue(Class<?> type) {
+        if (!type.isPrimitive() || type == void.class) return null;
+        if (type == boolean.class) return false;
+        if (type == char.class) return '\0';
+        if (type == byte.class) return (byte) 0;
+        if (type == short.class) return (short) 0;
+        if (type == int.class) return 0;
+        if (type == long.class) return 0L;
+        if (type == float.class) return 0F;
+        return 0D;
+    }
+}
@@ -0,0 +1,134 @@
+//********************************************************************************************
+// Author:      V01D-PH03N1X (PinguBasti), TrueConnective Paul & Stolle GbR
+// Project:     TrueConnective Paper Plugin
+// Description: Management Plugin for Paper Servers (Minecraft)
+//********************************************************************************************
+package me.mydark.trueconnectiveplugin.manager;
+
+import java.io.File;
+import java.io.IOException;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import me.mydark.trueconnectiveplugin.dto.DatabaseConfig;
+import me.mydark.trueconnectiveplugin.dto.PlayerProfile;
+import me.mydark.trueconnectiveplugin.dto.PlayerSettings;
+import me.mydark.trueconnectiveplugin.dto.PlaytimeUpdate;
+import org.bukkit.entity.Player;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+/**
+ * Benchmarks the storage hot paths of the {@link DatabaseManager} implementations.
+ * SQLite runs against a temporary database file. MariaDB runs against the server whose url is passed in the
+ * {@value #MARIADB_URL_PROPERTY} system property, the tables are dropped afterwards.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class DatabaseManagerBenchmark {
+
+    static final String MARIADB_URL_PROPERTY = "trueconnective.benchmark.mariadb";
+
+    @Param({"50", "500", "5000"})
+    public int players;
+
+    @Param({"sqlite", "memory"})
+    public String backend;
+
+    private File databaseFile;
+    private DatabaseManager databaseManager;
+    private Player[] onlinePlayers;
+    private List<PlaytimeUpdate> updates;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        databaseManager = switch (backend) {
+            case "sqlite" -> {
+                databaseFile = File.createTempFile("trueconnective-benchmark", ".db");
+                yield new SqliteDatabaseManager(databaseFile);
+            }
+            case "memory" -> new InMemoryDatabaseManager();
+            case "mariadb" -> new MariaDbDatabaseManager(mariaDbConfig(), new MetricsRegistry());
+            default -> throw new IllegalArgumentException("Unknown backend " + backend);
+        };
+        onlinePlayers = BenchmarkPlayers.players(players);
+
+        updates = new ArrayList<>(players);
+        for (int i = 0; i < players; i++) {
+            updates.add(new PlaytimeUpdate(onlinePlayers[i].getUniqueId(), i));
+            databaseManager.setPlayerSettings(onlinePlayers[i], new PlayerSettings(flags(i)));
+        }
+        databaseManager.updatePlaytimes(updates);
+
+        // A backend that drops the writes would only produce meaningless numbers
+        for (int i = 0; i < players; i++) {
+            PlayerProfile profile = databaseManager.loadPlayerProfile(onlinePlayers[i].getUniqueId());
+            if (profile.playtime() != i || profile.settings().getFlags() != flags(i)) {
+                throw new IllegalStateException("Expected playtime " + i + " and flags " + flags(i) + " of player "
+                        + i + ", got " + profile.playtime() + " and " + profile.settings().getFlags());
+            }
+        }
+    }
+
+    private static int flags(int player) {
+        // Every other player has changed their settings, so the stored flags are not all 0
+        return player % 2 == 0 ? PlayerSettings.DEFAULT_FLAGS : PlayerSettings.ACTIONBAR;
+    }
+
+    private static DatabaseConfig mariaDbConfig() {
+        String url = System.getProperty(MARIADB_URL_PROPERTY);
+        if (url == null) throw new IllegalStateException("Set " + MARIADB_URL_PROPERTY + " to run against MariaDB");
+        // The credentials are taken from the url
+        return new DatabaseConfig(DatabaseConfig.Type.MARIADB, null, url, null, null, 4, null, Duration.ofSeconds(5));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws SQLException {
+        if (databaseManager instanceof MariaDbDatabaseManager mariaDb) {
+            mariaDb.execute(
+                    "DROP TABLE TikTokPlayers, PlayerTimes, PlayerSettings, PlayerDirectory, PlaytimeContributions, "
+                            + "NetworkServers, PlaytimeSessions, PlaytimeRollups",
+                    PreparedStatement::executeUpdate);
+        }
+        databaseManager.close();
+        if (databaseFile != null && !databaseFile.delete()) databaseFile.deleteOnExit();
+    }
+
+    private Player nextPlayer() {
+        next = (next + 1) % players;
+        return onlinePlayers[next];
+    }
+
+    @Benchmark
+    public int getPlaytime() {
+        return databaseManager.getPlaytime(nextPlayer());
+    }
+
+    @Benchmark
+    public void updatePlaytime() {
+        databaseManager.updatePlaytime(nextPlayer(), next);
+    }
+
+    @Benchmark
+    public PlayerSettings getPlayerSettings() {
+        return databaseManager.getPlayerSettings(nextPlayer());
+    }
+
+    @Benchmark
+    public void updatePlaytimesOfAllPlayers() {
+        databaseManager.updatePlaytimes(updates);
+    }
+}
@@ -0,0 +1,89 @@
+//********************************************************************************************
+// Author:      V01D-PH03N1X (PinguBasti), TrueConnective Paul & Stolle GbR
+// Project:     TrueConnective Paper Plugin
+// Description: Management Plugin for Paper Servers (Minecraft)
+//********************************************************************************************
+package me.mydark.trueconnectiveplugin.manager;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import me.mydark.trueconnectiveplugin.dto.NetworkPlaytimes;
+import me.mydark.trueconnectiveplugin.dto.PlaytimeUpdate;
+import org.bukkit.entity.Player;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+/**
+ * Benchmarks the network mode with two servers that share a temporary SQLite database file.
+ * The lobby writes its contributions and the game server polls them.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class NetworkPlaytimeBenchmark {
+
+    @Param({"50", "500"})
+    public int players;
+
+    private File databaseFile;
+    private DatabaseManager lobby;
+    private DatabaseManager game;
+    private Player[] onlinePlayers;
+    private List<PlaytimeUpdate> lobbyUpdates;
+    private int round;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        databaseFile = File.createTempFile("trueconnective-network-benchmark", ".db");
+        lobby = new SqliteDatabaseManager(databaseFile, "lobby", new MetricsRegistry());
+        game = new SqliteDatabaseManager(databaseFile, "game", new MetricsRegistry());
+        onlinePlayers = BenchmarkPlayers.players(players);
+
+        List<PlaytimeUpdate> gameUpdates = new ArrayList<>(players);
+        lobbyUpdates = new ArrayList<>(players);
+        for (Player player : onlinePlayers) {
+            gameUpdates.add(new PlaytimeUpdate(player.getUniqueId(), 60));
+            lobbyUpdates.add(new PlaytimeUpdate(player.getUniqueId(), 30));
+        }
+        game.updatePlaytimes(gameUpdates);
+        lobby.updatePlaytimes(lobbyUpdates);
+
+        // The playtime of a player is the sum of both servers
+        int playtime = game.getPlaytime(onlinePlayers[0]);
+        if (playtime != 90) throw new IllegalStateException("Expected 90 seconds of playtime, got " + playtime);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        lobby.close();
+        game.close();
+        if (!databaseFile.delete()) databaseFile.deleteOnExit();
+    }
+
+    @Benchmark
+    public NetworkPlaytimes pollWithoutChanges() {
+        return game.pollNetworkPlaytimes();
+    }
+
+    @Benchmark
+    public NetworkPlaytimes writeAndPollChanges() {
+        round++;
+        List<PlaytimeUpdate> updates = new ArrayList<>(lobbyUpdates.size());
+        for (PlaytimeUpdate update : lobbyUpdates) {
+            updates.add(new PlaytimeUpdate(update.uuid(), update.playtime() + round));
+        }
+        lobby.updatePlaytimes(updates);
+        return game.pollNetworkPlaytimes();
+    }
+}
@@ -0,0 +1,59 @@
+//********************************************************************************************
+// Author:      V01D-PH03N1X (PinguBasti), TrueConnective Paul & Stolle GbR
+// Project:     TrueConnective Paper Plugin
+// Description: Management Plugin for Paper Servers (Minecraft)
+//********************************************************************************************
+package me.mydark.trueconnectiveplugin.manager;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+import net.kyori.adventure.text.Component;
+import org.bukkit.configuration.file.YamlConfiguration;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Benchmarks the per-second HUD work of the {@link PlayTimeManager}: boss bar progress and remaining time formatting.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class PlayTimeManagerBenchmark {
+    private static final int MAX_PLAYTIME_SECONDS = 180 * 60;
+
+    private PlayTimeManager playTimeManager;
+    private int playtimeSeconds;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        YamlConfiguration messages;
+        try (InputStream resource = PlayTimeManager.class.getClassLoader().getResourceAsStream("messages.yml")) {
+            messages = YamlConfiguration.loadConfiguration(new InputStreamReader(resource, StandardCharsets.UTF_8));
+        }
+        playTimeManager = new PlayTimeManager(null, null, new MessageManager(messages));
+    }
+
+    private int nextPlaytime() {
+        playtimeSeconds = (playtimeSeconds + 1) % MAX_PLAYTIME_SECONDS;
+        return playtimeSeconds;
+    }
+
+    @Benchmark
+    public float getPercentage() {
+        return playTimeManager.getPercentage(MAX_PLAYTIME_SECONDS, MAX_PLAYTIME_SECONDS - nextPlaytime());
+    }
+
+    @Benchmark
+    public Component formatRemainingTime() {
+        return playTimeManager.formatRemainingTime((MAX_PLAYTIME_SECONDS - nextPlaytime()) / 60);
+    }
+}
@@ -0,0 +1,67 @@
+//********************************************************************************************
+// Author:      V01D-PH03N1X (PinguBasti), TrueConnective Paul & Stolle GbR
+// Project:     TrueConnective Paper Plugin
+// Description: Management Plugin for Paper Servers (Minecraft)
+//********************************************************************************************
+package me.mydark.trueconnectiveplugin.manager;
+
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import me.mydark.trueconnectiveplugin.dto.LeaderboardEntry;
+import me.mydark.trueconnectiveplugin.manager.PlaytimeLeaderboard.Period;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Benchmarks the in-memory leaderboard with many ranked players.
+ * Updates, rank lookups and pages should stay fast as the number of players grows.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class PlaytimeLeaderboardBenchmark {
+    private static final int PAGE_SIZE = 45;
+
+    @Param({"10000", "1000000"})
+    public int players;
+
+    private PlaytimeLeaderboard leaderboard;
+    private UUID[] playerUUIDs;
+    private SplittableRandom random;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        leaderboard = new PlaytimeLeaderboard();
+        playerUUIDs = new UUID[players];
+        random = new SplittableRandom(42);
+        for (int i = 0; i < players; i++) {
+            playerUUIDs[i] = new UUID(random.nextLong(), random.nextLong());
+            leaderboard.update(playerUUIDs[i], random.nextInt(1, 4 * 60 * 60));
+        }
+    }
+
+    @Benchmark
+    public void update() {
+        leaderboard.update(playerUUIDs[random.nextInt(players)], random.nextInt(1, 4 * 60 * 60));
+    }
+
+    @Benchmark
+    public LeaderboardEntry rank() {
+        return leaderboard.getRank(Period.DAILY, playerUUIDs[random.nextInt(players)]);
+    }
+
+    @Benchmark
+    public List<LeaderboardEntry> page() {
+        int pages = leaderboard.getPageCount(Period.WEEKLY, PAGE_SIZE);
+        return leaderboard.getPage(Period.WEEKLY, random.nextInt(pages), PAGE_SIZE);
+    }
+}
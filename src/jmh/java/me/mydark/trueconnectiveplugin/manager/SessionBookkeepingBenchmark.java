@@ -0,0 +1,65 @@
+//********************************************************************************************
+// Author:      V01D-PH03N1X (PinguBasti), TrueConnective Paul & Stolle GbR
+// Project:     TrueConnective Paper Plugin
+// Description: Management Plugin for Paper Servers (Minecraft)
+//********************************************************************************************
+package me.mydark.trueconnectiveplugin.manager;
+
+import java.time.Duration;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import me.mydark.trueconnectiveplugin.dto.PlayerSettings;
+import me.mydark.trueconnectiveplugin.dto.QuotaPolicy;
+import org.bukkit.entity.Player;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Benchmarks the join and quit bookkeeping with a given number of players already online.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class SessionBookkeepingBenchmark {
+
+    @Param({"50", "500", "5000"})
+    public int players;
+
+    private SessionManager sessionManager;
+    private TikTokManager tikTokManager;
+    private Player[] onlinePlayers;
+    private Player joiningPlayer;
+    private PlayerSettings playerSettings;
+    private QuotaPolicy quotaPolicy;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        MetricsRegistry metricsRegistry = new MetricsRegistry();
+        sessionManager = new SessionManager(
+                new PaperTaskScheduler(null), new PlayTimeManager(null, null, null), metricsRegistry);
+        tikTokManager = new TikTokManager(username -> true, Duration.ofMinutes(1), 500, metricsRegistry);
+        playerSettings = new PlayerSettings();
+        quotaPolicy = new QuotaPolicy(false, "viewer", 30 * 60);
+
+        onlinePlayers = BenchmarkPlayers.players(players);
+        for (Player player : onlinePlayers) {
+            sessionManager.openSession(player, playerSettings, quotaPolicy);
+        }
+        joiningPlayer = BenchmarkPlayers.player(UUID.randomUUID(), "JoiningPlayer");
+    }
+
+    @Benchmark
+    public void joinAndQuit() {
+        tikTokManager.setLoginLiveStatus(joiningPlayer.getUniqueId(), "creator", true);
+        tikTokManager.takeLoginLiveStatus(joiningPlayer.getUniqueId());
+        sessionManager.openSession(joiningPlayer, playerSettings, quotaPolicy);
+        sessionManager.closeSession(joiningPlayer);
+    }
+}
@@ -5,29 +5,49 @@
 //********************************************************************************************
 package me.mydark.trueconnectiveplugin;
 
-import java.util.HashMap;
-import java.util.Map;
-import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 import lombok.Getter;
 import me.mydark.trueconnectiveplugin.commands.*;
-import me.mydark.trueconnectiveplugin.dto.PlayerSettings;
+import me.mydark.trueconnectiveplugin.dto.PlayerProfile;
+import me.mydark.trueconnectiveplugin.dto.PluginConfig;
+import me.mydark.trueconnectiveplugin.gui.LeaderboardGui;
+import me.mydark.trueconnectiveplugin.gui.SettingsGuiCache;
+import me.mydark.trueconnectiveplugin.manager.AsyncDatabaseManager;
+import me.mydark.trueconnectiveplugin.manager.ConfigManager;
+import me.mydark.trueconnectiveplugin.manager.CreatorLiveSessionManager;
+import me.mydark.trueconnectiveplugin.manager.DailyResetScheduler;
 import me.mydark.trueconnectiveplugin.manager.DatabaseManager;
+import me.mydark.trueconnectiveplugin.manager.LatencyHistogram;
+import me.mydark.trueconnectiveplugin.manager.LiveStatusProvider;
+import me.mydark.trueconnectiveplugin.manager.MessageManager;
+import me.mydark.trueconnectiveplugin.manager.MessageManager.Message;
+import me.mydark.trueconnectiveplugin.manager.MetricsRegistry;
+import me.mydark.trueconnectiveplugin.manager.NetworkPlaytimeSync;
 import me.mydark.trueconnectiveplugin.manager.PlayTimeManager;
+import me.mydark.trueconnectiveplugin.manager.PlayerDirectory;
+import me.mydark.trueconnectiveplugin.manager.PlayerNameIndex;
+import me.mydark.trueconnectiveplugin.manager.PlayerSettingsManager;
+import me.mydark.trueconnectiveplugin.manager.PlaytimeLeaderboard;
+import me.mydark.trueconnectiveplugin.manager.PlaytimeLedger;
+import me.mydark.trueconnectiveplugin.manager.ProfileManager;
+import me.mydark.trueconnectiveplugin.manager.PrometheusExporter;
+import me.mydark.trueconnectiveplugin.manager.SessionManager;
+import me.mydark.trueconnectiveplugin.manager.TaskScheduler;
+import me.mydark.trueconnectiveplugin.manager.TikTokLiveEventSource;
 import me.mydark.trueconnectiveplugin.manager.TikTokManager;
-import net.kyori.adventure.text.Component;
-import net.kyori.adventure.text.TextComponent;
-import net.kyori.adventure.text.event.ClickEvent;
-import net.kyori.adventure.text.format.TextColor;
-import net.kyori.adventure.text.format.TextDecoration;
 import org.bukkit.Bukkit;
 import org.bukkit.command.CommandMap;
 import org.bukkit.entity.Player;
 import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
 import org.bukkit.event.Listener;
+import org.bukkit.event.player.AsyncPlayerPreLoginEvent;
+import org.bukkit.event.player.PlayerChangedWorldEvent;
 import org.bukkit.event.player.PlayerJoinEvent;
 import org.bukkit.event.player.PlayerQuitEvent;
 import org.bukkit.plugin.java.JavaPlugin;
-import org.bukkit.scheduler.BukkitTask;
 import org.slf4j.Logger;
 
 /**
@@ -35,25 +55,52 @@ import org.slf4j.Logger;
  * This class handles the initialization and management of the plugin.
  */
 public final class TrueConnective extends JavaPlugin implements Listener {
+    // How long a login waits for its profile behind the queued writes of the database thread
+    private static final long PROFILE_PRELOAD_TIMEOUT_SECONDS = 3L;
+
     @Getter
     private static TrueConnective instance;
 
     @Getter
     private static Logger log;
 
-    private DatabaseManager databaseManager;
+    @Getter
+    private ConfigManager configManager;
+
+    @Getter
+    private MetricsRegistry metricsRegistry;
+
+    private LatencyHistogram joinTimer;
+    private LatencyHistogram quitTimer;
+
+    @Getter
+    private TaskScheduler taskScheduler;
+
+    private AsyncDatabaseManager asyncDatabaseManager;
     private TikTokManager tikTokManager;
+    private CreatorLiveSessionManager creatorLiveSessionManager;
+
+    @Getter
+    private MessageManager messageManager;
 
     @Getter
     private PlayTimeManager playTimeManager;
 
-    private final Map<UUID, BukkitTask> playerTasks = new HashMap<>();
+    private PlaytimeLedger playtimeLedger;
+    private PlaytimeLeaderboard playtimeLeaderboard;
+    private PlayerSettingsManager playerSettingsManager;
+    private DailyResetScheduler dailyResetScheduler;
+    private NetworkPlaytimeSync networkPlaytimeSync;
+    private PlayerNameIndex playerNameIndex;
+    private PlayerDirectory playerDirectory;
+    private SettingsGuiCache settingsGuiCache;
+    private LeaderboardGui leaderboardGui;
 
     @Getter
-    private final Map<UUID, BukkitTask> actionBarTasks = new HashMap<>();
+    private ProfileManager profileManager;
 
     @Getter
-    private final Map<UUID, BukkitTask> bossBarTasks = new HashMap<>();
+    private SessionManager sessionManager;
 
     /**
      * Called when the plugin is enabled.
@@ -72,21 +119,109 @@ public final class TrueConnective extends JavaPlugin implements Listener {
         getDataFolder().mkdir();
         saveDefaultConfig();
 
-        databaseManager = new DatabaseManager(this);
-        tikTokManager = new TikTokManager();
-        playTimeManager = new PlayTimeManager(this, databaseManager);
+        configManager = new ConfigManager(this);
+        PluginConfig config = configManager.get();
+        metricsRegistry = new MetricsRegistry();
+        joinTimer = metricsRegistry.timer(MetricsRegistry.EVENT, "player-join");
+        quitTimer = metricsRegistry.timer(MetricsRegistry.EVENT, "player-quit");
+        messageManager = new MessageManager(this);
+        taskScheduler = TaskScheduler.create(this);
+        asyncDatabaseManager =
+                new AsyncDatabaseManager(taskScheduler, DatabaseManager.create(this, config.database()));
+        tikTokManager = new TikTokManager(
+                LiveStatusProvider.tikTok(), config.liveCacheTtl(), config.liveCacheSize(), metricsRegistry);
+        creatorLiveSessionManager = new CreatorLiveSessionManager(
+                taskScheduler,
+                new TikTokLiveEventSource(),
+                tikTokManager,
+                messageManager,
+                config.maxLiveConnections(),
+                config.reconnectAttempts(),
+                config.maxReconnectDelay());
+        profileManager = new ProfileManager();
+        playtimeLeaderboard = new PlaytimeLeaderboard();
+        playtimeLedger = new PlaytimeLedger(asyncDatabaseManager, playtimeLeaderboard);
+        playerSettingsManager = new PlayerSettingsManager(asyncDatabaseManager);
+        dailyResetScheduler = new DailyResetScheduler(
+                taskScheduler, asyncDatabaseManager, playtimeLedger, config.dailyResetZone(), config.dailyResetTime());
+        dailyResetScheduler.start();
+        // Queued behind the reset and compaction of the scheduler, so it sees the current day
+        playtimeLeaderboard.load(asyncDatabaseManager, dailyResetScheduler.getCurrentDay());
+        playTimeManager = new PlayTimeManager(configManager, playtimeLedger, messageManager);
+        sessionManager = new SessionManager(taskScheduler, playTimeManager, metricsRegistry);
+        sessionManager.start();
+        playerNameIndex = new PlayerNameIndex();
+        playerDirectory = new PlayerDirectory(asyncDatabaseManager, playerNameIndex);
+        playerDirectory.load(getServer());
+        settingsGuiCache =
+                new SettingsGuiCache(messageManager, playerSettingsManager, sessionManager, playTimeManager);
+        leaderboardGui = new LeaderboardGui(messageManager, playtimeLeaderboard, playerNameIndex);
+
+        if (asyncDatabaseManager.getDatabaseManager().isNetworkMode()) {
+            networkPlaytimeSync = new NetworkPlaytimeSync(
+                    taskScheduler, asyncDatabaseManager, playtimeLedger, dailyResetScheduler, metricsRegistry);
+            networkPlaytimeSync.start(config.database().networkPollInterval());
+        }
+
+        // Periodically write the cached playtime and changed settings back to the database
+        long flushIntervalTicks = config.flushInterval().toSeconds() * 20L;
+        taskScheduler.runGlobalTimer(
+                () -> {
+                    playtimeLedger.flush();
+                    playerSettingsManager.flush();
+                },
+                flushIntervalTicks,
+                flushIntervalTicks);
+
+        if (config.metricsJmx()) {
+            metricsRegistry.registerMBeans();
+        }
+        if (config.metricsFile() != null) {
+            PrometheusExporter exporter = new PrometheusExporter(
+                    metricsRegistry, getDataFolder().toPath().resolve(config.metricsFile()));
+            long exportIntervalTicks = config.metricsFileInterval().toSeconds() * 20L;
+            taskScheduler.runAsyncTimer(exporter::export, exportIntervalTicks, exportIntervalTicks);
+        }
 
         // Register events
         getServer().getPluginManager().registerEvents(this, this);
 
         // Register commands
         CommandMap commandMap = Bukkit.getCommandMap();
-        commandMap.register("trueconnective", "trueconnective", new TrueConnectiveCommand());
-        commandMap.register("ttconect", "trueconnective", new ConnectTikTokUsernameCommand(databaseManager));
-        commandMap.register("playtime", "trueconnective", new RemainingPlaytimeCommand(databaseManager, instance));
-        commandMap.register("resetplaytime", "trueconnective", new ResetPlaytimeCommand(databaseManager));
-        commandMap.register("settings", "trueconnective", new PlayerSettingsCommand(databaseManager));
-        commandMap.register("addplaytime", "trueconnective", new AddPlaytimeCommand(playTimeManager));
+        commandMap.register("trueconnective", "trueconnective", new TrueConnectiveCommand(this, messageManager));
+        commandMap.register(
+                "ttconect",
+                "trueconnective",
+                new ConnectTikTokUsernameCommand(asyncDatabaseManager, messageManager, playerDirectory));
+        commandMap.register(
+                "playtime",
+                "trueconnective",
+                new RemainingPlaytimeCommand(
+                        playTimeManager,
+                        messageManager,
+                        playerDirectory,
+                        asyncDatabaseManager,
+                        dailyResetScheduler,
+                        playtimeLeaderboard,
+                        leaderboardGui));
+        commandMap.register(
+                "resetplaytime",
+                "trueconnective",
+                new ResetPlaytimeCommand(playTimeManager, messageManager, playerDirectory));
+        commandMap.register(
+                "settings", "trueconnective", new PlayerSettingsCommand(settingsGuiCache, messageManager));
+        commandMap.register("addplaytime", "trueconnective", new AddPlaytimeCommand(playTimeManager, messageManager));
+    }
+
+    /**
+     * Reloads the config and the messages and applies the new quota tiers to all online players.
+     * The sessions of the online players stay open.
+     */
+    public void reload() {
+        configManager.reload();
+        messageManager.reload();
+        settingsGuiCache.invalidate();
+        sessionManager.refreshQuotaPolicies();
     }
 
     /**
@@ -95,137 +230,169 @@ public final class TrueConnective extends JavaPlugin implements Listener {
      */
     @Override
     public void onDisable() {
-        // Execute on plugin disable
+        if (dailyResetScheduler != null) {
+            dailyResetScheduler.stop();
+        }
+        if (creatorLiveSessionManager != null) {
+            creatorLiveSessionManager.shutdown();
+        }
+        if (sessionManager != null) {
+            sessionManager.stop();
+        }
+        if (networkPlaytimeSync != null) {
+            networkPlaytimeSync.stop();
+        }
+        // Finish all queued database operations before writing the cached playtime of all players
+        if (asyncDatabaseManager != null) {
+            asyncDatabaseManager.shutdown();
+        }
+        if (playtimeLedger != null) {
+            playtimeLedger.flushAll();
+        }
+        if (playerSettingsManager != null) {
+            playerSettingsManager.flushAll();
+        }
+        if (asyncDatabaseManager != null) {
+            asyncDatabaseManager.getDatabaseManager().close();
+        }
+        if (metricsRegistry != null) {
+            metricsRegistry.unregisterMBeans();
+        }
+    }
+
+    /**
+     * Event handler for asynchronous pre-login events.
+     * Loads the player's profile and checks if a player with a connected TikTok account is live,
+     * while the login is still off the main thread.
+     * If the database thread is too far behind, the login doesn't wait for it and the profile is loaded on join.
+     * A creator is kicked on join then, because their live status is unknown.
+     *
+     * @param event The async player pre-login event.
+     */
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onAsyncPlayerPreLogin(AsyncPlayerPreLoginEvent event) {
+        if (event.getLoginResult() != AsyncPlayerPreLoginEvent.Result.ALLOWED) return;
+
+        PlayerProfile profile;
+        try {
+            profile = asyncDatabaseManager
+                    .loadPlayerProfile(event.getUniqueId())
+                    .get(PROFILE_PRELOAD_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        } catch (TimeoutException | ExecutionException | InterruptedException e) {
+            if (e instanceof InterruptedException) Thread.currentThread().interrupt();
+            log.warn("Failed to preload the profile of {}, loading it on join: {}", event.getName(), e.toString());
+            tikTokManager.clearLoginLiveStatus(event.getUniqueId());
+            return;
+        }
+        profileManager.preload(profile);
+
+        String username = profile.tiktokUsername();
+        if (username != null) {
+            tikTokManager.setLoginLiveStatus(
+                    event.getUniqueId(), username, tikTokManager.checkTikTokLive(username));
+        } else {
+            // The status of an earlier login that failed must not apply to this one
+            tikTokManager.clearLoginLiveStatus(event.getUniqueId());
+        }
     }
 
     /**
      * Event handler for player join events.
-     * Resets playtime if it's a new day and checks if the player is live on TikTok.
+     * Kicks creators that were not live on TikTok at login and starts the session from the preloaded profile.
      *
      * @param event The player join event.
      */
     @EventHandler
     public void onPlayerJoin(PlayerJoinEvent event) {
-        Player player = event.getPlayer();
-
-        if (databaseManager.isNewDay(player)) {
-            databaseManager.resetPlaytime(player);
+        long start = System.nanoTime();
+        try {
+            handlePlayerJoin(event.getPlayer());
+        } finally {
+            joinTimer.recordSince(start);
         }
+    }
 
-        if (player.hasPermission("trueconnective.creator")) kickNotLiveCreator(player);
+    private void handlePlayerJoin(Player player) {
+        playerDirectory.record(player);
+
+        TikTokManager.LoginLiveStatus liveStatus = tikTokManager.takeLoginLiveStatus(player.getUniqueId());
+        if (player.hasPermission("trueconnective.creator")) {
+            if (liveStatus == null || !liveStatus.live()) {
+                player.kick(messageManager.get(Message.KICK_NOT_LIVE));
+                return;
+            }
+            // Kick the creator as soon as their stream ends
+            creatorLiveSessionManager.startSession(player, liveStatus.username());
+        }
 
         sendInfoMessages(player);
 
-        // Schedule a task to check playtime every minute
-        BukkitTask playtimeCheck = Bukkit.getScheduler()
-                .runTaskTimer(this, () -> playTimeManager.checkPlaytime(player), 0L, 1200L); // 1200L = 1 minute
-        playerTasks.put(player.getUniqueId(), playtimeCheck);
-
-        // Schedule tasks for action bar and boss bar if enabled in player settings
-        PlayerSettings playerSettings = databaseManager.getPlayerSettings(player);
-        String playerUUID = player.getUniqueId().toString();
-
-        if (playerSettings.isActionbarEnabled()) {
-            BukkitTask task = Bukkit.getScheduler()
-                    .runTaskTimer(this, () -> playTimeManager.actionBarTask(player), 0L, 20L); // 20L = 1 second
-            actionBarTasks.put(player.getUniqueId(), task);
-        }
-
-        if (playerSettings.isBossbarEnabled()) {
-            BukkitTask task = Bukkit.getScheduler()
-                    .runTaskTimer(this, () -> playTimeManager.playtimeBossbarTask(player), 0L, 20L); // 20L = 1 second
-            bossBarTasks.put(player.getUniqueId(), task);
+        PlayerProfile profile = profileManager.activate(player.getUniqueId());
+        if (profile != null) {
+            startSession(player, profile);
+            return;
         }
+        // The profile wasn't preloaded, e.g. because the player joined while the plugin was disabled
+        // The session is started on the thread of the player's region, the task is dropped if the player has left
+        asyncDatabaseManager
+                .loadPlayerProfile(player)
+                .thenAccept(loadedProfile -> taskScheduler.runAtEntity(player, () -> {
+                    profileManager.activate(loadedProfile);
+                    startSession(player, loadedProfile);
+                }));
     }
 
     /**
-     * Event handler for player quit events.
-     * Updates the player's playtime and cancels any scheduled tasks.
+     * Event handler for player world change events.
+     * Resolves the player's playtime quota again, because permissions can depend on the world.
      *
-     * @param event The player quit event.
+     * @param event The player changed world event.
      */
     @EventHandler
-    public void onPlayerQuit(PlayerQuitEvent event) {
-        Player player = event.getPlayer();
-        UUID playerUUID = player.getUniqueId();
-
-        // Calculate playtime based on the last login
-        long lastLogin = player.getLastLogin();
-        long currentTime = System.currentTimeMillis();
-        int playtime = databaseManager.getPlaytime(player);
-        int additionalPlaytime = (int) ((currentTime - lastLogin) / 60000); // Minutes
-
-        // Update playtime in the database
-        databaseManager.updatePlaytime(player, playtime + additionalPlaytime);
-
-        removePlayerTasks(player);
+    public void onPlayerChangedWorld(PlayerChangedWorldEvent event) {
+        sessionManager.refreshQuotaPolicy(event.getPlayer());
     }
 
-    private void removeActionbarTask(Player target) {
-        UUID playerUUID = target.getUniqueId();
-        BukkitTask actionBarTask;
-
-        if (actionBarTasks.containsKey(playerUUID)) {
-            actionBarTask = actionBarTasks.remove(playerUUID);
-            actionBarTask.cancel();
+    private void startSession(Player player, PlayerProfile profile) {
+        // The playtime of a profile that was loaded before the last daily reset is outdated
+        if (profile.day() < dailyResetScheduler.getCurrentDay()) {
+            playtimeLedger.load(player, 0, 0);
+        } else {
+            playtimeLedger.load(player, profile.playtime(), profile.networkPlaytime());
         }
+        playerSettingsManager.load(player.getUniqueId(), profile.settings());
+        sessionManager.openSession(player, profile.settings(), playTimeManager.resolveQuotaPolicy(player));
     }
 
-    private void removeBossbarTasks(Player target) {
-        UUID playerUUID = target.getUniqueId();
-        BukkitTask bossBarTask;
-
-        if (bossBarTasks.containsKey(playerUUID)) {
-            bossBarTask = bossBarTasks.remove(playerUUID);
-            playTimeManager.removeBossBar(target);
-            bossBarTask.cancel();
+    /**
+     * Event handler for player quit events.
+     * Updates the player's playtime and closes their session.
+     *
+     * @param event The player quit event.
+     */
+    @EventHandler
+    public void onPlayerQuit(PlayerQuitEvent event) {
+        long start = System.nanoTime();
+        try {
+            handlePlayerQuit(event.getPlayer());
+        } finally {
+            quitTimer.recordSince(start);
         }
     }
 
-    private void removePlayerTasks(Player target) {
-        UUID playerUUID = target.getUniqueId();
-        if (actionBarTasks.containsKey(playerUUID)) {
-            removeActionbarTask(target);
-        }
-        if (bossBarTasks.containsKey(playerUUID)) {
-            removeBossbarTasks(target);
-        }
-        if (playerTasks.containsKey(playerUUID)) {
-            BukkitTask playtimeCheck = playerTasks.remove(playerUUID);
-            playtimeCheck.cancel();
-        }
-    }
+    private void handlePlayerQuit(Player player) {
+        // End the playtime session and write it back to the database, unless the player left before it was loaded
+        playtimeLedger.unload(player);
+        playerSettingsManager.unload(player.getUniqueId());
+        profileManager.remove(player.getUniqueId());
+        settingsGuiCache.remove(player.getUniqueId());
 
-    private void kickNotLiveCreator(Player target) {
-        String tiktokusername = databaseManager.getTiktokUsername(target).orElse(null);
-        if (!tikTokManager.checkTikTokLive(tiktokusername)) {
-            TextComponent kickMessage = Component.text()
-                    .content("Du musst Live sein um den Server zu betreten!")
-                    .color(TextColor.color(0xff6969))
-                    .decoration(TextDecoration.BOLD, true)
-                    .build();
-            target.kick(kickMessage);
-        }
+        sessionManager.closeSession(player);
+        creatorLiveSessionManager.stopSession(player);
     }
 
     private void sendInfoMessages(Player target) {
-        TextComponent welcomeMessageViewer = Component.text()
-                .content("Willkommen auf dem Minecraft Server von")
-                .color(TextColor.color(0xEFEFEF))
-                .append(Component.text()
-                        .content(" TrueConnective!")
-                        .color(TextColor.color(0xEFEFEF))
-                        .decoration(TextDecoration.BOLD, true)
-                        .clickEvent(ClickEvent.openUrl("https://trueconnective.com")))
-                .build();
-
-        TextComponent infoMessageViewer = Component.text()
-                .content("Du möchtest mehr über TrueConnective erfahren? \nDann nutze /trueconnective \n")
-                .color(TextColor.color(0xEFEFEF))
-                .clickEvent(ClickEvent.openUrl("https://trueconnective.com"))
-                .build();
-
-        target.sendMessage(welcomeMessageViewer);
-        target.sendMessage(infoMessageViewer);
+        target.sendMessage(messageManager.get(Message.JOIN_WELCOME));
+        target.sendMessage(messageManager.get(Message.JOIN_INFO));
     }
 }
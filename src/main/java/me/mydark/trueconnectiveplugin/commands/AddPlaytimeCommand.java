@@ -5,10 +5,9 @@
 //********************************************************************************************
 package me.mydark.trueconnectiveplugin.commands;
 
+import me.mydark.trueconnectiveplugin.manager.MessageManager;
+import me.mydark.trueconnectiveplugin.manager.MessageManager.Message;
 import me.mydark.trueconnectiveplugin.manager.PlayTimeManager;
-import net.kyori.adventure.text.Component;
-import net.kyori.adventure.text.TextComponent;
-import net.kyori.adventure.text.format.TextColor;
 import org.bukkit.command.CommandSender;
 import org.bukkit.command.defaults.BukkitCommand;
 import org.bukkit.entity.Player;
@@ -16,10 +15,12 @@ import org.jetbrains.annotations.NotNull;
 
 public class AddPlaytimeCommand extends BukkitCommand {
     private final PlayTimeManager playTimeManager;
+    private final MessageManager messageManager;
 
-    public AddPlaytimeCommand(PlayTimeManager playTimeManager) {
+    public AddPlaytimeCommand(PlayTimeManager playTimeManager, MessageManager messageManager) {
         super("addplaytime");
         this.playTimeManager = playTimeManager;
+        this.messageManager = messageManager;
     }
 
     @Override
@@ -45,11 +46,7 @@ public class AddPlaytimeCommand extends BukkitCommand {
 
         playTimeManager.addPlaytime(target, seconds);
         sender.sendMessage("Added " + seconds + " seconds to " + target.getName() + "'s playtime.");
-        TextComponent message = Component.text()
-                .content("Dir wurden " + seconds + " Sekunden Spielzeit hinzugefügt.")
-                .color(TextColor.color(0x69ff69))
-                .build();
-        target.sendMessage(message);
+        target.sendMessage(messageManager.get(Message.COMMAND_PLAYTIME_ADDED, "seconds", seconds));
         return true;
     }
 }
@@ -5,18 +5,15 @@
 //********************************************************************************************
 package me.mydark.trueconnectiveplugin.commands;
 
-import static org.bukkit.Bukkit.getServer;
-
 import java.util.ArrayList;
-import java.util.Arrays;
 import java.util.List;
-import java.util.stream.Collectors;
 import lombok.extern.slf4j.Slf4j;
-import me.mydark.trueconnectiveplugin.manager.DatabaseManager;
-import net.kyori.adventure.text.Component;
-import net.kyori.adventure.text.format.TextColor;
-import net.kyori.adventure.text.format.TextDecoration;
-import org.bukkit.OfflinePlayer;
+import me.mydark.trueconnectiveplugin.manager.AsyncDatabaseManager;
+import me.mydark.trueconnectiveplugin.manager.MessageManager;
+import me.mydark.trueconnectiveplugin.manager.MessageManager.Message;
+import me.mydark.trueconnectiveplugin.manager.PlayerDirectory;
+import net.kyori.adventure.text.minimessage.tag.resolver.Placeholder;
+import org.bukkit.Bukkit;
 import org.bukkit.command.Command;
 import org.bukkit.command.CommandSender;
 import org.bukkit.command.TabCompleter;
@@ -29,16 +26,23 @@ import org.jetbrains.annotations.NotNull;
  */
 @Slf4j
 public class ConnectTikTokUsernameCommand extends BukkitCommand implements TabCompleter {
-    private static DatabaseManager databaseManager;
+    private static AsyncDatabaseManager databaseManager;
+    private static MessageManager messageManager;
+    private static PlayerDirectory playerDirectory;
 
     /**
      * Constructor for ConnectTikTokUsernameCommand.
      *
-     * @param dbmanager The DatabaseManager instance to interact with the database.
+     * @param dbmanager The AsyncDatabaseManager instance to interact with the database.
+     * @param messages The MessageManager instance to get the messages from.
+     * @param directory The PlayerDirectory instance to resolve and complete player names.
      */
-    public ConnectTikTokUsernameCommand(DatabaseManager dbmanager) {
+    public ConnectTikTokUsernameCommand(
+            AsyncDatabaseManager dbmanager, MessageManager messages, PlayerDirectory directory) {
         super("ttconect");
         databaseManager = dbmanager;
+        messageManager = messages;
+        playerDirectory = directory;
     }
 
     /**
@@ -61,53 +65,32 @@ public class ConnectTikTokUsernameCommand extends BukkitCommand implements TabCo
         if (sender instanceof Player player) {
             // Check if the player has permission to execute the command
             if (!player.hasPermission("trueconnective.ttconnect")) {
-                player.sendMessage(Component.text()
-                        .content("Du hast keine Berechtigung für diesen Befehl!")
-                        .color(TextColor.color(0xef2121))
-                        .decoration(TextDecoration.BOLD, true)
-                        .build());
+                player.sendMessage(messageManager.get(Message.COMMAND_NO_PERMISSION));
                 return false;
             }
         }
 
-        // Get the target player of all players existing on the server by the given name he doesn't must be online
-        OfflinePlayer target = getServer().getOfflinePlayer(args[0]);
-        if (!target.hasPlayedBefore()) {
-            sender.sendMessage(Component.text()
-                    .content("Spieler " + args[0] + " konnte nicht gefunden werden!")
-                    .color(TextColor.color(0xEF7573))
-                    .decoration(TextDecoration.BOLD, true)
-                    .build());
-            return false;
-        }
-
-        // Validate the TikTok username and store it in the database
+        // Validate the TikTok username before the target is resolved
         String username = args[1];
         if (!username.matches("^[a-z0-9_]{1,32}$")) {
-            sender.sendMessage(Component.text()
-                    .content("Invalid TikTok username!")
-                    .color(TextColor.color(0xEF7573))
-                    .decoration(TextDecoration.BOLD, true)
-                    .build());
+            sender.sendMessage(messageManager.get(Message.COMMAND_INVALID_TIKTOK_USERNAME));
             return false;
         }
 
-        databaseManager.setTiktokUsername(target, username);
-        sender.sendMessage(Component.text()
-                .content("TikTok username")
-                .color(TextColor.color(0x3F9EFF))
-                .append(Component.text()
-                        .content(" " + username + " ")
-                        .color(TextColor.color(0x3F9EFF))
-                        .decoration(TextDecoration.BOLD, true)
-                        .build())
-                .append(Component.text("successfully connected to player "))
-                .append(Component.text()
-                        .content(target.getName())
-                        .color(TextColor.color(0x3F9EFF))
-                        .decoration(TextDecoration.BOLD, true)
-                        .build())
-                .build());
+        // The target doesn't have to be online, only players that joined before are in the player directory
+        playerDirectory.resolve(args[0]).thenAccept(target -> {
+            if (target.isEmpty()) {
+                sender.sendMessage(
+                        messageManager.get(Message.COMMAND_PLAYER_NOT_FOUND, Placeholder.unparsed("player", args[0])));
+                return;
+            }
+            databaseManager
+                    .setTiktokUsername(Bukkit.getOfflinePlayer(target.get().uuid()), username)
+                    .thenRun(() -> sender.sendMessage(messageManager.get(
+                            Message.COMMAND_TIKTOK_CONNECTED,
+                            Placeholder.unparsed("username", username),
+                            Placeholder.unparsed("player", target.get().name()))));
+        });
         return true;
     }
 
@@ -123,11 +106,18 @@ public class ConnectTikTokUsernameCommand extends BukkitCommand implements TabCo
     @Override
     public List<String> onTabComplete(CommandSender sender, Command command, String alias, String[] args) {
         if (args.length == 1) {
-            // Return all player names as tab completion even if they are offline
-            return Arrays.stream(getServer().getOfflinePlayers())
-                    .map(OfflinePlayer::getName)
-                    .collect(Collectors.toList());
+            // Complete the names of all known players, even if they are offline
+            return playerDirectory.complete(args[0]);
         }
         return new ArrayList<>();
     }
+
+    /**
+     * Bukkit only asks the command itself for completions, so they are forwarded to {@link #onTabComplete}.
+     */
+    @Override
+    public @NotNull List<String> tabComplete(
+            @NotNull CommandSender sender, @NotNull String alias, @NotNull String[] args) {
+        return onTabComplete(sender, this, alias, args);
+    }
 }
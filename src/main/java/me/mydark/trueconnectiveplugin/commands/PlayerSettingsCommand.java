@@ -6,11 +6,9 @@
 package me.mydark.trueconnectiveplugin.commands;
 
 import lombok.extern.slf4j.Slf4j;
-import me.mydark.trueconnectiveplugin.gui.SettingsGui;
-import me.mydark.trueconnectiveplugin.manager.DatabaseManager;
-import net.kyori.adventure.text.Component;
-import net.kyori.adventure.text.TextComponent;
-import net.kyori.adventure.text.format.TextColor;
+import me.mydark.trueconnectiveplugin.gui.SettingsGuiCache;
+import me.mydark.trueconnectiveplugin.manager.MessageManager;
+import me.mydark.trueconnectiveplugin.manager.MessageManager.Message;
 import org.bukkit.command.CommandSender;
 import org.bukkit.command.defaults.BukkitCommand;
 import org.bukkit.entity.Player;
@@ -21,15 +19,20 @@ import org.jetbrains.annotations.NotNull;
  */
 @Slf4j
 public class PlayerSettingsCommand extends BukkitCommand {
-    private final DatabaseManager databaseManager;
+    private final SettingsGuiCache settingsGuiCache;
+    private final MessageManager messageManager;
 
     /**
      * Constructor for the Settings command.
      * Sets the command name and initializes the logger.
+     *
+     * @param settingsGuiCache The cache of the settings GUIs of the online players.
+     * @param messageManager The MessageManager instance to get the messages from.
      */
-    public PlayerSettingsCommand(DatabaseManager databaseManager) {
+    public PlayerSettingsCommand(SettingsGuiCache settingsGuiCache, MessageManager messageManager) {
         super("settings");
-        this.databaseManager = databaseManager;
+        this.settingsGuiCache = settingsGuiCache;
+        this.messageManager = messageManager;
     }
 
     /**
@@ -45,16 +48,12 @@ public class PlayerSettingsCommand extends BukkitCommand {
     public boolean execute(@NotNull CommandSender sender, @NotNull String commandLabel, @NotNull String[] args) {
         if (sender instanceof Player player) {
             if (player.hasPermission("trueconnective.settings")) {
-                SettingsGui gui = new SettingsGui(databaseManager.getPlayerSettings(player), databaseManager);
-                gui.open(player);
-                return true;
+                if (settingsGuiCache.open(player)) return true;
+                // The settings are part of the profile, which is still loading right after the join
+                player.sendMessage(messageManager.get(Message.SETTINGS_NOT_LOADED));
+                return false;
             }
-            TextComponent message = Component.text()
-                    .content("Du hast keine Berechtigung, um diesen Befehl auszuführen!")
-                    .color(TextColor.color(0xff6969))
-                    .build();
-
-            player.sendMessage(message);
+            player.sendMessage(messageManager.get(Message.COMMAND_NO_PERMISSION_MENU));
             return false;
         }
         log.error("This command can only be executed by a player!");
@@ -5,18 +5,24 @@
 //********************************************************************************************
 package me.mydark.trueconnectiveplugin.commands;
 
-import static org.bukkit.Bukkit.getServer;
-
+import java.time.LocalDate;
 import java.util.ArrayList;
-import java.util.Arrays;
 import java.util.List;
-import java.util.stream.Collectors;
-import me.mydark.trueconnectiveplugin.TrueConnective;
-import me.mydark.trueconnectiveplugin.manager.DatabaseManager;
+import java.util.Locale;
+import java.util.UUID;
+import me.mydark.trueconnectiveplugin.dto.LeaderboardEntry;
+import me.mydark.trueconnectiveplugin.dto.PlaytimeHistoryDay;
+import me.mydark.trueconnectiveplugin.gui.LeaderboardGui;
+import me.mydark.trueconnectiveplugin.manager.AsyncDatabaseManager;
+import me.mydark.trueconnectiveplugin.manager.DailyResetScheduler;
+import me.mydark.trueconnectiveplugin.manager.MessageManager;
+import me.mydark.trueconnectiveplugin.manager.MessageManager.Message;
+import me.mydark.trueconnectiveplugin.manager.PlayTimeManager;
+import me.mydark.trueconnectiveplugin.manager.PlayerDirectory;
+import me.mydark.trueconnectiveplugin.manager.PlaytimeLeaderboard;
+import me.mydark.trueconnectiveplugin.manager.PlaytimeLeaderboard.Period;
 import net.kyori.adventure.text.Component;
-import net.kyori.adventure.text.TextComponent;
-import net.kyori.adventure.text.format.TextColor;
-import org.bukkit.OfflinePlayer;
+import net.kyori.adventure.text.minimessage.tag.resolver.Placeholder;
 import org.bukkit.command.Command;
 import org.bukkit.command.CommandSender;
 import org.bukkit.command.TabCompleter;
@@ -26,22 +32,51 @@ import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
 /**
- * Command to get the remaining playtime of a player.
+ * Command to get the remaining playtime of a player, the playtime of the past days with the history subcommand
+ * or the leaderboard with the top subcommand.
  */
 public class RemainingPlaytimeCommand extends BukkitCommand implements TabCompleter {
-    private static DatabaseManager databaseManager;
-    private static TrueConnective instance;
+    private static final String HISTORY = "history";
+    private static final int DEFAULT_HISTORY_DAYS = 7;
+    private static final int MAX_HISTORY_DAYS = 90;
+    private static final String TOP = "top";
+    private static final int TOP_PAGE_SIZE = 10;
+
+    private static PlayTimeManager playTimeManager;
+    private static MessageManager messageManager;
+    private static PlayerDirectory playerDirectory;
+    private static AsyncDatabaseManager asyncDatabaseManager;
+    private static DailyResetScheduler dailyResetScheduler;
+    private static PlaytimeLeaderboard playtimeLeaderboard;
+    private static LeaderboardGui leaderboardGui;
 
     /**
      * Constructor for RemainingPlaytimeCommand.
      *
-     * @param dbmanager The DatabaseManager instance to interact with the database.
-     * @param plugin The TrueConnective plugin instance.
+     * @param ptmanager The PlayTimeManager instance to read the playtime.
+     * @param messages The MessageManager instance to get the messages from.
+     * @param directory The PlayerDirectory instance to resolve and complete player names.
+     * @param asyncDbManager The AsyncDatabaseManager instance to read the playtime history.
+     * @param resetScheduler The DailyResetScheduler instance to get the current reset day from.
+     * @param leaderboard The PlaytimeLeaderboard instance to list the top players.
+     * @param leaderboardGuiInstance The LeaderboardGui instance to show the leaderboard to players.
      */
-    public RemainingPlaytimeCommand(DatabaseManager dbmanager, TrueConnective plugin) {
+    public RemainingPlaytimeCommand(
+            PlayTimeManager ptmanager,
+            MessageManager messages,
+            PlayerDirectory directory,
+            AsyncDatabaseManager asyncDbManager,
+            DailyResetScheduler resetScheduler,
+            PlaytimeLeaderboard leaderboard,
+            LeaderboardGui leaderboardGuiInstance) {
         super("playtime");
-        databaseManager = dbmanager;
-        instance = plugin;
+        playTimeManager = ptmanager;
+        messageManager = messages;
+        playerDirectory = directory;
+        asyncDatabaseManager = asyncDbManager;
+        dailyResetScheduler = resetScheduler;
+        playtimeLeaderboard = leaderboard;
+        leaderboardGui = leaderboardGuiInstance;
     }
 
     /**
@@ -54,66 +89,33 @@ public class RemainingPlaytimeCommand extends BukkitCommand implements TabComple
      */
     @Override
     public boolean execute(@NotNull CommandSender sender, @NotNull String commandLabel, @NotNull String[] args) {
+        if (args.length >= 1 && args[0].equalsIgnoreCase(HISTORY)) {
+            return history(sender, args);
+        }
+        if (args.length >= 1 && args[0].equalsIgnoreCase(TOP)) {
+            return top(sender, args);
+        }
         if (sender instanceof Player player) {
             if (!player.hasPermission("trueconnective.playtime.get")) {
-                TextComponent noPermission = Component.text()
-                        .content("Du hast keine Berechtigung für diesen Befehl!")
-                        .color(TextColor.color(0xef2121))
-                        .build();
-                player.sendMessage(noPermission);
+                player.sendMessage(messageManager.get(Message.COMMAND_NO_PERMISSION));
                 return false;
             } else {
                 if (args.length != 1) {
                     // Get the remaining playtime of the player
-                    if (player.hasPermission("trueconnective.creator")) {
-                        int remainingPlaytime = (instance.getConfig().getInt("creator.max-playtime")
-                                - databaseManager.getPlaytime(player));
-                        TextComponent remainingPlaytimeMessage = Component.text()
-                                .content("Du hast noch " + remainingPlaytime + " Minuten Spielzeit!")
-                                .color(TextColor.color(0x21ef21))
-                                .build();
-                        player.sendMessage(remainingPlaytimeMessage);
-                        return true;
-                    } else {
-                        int remainingPlaytime = (instance.getConfig().getInt("viewer.max-playtime")
-                                - databaseManager.getPlaytime(player));
-                        TextComponent remainingPlaytimeMessage = Component.text()
-                                .content("Du hast noch " + remainingPlaytime + " Minuten Spielzeit!")
-                                .color(TextColor.color(0x21ef21))
-                                .build();
-                        player.sendMessage(remainingPlaytimeMessage);
-                        return true;
-                    }
+                    int remainingPlaytime = playTimeManager.getRemainingMinutes(player);
+                    player.sendMessage(
+                            messageManager.get(Message.COMMAND_REMAINING_SELF, "minutes", remainingPlaytime));
+                    return true;
                 } else {
                     Player target = player.getServer().getPlayer(args[0]);
                     if (target == null) {
-                        TextComponent playerNotFound = Component.text()
-                                .content("Spieler " + args[0] + " konnte nicht gefunden werden!")
-                                .color(TextColor.color(0xef2121))
-                                .build();
-                        player.sendMessage(playerNotFound);
+                        player.sendMessage(messageManager.get(
+                                Message.COMMAND_PLAYER_NOT_FOUND, Placeholder.unparsed("player", args[0])));
                         return false;
                     } else {
                         // Get the remaining playtime of the target player
-                        if (target.hasPermission("trueconnective.creator")) {
-                            int remainingPlaytime = (instance.getConfig().getInt("creator.max-playtime")
-                                    - databaseManager.getPlaytime(player));
-                            TextComponent remainingPlaytimeMessage = Component.text()
-                                    .content("Spieler " + target.getName() + " hat noch " + remainingPlaytime
-                                            + " Minuten Spielzeit!")
-                                    .color(TextColor.color(0x21ef21))
-                                    .build();
-                            player.sendMessage(remainingPlaytimeMessage);
-                            return true;
-                        }
-                        int remainingPlaytime = (instance.getConfig().getInt("viewer.max-playtime")
-                                - databaseManager.getPlaytime(player));
-                        TextComponent remainingPlaytimeMessage = Component.text()
-                                .content("Spieler " + target.getName() + " hat noch " + remainingPlaytime
-                                        + " Minuten Spielzeit!")
-                                .color(TextColor.color(0x21ef21))
-                                .build();
-                        player.sendMessage(remainingPlaytimeMessage);
+                        int remainingPlaytime = playTimeManager.getRemainingMinutes(target);
+                        player.sendMessage(remainingOtherMessage(target, remainingPlaytime));
                         return true;
                     }
                 }
@@ -123,6 +125,151 @@ public class RemainingPlaytimeCommand extends BukkitCommand implements TabComple
         return false;
     }
 
+    /**
+     * Shows the playtime of a player on each of the past days, read from the daily rollups.
+     * The current day is only compacted after the next reset, so it's not part of the history.
+     *
+     * @param sender The sender of the command.
+     * @param args The arguments passed to the command, starting with the subcommand.
+     * @return true if the history is being loaded, false otherwise.
+     */
+    private boolean history(CommandSender sender, String[] args) {
+        if (!sender.hasPermission("trueconnective.playtime.history")) {
+            sender.sendMessage(messageManager.get(Message.COMMAND_NO_PERMISSION));
+            return false;
+        }
+        int days = args.length == 3 ? parseDays(args[2]) : DEFAULT_HISTORY_DAYS;
+        if (args.length < 2 || args.length > 3 || days < 1) {
+            sender.sendMessage(messageManager.get(Message.COMMAND_HISTORY_USAGE, "max", MAX_HISTORY_DAYS));
+            return false;
+        }
+        // Only players that have joined before are looked up in the player directory, without asking the Mojang API
+        playerDirectory.resolve(args[1]).thenAccept(target -> {
+            if (target.isEmpty()) {
+                sender.sendMessage(
+                        messageManager.get(Message.COMMAND_PLAYER_NOT_FOUND, Placeholder.unparsed("player", args[1])));
+                return;
+            }
+            showHistory(sender, target.get().uuid(), target.get().name(), days);
+        });
+        return true;
+    }
+
+    /**
+     * Reads the playtime history of a resolved player and sends it to the sender.
+     *
+     * @param sender The sender of the command.
+     * @param playerUUID The UUID of the player.
+     * @param name The name of the player.
+     * @param days The number of past days to show.
+     */
+    private void showHistory(CommandSender sender, UUID playerUUID, String name, int days) {
+        long fromDay = dailyResetScheduler.getCurrentDay() - days;
+        asyncDatabaseManager.getPlaytimeHistory(playerUUID, fromDay).thenAccept(history -> {
+            if (history.isEmpty()) {
+                sender.sendMessage(messageManager.get(
+                        Message.COMMAND_HISTORY_EMPTY,
+                        Placeholder.unparsed("player", name),
+                        Placeholder.unparsed("days", String.valueOf(days))));
+                return;
+            }
+            sender.sendMessage(messageManager.get(
+                    Message.COMMAND_HISTORY_HEADER,
+                    Placeholder.unparsed("player", name),
+                    Placeholder.unparsed("days", String.valueOf(days))));
+            for (PlaytimeHistoryDay day : history) {
+                sender.sendMessage(messageManager.get(
+                        Message.COMMAND_HISTORY_DAY,
+                        Placeholder.unparsed("date", LocalDate.ofEpochDay(day.day()).toString()),
+                        Placeholder.unparsed("minutes", String.valueOf(day.seconds() / 60))));
+            }
+        });
+    }
+
+    /**
+     * Shows a page of the leaderboard, read from memory. Players that don't choose a period get the GUI.
+     *
+     * @param sender The sender of the command.
+     * @param args The arguments passed to the command, starting with the subcommand.
+     * @return true if the leaderboard was shown, false otherwise.
+     */
+    private boolean top(CommandSender sender, String[] args) {
+        if (!sender.hasPermission("trueconnective.playtime.top")) {
+            sender.sendMessage(messageManager.get(Message.COMMAND_NO_PERMISSION));
+            return false;
+        }
+        if (args.length == 1 && sender instanceof Player player) {
+            leaderboardGui.open(player);
+            return true;
+        }
+        Period period = args.length >= 2 ? parsePeriod(args[1]) : Period.DAILY;
+        int page = args.length == 3 ? parsePage(args[2]) : 1;
+        if (args.length > 3 || period == null || page < 1) {
+            sender.sendMessage(messageManager.get(Message.COMMAND_TOP_USAGE));
+            return false;
+        }
+
+        List<LeaderboardEntry> entries = playtimeLeaderboard.getPage(period, page - 1, TOP_PAGE_SIZE);
+        if (entries.isEmpty()) {
+            sender.sendMessage(messageManager.get(Message.COMMAND_TOP_EMPTY));
+            return true;
+        }
+        int pages = playtimeLeaderboard.getPageCount(period, TOP_PAGE_SIZE);
+        sender.sendMessage(messageManager.get(
+                Message.COMMAND_TOP_HEADER,
+                Placeholder.component("period", leaderboardGui.periodName(period)),
+                Placeholder.unparsed("page", String.valueOf(page)),
+                Placeholder.unparsed("pages", String.valueOf(pages))));
+        for (LeaderboardEntry entry : entries) {
+            sender.sendMessage(messageManager.get(
+                    Message.COMMAND_TOP_ENTRY,
+                    Placeholder.unparsed("rank", String.valueOf(entry.rank())),
+                    Placeholder.unparsed("player", leaderboardGui.getName(entry.uuid())),
+                    Placeholder.unparsed("minutes", String.valueOf(entry.seconds() / 60))));
+        }
+        if (sender instanceof Player player) {
+            LeaderboardEntry ownRank = playtimeLeaderboard.getRank(period, player.getUniqueId());
+            if (ownRank != null) {
+                player.sendMessage(messageManager.get(
+                        Message.COMMAND_TOP_OWN_RANK,
+                        Placeholder.unparsed("rank", String.valueOf(ownRank.rank())),
+                        Placeholder.unparsed("minutes", String.valueOf(ownRank.seconds() / 60))));
+            }
+        }
+        return true;
+    }
+
+    private static Period parsePeriod(String period) {
+        return switch (period.toLowerCase(Locale.ROOT)) {
+            case "daily" -> Period.DAILY;
+            case "weekly" -> Period.WEEKLY;
+            default -> null;
+        };
+    }
+
+    private static int parsePage(String page) {
+        try {
+            return Integer.parseInt(page);
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+
+    private static int parseDays(String days) {
+        try {
+            return Math.min(Integer.parseInt(days), MAX_HISTORY_DAYS);
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+
+    private Component remainingOtherMessage(Player target, int remainingPlaytime) {
+        return messageManager.get(
+                Message.COMMAND_REMAINING_OTHER,
+                Placeholder.unparsed("player", target.getName()),
+                Placeholder.unparsed("minutes", String.valueOf(remainingPlaytime)));
+    }
+
     /**
      * Provides tab completion for the playtime command.
      *
@@ -136,11 +283,37 @@ public class RemainingPlaytimeCommand extends BukkitCommand implements TabComple
     public @Nullable List<String> onTabComplete(
             @NotNull CommandSender sender, @NotNull Command command, @NotNull String label, @NotNull String[] args) {
         if (args.length == 1) {
-            // Return all player names as tab completion even if they are offline
-            return Arrays.stream(getServer().getOfflinePlayers())
-                    .map(OfflinePlayer::getName)
-                    .collect(Collectors.toList());
+            // Complete the names of all known players, even if they are offline
+            List<String> completions = playerDirectory.complete(args[0]);
+            String prefix = args[0].toLowerCase(Locale.ROOT);
+            if (TOP.startsWith(prefix) && sender.hasPermission("trueconnective.playtime.top")) {
+                completions.addFirst(TOP);
+            }
+            if (HISTORY.startsWith(prefix) && sender.hasPermission("trueconnective.playtime.history")) {
+                completions.addFirst(HISTORY);
+            }
+            return completions;
+        }
+        if (args.length == 2 && args[0].equalsIgnoreCase(HISTORY)) {
+            return playerDirectory.complete(args[1]);
+        }
+        if (args.length == 2 && args[0].equalsIgnoreCase(TOP)) {
+            String prefix = args[1].toLowerCase(Locale.ROOT);
+            List<String> completions = new ArrayList<>();
+            for (String period : List.of("daily", "weekly")) {
+                if (period.startsWith(prefix)) completions.add(period);
+            }
+            return completions;
         }
         return new ArrayList<>();
     }
+
+    /**
+     * Bukkit only asks the command itself for completions, so they are forwarded to {@link #onTabComplete}.
+     */
+    @Override
+    public @NotNull List<String> tabComplete(
+            @NotNull CommandSender sender, @NotNull String alias, @NotNull String[] args) {
+        return onTabComplete(sender, this, alias, args);
+    }
 }
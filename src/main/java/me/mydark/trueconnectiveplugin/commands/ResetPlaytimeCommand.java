@@ -5,17 +5,14 @@
 //********************************************************************************************
 package me.mydark.trueconnectiveplugin.commands;
 
-import static org.bukkit.Bukkit.getServer;
-
 import java.util.ArrayList;
-import java.util.Arrays;
 import java.util.List;
-import java.util.stream.Collectors;
-import me.mydark.trueconnectiveplugin.manager.DatabaseManager;
-import net.kyori.adventure.text.Component;
-import net.kyori.adventure.text.TextComponent;
-import net.kyori.adventure.text.format.TextColor;
-import org.bukkit.OfflinePlayer;
+import me.mydark.trueconnectiveplugin.manager.MessageManager;
+import me.mydark.trueconnectiveplugin.manager.MessageManager.Message;
+import me.mydark.trueconnectiveplugin.manager.PlayTimeManager;
+import me.mydark.trueconnectiveplugin.manager.PlayerDirectory;
+import net.kyori.adventure.text.minimessage.tag.resolver.Placeholder;
+import org.bukkit.Bukkit;
 import org.bukkit.command.Command;
 import org.bukkit.command.CommandSender;
 import org.bukkit.command.TabCompleter;
@@ -28,16 +25,22 @@ import org.jetbrains.annotations.Nullable;
  * Command to reset the playtime of a player.
  */
 public class ResetPlaytimeCommand extends BukkitCommand implements TabCompleter {
-    private static DatabaseManager databaseManager;
+    private static PlayTimeManager playTimeManager;
+    private static MessageManager messageManager;
+    private static PlayerDirectory playerDirectory;
 
     /**
      * Constructor for ResetPlaytimeCommand.
      *
-     * @param dbmanager The DatabaseManager instance to interact with the database.
+     * @param ptmanager The PlayTimeManager instance to manage the playtime.
+     * @param messages The MessageManager instance to get the messages from.
+     * @param directory The PlayerDirectory instance to resolve and complete player names.
      */
-    public ResetPlaytimeCommand(DatabaseManager dbmanager) {
+    public ResetPlaytimeCommand(PlayTimeManager ptmanager, MessageManager messages, PlayerDirectory directory) {
         super("resetplaytime");
-        databaseManager = dbmanager;
+        playTimeManager = ptmanager;
+        messageManager = messages;
+        playerDirectory = directory;
     }
 
     /**
@@ -52,39 +55,25 @@ public class ResetPlaytimeCommand extends BukkitCommand implements TabCompleter
     public boolean execute(@NotNull CommandSender sender, @NotNull String commandLabel, @NotNull String[] args) {
         if (sender instanceof Player player) {
             if (!player.hasPermission("trueconnective.playtime.reset")) {
-                TextComponent noPermission = Component.text()
-                        .content("Du hast keine Berechtigung für diesen Befehl!")
-                        .color(TextColor.color(0xef2121))
-                        .build();
-                player.sendMessage(noPermission);
+                player.sendMessage(messageManager.get(Message.COMMAND_NO_PERMISSION));
                 return false;
             } else {
                 if (args.length != 1) {
                     // Reset the playtime of the player
-                    databaseManager.resetPlaytime(player);
-                    TextComponent playtimeReset = Component.text()
-                            .content("Deine Spielzeit wurde zurückgesetzt!")
-                            .color(TextColor.color(0x21ef21))
-                            .build();
-                    player.sendMessage(playtimeReset);
+                    playTimeManager.resetPlaytime(player);
+                    player.sendMessage(messageManager.get(Message.COMMAND_RESET_SELF));
                     return true;
                 } else {
                     Player target = player.getServer().getPlayer(args[0]);
                     if (target == null) {
-                        TextComponent playerNotFound = Component.text()
-                                .content("Spieler " + args[0] + " konnte nicht gefunden werden!")
-                                .color(TextColor.color(0xef2121))
-                                .build();
-                        player.sendMessage(playerNotFound);
+                        player.sendMessage(messageManager.get(
+                                Message.COMMAND_PLAYER_NOT_FOUND, Placeholder.unparsed("player", args[0])));
                         return false;
                     } else {
                         // Reset the playtime of the target player
-                        databaseManager.resetPlaytime(target);
-                        TextComponent playtimeReset = Component.text()
-                                .content("Spielzeit von " + target.getName() + " wurde zurückgesetzt!")
-                                .color(TextColor.color(0x21ef21))
-                                .build();
-                        player.sendMessage(playtimeReset);
+                        playTimeManager.resetPlaytime(target);
+                        player.sendMessage(messageManager.get(
+                                Message.COMMAND_RESET_OTHER, Placeholder.unparsed("player", target.getName())));
                         return true;
                     }
                 }
@@ -94,16 +83,17 @@ public class ResetPlaytimeCommand extends BukkitCommand implements TabCompleter
                 sender.sendMessage("Usage: /resetplaytime <player>");
                 return false;
             } else {
-                OfflinePlayer target = getServer().getOfflinePlayer(args[0]);
-                if (target == null) {
-                    sender.sendMessage("Player " + args[0] + " not found");
-                    return false;
-                } else {
+                // The target may be offline, so it's resolved through the player directory
+                playerDirectory.resolve(args[0]).thenAccept(target -> {
+                    if (target.isEmpty()) {
+                        sender.sendMessage("Player " + args[0] + " not found");
+                        return;
+                    }
                     // Reset the playtime of the target player
-                    databaseManager.resetPlaytime(target);
-                    sender.sendMessage("Playtime of " + target.getName() + " has been reset");
-                    return true;
-                }
+                    playTimeManager.resetPlaytime(Bukkit.getOfflinePlayer(target.get().uuid()));
+                    sender.sendMessage("Playtime of " + target.get().name() + " has been reset");
+                });
+                return true;
             }
         }
     }
@@ -121,11 +111,18 @@ public class ResetPlaytimeCommand extends BukkitCommand implements TabCompleter
     public @Nullable List<String> onTabComplete(
             @NotNull CommandSender sender, @NotNull Command command, @NotNull String label, @NotNull String[] args) {
         if (args.length == 1) {
-            // Return all player names as tab completion even if they are offline
-            return Arrays.stream(getServer().getOfflinePlayers())
-                    .map(OfflinePlayer::getName)
-                    .collect(Collectors.toList());
+            // Complete the names of all known players, even if they are offline
+            return playerDirectory.complete(args[0]);
         }
         return new ArrayList<>();
     }
+
+    /**
+     * Bukkit only asks the command itself for completions, so they are forwarded to {@link #onTabComplete}.
+     */
+    @Override
+    public @NotNull List<String> tabComplete(
+            @NotNull CommandSender sender, @NotNull String alias, @NotNull String[] args) {
+        return onTabComplete(sender, this, alias, args);
+    }
 }
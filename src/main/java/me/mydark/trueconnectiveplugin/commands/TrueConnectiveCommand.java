@@ -5,34 +5,47 @@
 //********************************************************************************************
 package me.mydark.trueconnectiveplugin.commands;
 
+import java.util.Locale;
 import lombok.extern.slf4j.Slf4j;
+import me.mydark.trueconnectiveplugin.TrueConnective;
 import me.mydark.trueconnectiveplugin.gui.TrueConnectiveGui;
-import net.kyori.adventure.text.Component;
-import net.kyori.adventure.text.TextComponent;
-import net.kyori.adventure.text.format.TextColor;
+import me.mydark.trueconnectiveplugin.manager.LatencyHistogram;
+import me.mydark.trueconnectiveplugin.manager.MessageManager;
+import me.mydark.trueconnectiveplugin.manager.MessageManager.Message;
+import me.mydark.trueconnectiveplugin.manager.MetricsRegistry;
+import net.kyori.adventure.text.minimessage.tag.resolver.Placeholder;
 import org.bukkit.command.CommandSender;
 import org.bukkit.command.defaults.BukkitCommand;
 import org.bukkit.entity.Player;
 import org.jetbrains.annotations.NotNull;
 
 /**
- * Command to open the TrueConnective management GUI.
+ * Command to open the TrueConnective management GUI, to reload the plugin and to show its metrics.
  */
 @Slf4j
 public class TrueConnectiveCommand extends BukkitCommand {
-    private static final TrueConnectiveGui gui = new TrueConnectiveGui();
+    private static TrueConnectiveGui gui;
+    private final TrueConnective plugin;
+    private final MessageManager messageManager;
 
     /**
      * Constructor for the TrueConnectiveCommand.
-     * Sets the command name and initializes the logger.
+     * Sets the command name and initializes the GUI.
+     *
+     * @param plugin The TrueConnective plugin instance, to reload the config.
+     * @param messageManager The MessageManager instance to get the messages from.
      */
-    public TrueConnectiveCommand() {
+    public TrueConnectiveCommand(TrueConnective plugin, MessageManager messageManager) {
         super("trueconnective");
+        this.plugin = plugin;
+        this.messageManager = messageManager;
+        gui = new TrueConnectiveGui(messageManager);
     }
 
     /**
      * Executes the trueconnective command.
-     * Opens a GUI for the player to interact with TrueConnective management.
+     * Opens a GUI for the player to interact with TrueConnective management,
+     * reloads the config and messages with the reload subcommand or shows the metrics with the stats subcommand.
      *
      * @param sender The sender of the command.
      * @param commandLabel The label of the command.
@@ -41,20 +54,61 @@ public class TrueConnectiveCommand extends BukkitCommand {
      */
     @Override
     public boolean execute(@NotNull CommandSender sender, @NotNull String commandLabel, @NotNull String[] args) {
+        if (args.length == 1 && args[0].equalsIgnoreCase("reload")) {
+            return reload(sender);
+        }
+        if (args.length == 1 && args[0].equalsIgnoreCase("stats")) {
+            return stats(sender);
+        }
         if (sender instanceof Player player) {
             if (player.hasPermission("trueconnective.gui")) {
                 gui.open(player);
                 return true;
             }
-            TextComponent message = Component.text()
-                    .content("Du hast keine Berechtigung, um diesen Befehl auszuführen!")
-                    .color(TextColor.color(0xff6969))
-                    .build();
-
-            player.sendMessage(message);
+            player.sendMessage(messageManager.get(Message.COMMAND_NO_PERMISSION_MENU));
             return false;
         }
         log.error("This command can only be executed by a player!");
         return false;
     }
+
+    private boolean reload(CommandSender sender) {
+        if (!sender.hasPermission("trueconnective.reload")) {
+            sender.sendMessage(messageManager.get(Message.COMMAND_NO_PERMISSION));
+            return false;
+        }
+        plugin.reload();
+        sender.sendMessage(messageManager.get(Message.COMMAND_RELOADED));
+        return true;
+    }
+
+    private boolean stats(CommandSender sender) {
+        if (!sender.hasPermission("trueconnective.stats")) {
+            sender.sendMessage(messageManager.get(Message.COMMAND_NO_PERMISSION));
+            return false;
+        }
+        MetricsRegistry metricsRegistry = plugin.getMetricsRegistry();
+        sender.sendMessage(messageManager.get(Message.COMMAND_STATS_HEADER));
+        metricsRegistry.getTimers().forEach((name, timer) -> {
+            LatencyHistogram.Snapshot snapshot = timer.snapshot();
+            sender.sendMessage(messageManager.get(
+                    Message.COMMAND_STATS_TIMER,
+                    Placeholder.unparsed("name", name.toString()),
+                    Placeholder.unparsed("count", String.valueOf(snapshot.count())),
+                    Placeholder.unparsed("mean", formatMillis(snapshot.meanMillis())),
+                    Placeholder.unparsed("p95", formatMillis(snapshot.percentileMillis(0.95))),
+                    Placeholder.unparsed("max", formatMillis(snapshot.maxMillis()))));
+        });
+        metricsRegistry
+                .getValues()
+                .forEach((name, value) -> sender.sendMessage(messageManager.get(
+                        Message.COMMAND_STATS_VALUE,
+                        Placeholder.unparsed("name", name.toString()),
+                        Placeholder.unparsed("value", String.valueOf(value)))));
+        return true;
+    }
+
+    private static String formatMillis(double millis) {
+        return String.format(Locale.ROOT, "%.3f", millis);
+    }
 }
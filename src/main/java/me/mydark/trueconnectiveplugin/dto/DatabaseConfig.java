@@ -0,0 +1,56 @@
+//********************************************************************************************
+// Author:      V01D-PH03N1X (PinguBasti), TrueConnective Paul & Stolle GbR
+// Project:     TrueConnective Paper Plugin
+// Description: Management Plugin for Paper Servers (Minecraft)
+//********************************************************************************************
+package me.mydark.trueconnectiveplugin.dto;
+
+import java.time.Duration;
+
+/**
+ * The storage the plugin connects to on startup.
+ *
+ * @param type                The kind of storage.
+ * @param sqliteFile          The SQLite database file, relative to the plugin folder. Only used by {@link Type#SQLITE}.
+ * @param url                 The JDBC url of the MariaDB or MySQL server, only used by {@link Type#MARIADB}.
+ * @param username            The username for the MariaDB or MySQL server.
+ * @param password            The password for the MariaDB or MySQL server.
+ * @param poolSize            The maximum number of pooled connections to the MariaDB or MySQL server.
+ * @param serverId            The unique id of this server in the network, or null outside of network mode.
+ * @param networkPollInterval The interval in which the playtime on the other servers of the network is polled.
+ */
+public record DatabaseConfig(
+        Type type,
+        String sqliteFile,
+        String url,
+        String username,
+        String password,
+        int poolSize,
+        String serverId,
+        Duration networkPollInterval) {
+
+    public enum Type {
+        /** A local SQLite file in the plugin folder. */
+        SQLITE,
+        /** A MariaDB or MySQL server, which can be shared by several servers. */
+        MARIADB,
+        /** Nothing is persisted, all data is lost on shutdown. */
+        MEMORY
+    }
+
+    /**
+     * Checks if the playtime is shared with other servers.
+     *
+     * @return True if a server id is configured.
+     */
+    public boolean networkMode() {
+        return serverId != null;
+    }
+
+    @Override
+    public String toString() {
+        // Keep the password out of the logs
+        return "DatabaseConfig[type=" + type + ", url=" + url + ", username=" + username + ", poolSize=" + poolSize
+                + ", serverId=" + serverId + "]";
+    }
+}
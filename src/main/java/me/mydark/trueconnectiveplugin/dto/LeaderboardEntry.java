@@ -0,0 +1,17 @@
+//********************************************************************************************
+// Author:      V01D-PH03N1X (PinguBasti), TrueConnective Paul & Stolle GbR
+// Project:     TrueConnective Paper Plugin
+// Description: Management Plugin for Paper Servers (Minecraft)
+//********************************************************************************************
+package me.mydark.trueconnectiveplugin.dto;
+
+import java.util.UUID;
+
+/**
+ * A player on a page of the playtime leaderboard.
+ *
+ * @param rank    The rank of the player, starting at 1.
+ * @param uuid    The UUID of the player.
+ * @param seconds The playtime of the player in seconds.
+ */
+public record LeaderboardEntry(int rank, UUID uuid, int seconds) {}
@@ -0,0 +1,17 @@
+//********************************************************************************************
+// Author:      V01D-PH03N1X (PinguBasti), TrueConnective Paul & Stolle GbR
+// Project:     TrueConnective Paper Plugin
+// Description: Management Plugin for Paper Servers (Minecraft)
+//********************************************************************************************
+package me.mydark.trueconnectiveplugin.dto;
+
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * The result of a poll of the playtime on the other servers of the network.
+ *
+ * @param day       The epoch day of the reset day the playtimes were read for.
+ * @param playtimes The playtime in seconds on all other servers per player whose playtime changed.
+ */
+public record NetworkPlaytimes(long day, Map<UUID, Integer> playtimes) {}
@@ -0,0 +1,17 @@
+//********************************************************************************************
+// Author:      V01D-PH03N1X (PinguBasti), TrueConnective Paul & Stolle GbR
+// Project:     TrueConnective Paper Plugin
+// Description: Management Plugin for Paper Servers (Minecraft)
+//********************************************************************************************
+package me.mydark.trueconnectiveplugin.dto;
+
+import java.util.UUID;
+
+/**
+ * A player in the player directory, which maps the names of all known players to their UUID.
+ *
+ * @param uuid     The UUID of the player.
+ * @param name     The name of the player when they were last seen.
+ * @param lastSeen The time the player last joined in epoch milliseconds, or 0 if unknown.
+ */
+public record PlayerDirectoryEntry(UUID uuid, String name, long lastSeen) {}
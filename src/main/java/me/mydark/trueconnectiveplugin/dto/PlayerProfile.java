@@ -0,0 +1,23 @@
+//********************************************************************************************
+// Author:      V01D-PH03N1X (PinguBasti), TrueConnective Paul & Stolle GbR
+// Project:     TrueConnective Paper Plugin
+// Description: Management Plugin for Paper Servers (Minecraft)
+//********************************************************************************************
+package me.mydark.trueconnectiveplugin.dto;
+
+import java.util.UUID;
+
+/**
+ * Everything the plugin needs to know about a player when they join, loaded with a single query.
+ *
+ * @param uuid            The UUID of the player.
+ * @param playtime        The playtime of the player in seconds on the reset day the profile was loaded on.
+ *                        In network mode only the playtime on this server.
+ * @param networkPlaytime The playtime of the player in seconds on the other servers of the network,
+ *                        always 0 outside of network mode.
+ * @param day             The epoch day of the reset day the profile was loaded on.
+ * @param tiktokUsername  The connected TikTok username of the player, or null if there is none.
+ * @param settings        The settings of the player.
+ */
+public record PlayerProfile(
+        UUID uuid, int playtime, int networkPlaytime, long day, String tiktokUsername, PlayerSettings settings) {}
@@ -0,0 +1,57 @@
+//********************************************************************************************
+// Author:      V01D-PH03N1X (PinguBasti), TrueConnective Paul & Stolle GbR
+// Project:     TrueConnective Paper Plugin
+// Description: Management Plugin for Paper Servers (Minecraft)
+//********************************************************************************************
+package me.mydark.trueconnectiveplugin.dto;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.bukkit.entity.Player;
+
+/**
+ * The runtime state of an online player that is served by the session ticker.
+ */
+@Getter
+public class PlayerSession {
+    private final Player player;
+
+    @Setter
+    private boolean actionbarEnabled;
+
+    @Setter
+    private boolean bossbarEnabled;
+
+    @Setter
+    private QuotaPolicy quotaPolicy;
+
+    // Closed on the thread of the player's region, while a new session may be opened on the global region thread
+    private volatile boolean closed;
+    private int ticksUntilQuotaRefresh;
+
+    public PlayerSession(Player player, PlayerSettings playerSettings, QuotaPolicy quotaPolicy) {
+        this.player = player;
+        this.actionbarEnabled = playerSettings.isActionbarEnabled();
+        this.bossbarEnabled = playerSettings.isBossbarEnabled();
+        this.quotaPolicy = quotaPolicy;
+    }
+
+    /**
+     * Counts down to the next resolution of the quota.
+     *
+     * @param interval The number of ticker runs between two quota resolutions.
+     * @return True if the quota is due to be resolved in this run, false otherwise.
+     */
+    public boolean isQuotaRefreshDue(int interval) {
+        if (--ticksUntilQuotaRefresh > 0) return false;
+        ticksUntilQuotaRefresh = interval;
+        return true;
+    }
+
+    /**
+     * Marks the session as closed, it is removed from the ticker on its next run.
+     */
+    public void close() {
+        closed = true;
+    }
+}
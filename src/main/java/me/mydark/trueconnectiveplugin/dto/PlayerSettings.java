@@ -6,35 +6,56 @@
 package me.mydark.trueconnectiveplugin.dto;
 
 import lombok.*;
-import lombok.extern.slf4j.Slf4j;
-import me.mydark.trueconnectiveplugin.manager.DatabaseManager;
-import org.bukkit.entity.Player;
 
-@Slf4j
+/**
+ * The settings of a player, packed into the bits of a single integer.
+ * In the database only the bits that differ from the defaults are stored,
+ * so a new setting starts at its default for all existing players without a schema change.
+ */
 @Getter
 @NoArgsConstructor
 @AllArgsConstructor
 public class PlayerSettings {
-    private boolean isActionbarEnabled = true;
-    private boolean isBossbarEnabled = true;
+    public static final int ACTIONBAR = 1;
+    public static final int BOSSBAR = 1 << 1;
 
-    public void setActionbarEnabled(Player target, DatabaseManager databaseManager, boolean isActionbarEnabled) {
-        this.isActionbarEnabled = isActionbarEnabled;
-        onChange(databaseManager, target);
+    // The settings that are enabled for players that haven't changed them
+    public static final int DEFAULT_FLAGS = ACTIONBAR | BOSSBAR;
+
+    private int flags = DEFAULT_FLAGS;
+
+    /**
+     * Creates the settings from the flags stored in the database.
+     *
+     * @param storedFlags The bits that differ from the defaults.
+     * @return The settings.
+     */
+    public static PlayerSettings fromStoredFlags(int storedFlags) {
+        return new PlayerSettings(storedFlags ^ DEFAULT_FLAGS);
+    }
+
+    /**
+     * Returns the flags to store in the database.
+     *
+     * @return The bits that differ from the defaults.
+     */
+    public int toStoredFlags() {
+        return flags ^ DEFAULT_FLAGS;
+    }
+
+    public boolean isEnabled(int flag) {
+        return (flags & flag) != 0;
+    }
+
+    public void setEnabled(int flag, boolean enabled) {
+        flags = enabled ? flags | flag : flags & ~flag;
     }
 
-    public void setBossbarEnabled(Player target, DatabaseManager databaseManager, boolean isBossbarEnabled) {
-        this.isBossbarEnabled = isBossbarEnabled;
-        onChange(databaseManager, target);
+    public boolean isActionbarEnabled() {
+        return isEnabled(ACTIONBAR);
     }
 
-    private void onChange(DatabaseManager databaseManager, Player target) {
-        // Update the player's settings in the database
-        log.info(
-                "Updating player settings for {} with actionbar: {} and bossbar: {}",
-                target.getName(),
-                isActionbarEnabled,
-                isBossbarEnabled);
-        databaseManager.setPlayerSettings(target, this);
+    public boolean isBossbarEnabled() {
+        return isEnabled(BOSSBAR);
     }
 }
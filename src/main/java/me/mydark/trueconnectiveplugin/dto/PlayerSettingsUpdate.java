@@ -0,0 +1,16 @@
+//********************************************************************************************
+// Author:      V01D-PH03N1X (PinguBasti), TrueConnective Paul & Stolle GbR
+// Project:     TrueConnective Paper Plugin
+// Description: Management Plugin for Paper Servers (Minecraft)
+//********************************************************************************************
+package me.mydark.trueconnectiveplugin.dto;
+
+import java.util.UUID;
+
+/**
+ * The settings of a player to be written to the database.
+ *
+ * @param uuid        The UUID of the player.
+ * @param storedFlags The settings as stored in the database, see {@link PlayerSettings#toStoredFlags()}.
+ */
+public record PlayerSettingsUpdate(UUID uuid, int storedFlags) {}
@@ -0,0 +1,14 @@
+//********************************************************************************************
+// Author:      V01D-PH03N1X (PinguBasti), TrueConnective Paul & Stolle GbR
+// Project:     TrueConnective Paper Plugin
+// Description: Management Plugin for Paper Servers (Minecraft)
+//********************************************************************************************
+package me.mydark.trueconnectiveplugin.dto;
+
+/**
+ * The playtime of a player on one reset day, summed over all servers.
+ *
+ * @param day     The epoch day of the reset day.
+ * @param seconds The playtime of the player on that day in seconds.
+ */
+public record PlaytimeHistoryDay(long day, int seconds) {}
@@ -0,0 +1,20 @@
+//********************************************************************************************
+// Author:      V01D-PH03N1X (PinguBasti), TrueConnective Paul & Stolle GbR
+// Project:     TrueConnective Paper Plugin
+// Description: Management Plugin for Paper Servers (Minecraft)
+//********************************************************************************************
+package me.mydark.trueconnectiveplugin.dto;
+
+import java.util.UUID;
+
+/**
+ * A segment of the session of a player on this server, as appended to the session log.
+ * A session is split into several segments at the checkpoints and at the daily reset,
+ * the segments of a day are compacted into a {@link PlaytimeHistoryDay} later on.
+ *
+ * @param uuid     The UUID of the player.
+ * @param joinedAt The start of the segment in epoch milliseconds.
+ * @param leftAt   The end of the segment in epoch milliseconds.
+ * @param seconds  The playtime of the segment in seconds.
+ */
+public record PlaytimeSession(UUID uuid, long joinedAt, long leftAt, int seconds) {}
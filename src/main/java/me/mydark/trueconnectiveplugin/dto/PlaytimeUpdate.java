@@ -0,0 +1,16 @@
+//********************************************************************************************
+// Author:      V01D-PH03N1X (PinguBasti), TrueConnective Paul & Stolle GbR
+// Project:     TrueConnective Paper Plugin
+// Description: Management Plugin for Paper Servers (Minecraft)
+//********************************************************************************************
+package me.mydark.trueconnectiveplugin.dto;
+
+import java.util.UUID;
+
+/**
+ * A pending playtime write of a single player.
+ *
+ * @param uuid     The UUID of the player.
+ * @param playtime The playtime of the player in seconds. In network mode only the playtime on this server.
+ */
+public record PlaytimeUpdate(UUID uuid, int playtime) {}
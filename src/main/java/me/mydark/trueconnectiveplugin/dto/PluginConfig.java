@@ -0,0 +1,61 @@
+//********************************************************************************************
+// Author:      V01D-PH03N1X (PinguBasti), TrueConnective Paul & Stolle GbR
+// Project:     TrueConnective Paper Plugin
+// Description: Management Plugin for Paper Servers (Minecraft)
+//********************************************************************************************
+package me.mydark.trueconnectiveplugin.dto;
+
+import java.time.Duration;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.util.List;
+import org.bukkit.permissions.Permissible;
+
+/**
+ * Immutable snapshot of the plugin config.
+ * A reload replaces the whole snapshot, so a reader never sees a mix of old and new values.
+ *
+ * @param tiers                The quota tiers, ordered from the highest to the lowest priority.
+ * @param flushInterval        The interval in which the cached playtime is written to the database.
+ * @param dailyResetTime       The time of day at which the playtime of all players is reset.
+ * @param dailyResetZone       The time zone of the daily reset time.
+ * @param liveCacheTtl         How long the live status of a TikTok account is cached.
+ * @param liveCacheSize        The maximum number of cached TikTok accounts.
+ * @param maxLiveConnections   The maximum number of concurrent connections to the livestreams of the creators.
+ * @param reconnectAttempts    How often a broken livestream connection is re-established in a row.
+ * @param maxReconnectDelay    The maximum delay between two connection attempts.
+ * @param metricsJmx           Whether the metrics are registered as JMX MBeans.
+ * @param metricsFile          The file the metrics are written to in the Prometheus text format, or null.
+ * @param metricsFileInterval  The interval in which the metrics file is written.
+ * @param database             The storage the plugin connects to, only applied on startup.
+ */
+public record PluginConfig(
+        List<QuotaTier> tiers,
+        Duration flushInterval,
+        LocalTime dailyResetTime,
+        ZoneId dailyResetZone,
+        Duration liveCacheTtl,
+        int liveCacheSize,
+        int maxLiveConnections,
+        int reconnectAttempts,
+        Duration maxReconnectDelay,
+        boolean metricsJmx,
+        String metricsFile,
+        Duration metricsFileInterval,
+        DatabaseConfig database) {
+
+    /**
+     * Resolves the quota tier of a player.
+     * The tiers are checked in order of their priority, players with none of the permissions get the
+     * tier with the lowest priority.
+     *
+     * @param player The player to resolve the tier for.
+     * @return The tier with the highest priority that the player has.
+     */
+    public QuotaTier resolveTier(Permissible player) {
+        for (QuotaTier tier : tiers) {
+            if (tier.permission() == null || player.hasPermission(tier.permission())) return tier;
+        }
+        return tiers.getLast();
+    }
+}
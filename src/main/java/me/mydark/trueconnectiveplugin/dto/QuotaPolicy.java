@@ -0,0 +1,16 @@
+//********************************************************************************************
+// Author:      V01D-PH03N1X (PinguBasti), TrueConnective Paul & Stolle GbR
+// Project:     TrueConnective Paper Plugin
+// Description: Management Plugin for Paper Servers (Minecraft)
+//********************************************************************************************
+package me.mydark.trueconnectiveplugin.dto;
+
+/**
+ * The resolved playtime quota of a player, so the session ticker doesn't have to check
+ * permissions or read the config on every run.
+ *
+ * @param bypass             True if the player has no playtime limit.
+ * @param role               The name of the quota tier the limit was taken from, e.g. creator or viewer.
+ * @param maxPlaytimeSeconds The daily playtime limit of the player in seconds.
+ */
+public record QuotaPolicy(boolean bypass, String role, int maxPlaytimeSeconds) {}
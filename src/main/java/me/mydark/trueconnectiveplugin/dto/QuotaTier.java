@@ -0,0 +1,16 @@
+//********************************************************************************************
+// Author:      V01D-PH03N1X (PinguBasti), TrueConnective Paul & Stolle GbR
+// Project:     TrueConnective Paper Plugin
+// Description: Management Plugin for Paper Servers (Minecraft)
+//********************************************************************************************
+package me.mydark.trueconnectiveplugin.dto;
+
+/**
+ * A playtime quota tier from the config.
+ *
+ * @param name               The name of the tier.
+ * @param permission         The permission a player needs for the tier, or null if every player has the tier.
+ * @param priority           The priority of the tier, a player gets the matching tier with the highest priority.
+ * @param maxPlaytimeSeconds The daily playtime limit of the tier in seconds.
+ */
+public record QuotaTier(String name, String permission, int priority, int maxPlaytimeSeconds) {}
@@ -0,0 +1,178 @@
+//********************************************************************************************
+// Author:      V01D-PH03N1X (PinguBasti), TrueConnective Paul & Stolle GbR
+// Project:     TrueConnective Paper Plugin
+// Description: Management Plugin for Paper Servers (Minecraft)
+//********************************************************************************************
+package me.mydark.trueconnectiveplugin.gui;
+
+import dev.triumphteam.gui.builder.item.ItemBuilder;
+import dev.triumphteam.gui.guis.Gui;
+import dev.triumphteam.gui.guis.GuiItem;
+import java.util.UUID;
+import me.mydark.trueconnectiveplugin.dto.LeaderboardEntry;
+import me.mydark.trueconnectiveplugin.manager.MessageManager;
+import me.mydark.trueconnectiveplugin.manager.MessageManager.Message;
+import me.mydark.trueconnectiveplugin.manager.PlayerNameIndex;
+import me.mydark.trueconnectiveplugin.manager.PlaytimeLeaderboard;
+import me.mydark.trueconnectiveplugin.manager.PlaytimeLeaderboard.Period;
+import net.kyori.adventure.text.Component;
+import net.kyori.adventure.text.minimessage.tag.resolver.Placeholder;
+import org.bukkit.Bukkit;
+import org.bukkit.Material;
+import org.bukkit.entity.Player;
+import org.bukkit.inventory.ItemStack;
+
+/**
+ * The GUI of the daily and weekly playtime leaderboard.
+ * Every open creates a view that only renders the page it shows, read from the in-memory leaderboard.
+ */
+public class LeaderboardGui {
+    private static final int PAGE_SIZE = 45;
+    private static final int PREVIOUS_SLOT = 45;
+    private static final int OWN_RANK_SLOT = 48;
+    private static final int PERIOD_SLOT = 50;
+    private static final int NEXT_SLOT = 53;
+
+    private final MessageManager messageManager;
+    private final PlaytimeLeaderboard leaderboard;
+    private final PlayerNameIndex playerNameIndex;
+
+    /**
+     * Constructor for the LeaderboardGui.
+     *
+     * @param messageManager  The MessageManager instance to get the messages from.
+     * @param leaderboard     The leaderboard to show.
+     * @param playerNameIndex The PlayerNameIndex instance to get the names of the players from.
+     */
+    public LeaderboardGui(
+            MessageManager messageManager, PlaytimeLeaderboard leaderboard, PlayerNameIndex playerNameIndex) {
+        this.messageManager = messageManager;
+        this.leaderboard = leaderboard;
+        this.playerNameIndex = playerNameIndex;
+    }
+
+    /**
+     * Opens the first page of the daily leaderboard for a player.
+     *
+     * @param player The player to open the GUI for.
+     */
+    public void open(Player player) {
+        new View(player).open();
+    }
+
+    /**
+     * Retrieves the display name of a ranked player.
+     *
+     * @param playerUUID The UUID of the player.
+     * @return The name of the player, or the UUID if the name isn't known.
+     */
+    public String getName(UUID playerUUID) {
+        String name = playerNameIndex.getName(playerUUID);
+        return name == null ? playerUUID.toString() : name;
+    }
+
+    /**
+     * Renders the name of a period, e.g. "Heute".
+     *
+     * @param period The period of the leaderboard.
+     * @return The rendered name.
+     */
+    public Component periodName(Period period) {
+        return messageManager.get(period == Period.DAILY ? Message.LEADERBOARD_DAILY : Message.LEADERBOARD_WEEKLY);
+    }
+
+    private ItemStack entryItem(LeaderboardEntry entry) {
+        return ItemBuilder.skull()
+                .owner(Bukkit.getOfflinePlayer(entry.uuid()))
+                .name(messageManager.get(
+                        Message.LEADERBOARD_ENTRY_NAME,
+                        Placeholder.unparsed("rank", String.valueOf(entry.rank())),
+                        Placeholder.unparsed("player", getName(entry.uuid()))))
+                .lore(messageManager.get(Message.LEADERBOARD_ENTRY_LORE, "minutes", entry.seconds() / 60))
+                .build();
+    }
+
+    private final class View {
+        private final Player viewer;
+        private final Gui gui;
+        private Period period = Period.DAILY;
+        private int page;
+
+        private View(Player viewer) {
+            this.viewer = viewer;
+            this.gui = Gui.gui()
+                    .title(messageManager.get(Message.LEADERBOARD_TITLE))
+                    .rows(6)
+                    .disableAllInteractions()
+                    .create();
+        }
+
+        private void open() {
+            render();
+            gui.open(viewer);
+        }
+
+        private void render() {
+            int pages = leaderboard.getPageCount(period, PAGE_SIZE);
+            page = Math.min(page, pages - 1);
+
+            for (int slot = 0; slot < gui.getInventory().getSize(); slot++) {
+                gui.removeItem(slot);
+            }
+            int slot = 0;
+            for (LeaderboardEntry entry : leaderboard.getPage(period, page, PAGE_SIZE)) {
+                gui.setItem(slot++, new GuiItem(entryItem(entry)));
+            }
+
+            if (page > 0) {
+                gui.setItem(PREVIOUS_SLOT, navigationItem(Message.LEADERBOARD_PREVIOUS, page - 1));
+            }
+            if (page < pages - 1) {
+                gui.setItem(NEXT_SLOT, navigationItem(Message.LEADERBOARD_NEXT, page + 1));
+            }
+            gui.setItem(OWN_RANK_SLOT, new GuiItem(ownRankItem()));
+            gui.setItem(
+                    PERIOD_SLOT,
+                    ItemBuilder.from(Material.CLOCK)
+                            .name(periodName(period))
+                            .lore(
+                                    messageManager.get(
+                                            Message.LEADERBOARD_PAGE,
+                                            Placeholder.unparsed("page", String.valueOf(page + 1)),
+                                            Placeholder.unparsed("pages", String.valueOf(pages))),
+                                    messageManager.get(Message.LEADERBOARD_SWITCH_PERIOD))
+                            .asGuiItem(event -> {
+                                period = period == Period.DAILY ? Period.WEEKLY : Period.DAILY;
+                                page = 0;
+                                render();
+                            }));
+            gui.getFiller()
+                    .fillBottom(ItemBuilder.from(Material.BLACK_STAINED_GLASS_PANE)
+                            .name(Component.text().content(" ").build())
+                            .asGuiItem());
+            gui.update();
+        }
+
+        private GuiItem navigationItem(Message name, int targetPage) {
+            return ItemBuilder.from(Material.ARROW).name(messageManager.get(name)).asGuiItem(event -> {
+                page = targetPage;
+                render();
+            });
+        }
+
+        private ItemStack ownRankItem() {
+            LeaderboardEntry ownRank = leaderboard.getRank(period, viewer.getUniqueId());
+            if (ownRank == null) {
+                return ItemBuilder.skull()
+                        .owner(viewer)
+                        .name(messageManager.get(Message.LEADERBOARD_OWN_UNRANKED))
+                        .build();
+            }
+            return ItemBuilder.skull()
+                    .owner(viewer)
+                    .name(messageManager.get(Message.LEADERBOARD_OWN_RANK, "rank", ownRank.rank()))
+                    .lore(messageManager.get(Message.LEADERBOARD_ENTRY_LORE, "minutes", ownRank.seconds() / 60))
+                    .build();
+        }
+    }
+}
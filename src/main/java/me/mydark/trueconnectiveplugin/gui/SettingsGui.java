@@ -5,154 +5,95 @@
 //********************************************************************************************
 package me.mydark.trueconnectiveplugin.gui;
 
-import dev.triumphteam.gui.builder.item.ItemBuilder;
 import dev.triumphteam.gui.guis.Gui;
 import dev.triumphteam.gui.guis.GuiItem;
-import java.util.UUID;
-import me.mydark.trueconnectiveplugin.TrueConnective;
+import me.mydark.trueconnectiveplugin.dto.PlayerSession;
 import me.mydark.trueconnectiveplugin.dto.PlayerSettings;
-import me.mydark.trueconnectiveplugin.manager.DatabaseManager;
-import net.kyori.adventure.text.Component;
-import net.kyori.adventure.text.TextComponent;
-import net.kyori.adventure.text.format.TextColor;
-import net.kyori.adventure.text.format.TextDecoration;
-import org.bukkit.Material;
+import me.mydark.trueconnectiveplugin.manager.MessageManager;
+import me.mydark.trueconnectiveplugin.manager.MessageManager.Message;
+import me.mydark.trueconnectiveplugin.manager.PlayTimeManager;
+import me.mydark.trueconnectiveplugin.manager.PlayerSettingsManager;
+import me.mydark.trueconnectiveplugin.manager.SessionManager;
 import org.bukkit.entity.Player;
-import org.bukkit.scheduler.BukkitTask;
 
+/**
+ * The settings GUI of a single player.
+ * The view is built once from the {@link SettingsGuiTemplate} and reused for every open,
+ * only the slots that show the state of a setting are updated.
+ */
 public class SettingsGui {
-    private static final TrueConnective plugin = TrueConnective.getInstance();
+    private final SettingsGuiTemplate template;
     private final PlayerSettings playerSettings;
-    private final DatabaseManager databaseManager;
-    private static Gui gui;
-
-    public SettingsGui(PlayerSettings playerSettings, DatabaseManager databaseManager) {
+    private final PlayerSettingsManager playerSettingsManager;
+    private final SessionManager sessionManager;
+    private final PlayTimeManager playTimeManager;
+    private final Gui gui;
+
+    SettingsGui(
+            SettingsGuiTemplate template,
+            PlayerSettings playerSettings,
+            MessageManager messages,
+            PlayerSettingsManager playerSettingsManager,
+            SessionManager sessionManager,
+            PlayTimeManager playTimeManager) {
+        this.template = template;
         this.playerSettings = playerSettings;
-        this.databaseManager = databaseManager;
-
-        TextComponent title = Component.text()
-                .content("Einstellungen")
-                .color(TextColor.color(0xFF6969))
-                .decoration(TextDecoration.BOLD, true)
-                .build();
-
-        gui = Gui.gui().title(title).rows(1).disableAllInteractions().create();
-
-        TextComponent actionbarName = Component.text()
-                .content("Actionbar")
-                .color(TextColor.color(0x3F9EFF))
-                .decoration(TextDecoration.BOLD, true)
-                .build();
-        TextComponent actionbarLore = Component.text()
-                .content("Klicke um Actionbar zu aktivieren/deaktivieren!")
-                .color(TextColor.color(0xdfdfdf))
-                .build();
-        GuiItem actionbar = ItemBuilder.from(Material.FEATHER)
-                .name(actionbarName)
-                .lore(actionbarLore)
-                .asGuiItem(event -> {
-                    toggleActionbar((Player) event.getWhoClicked());
-                });
-
-        TextComponent bossbarName = Component.text()
-                .content("Bossbar")
-                .color(TextColor.color(0x3F9EFF))
-                .decoration(TextDecoration.BOLD, true)
-                .build();
-        TextComponent bossbarLore = Component.text()
-                .content("Klicke um Bossbar zu aktivieren/deaktivieren!")
-                .color(TextColor.color(0xdfdfdf))
-                .build();
-        GuiItem bossbar = ItemBuilder.from(Material.WITHER_SKELETON_SKULL)
-                .name(bossbarName)
-                .lore(bossbarLore)
-                .asGuiItem(event -> {
-                    toggleBossbar((Player) event.getWhoClicked());
-                });
+        this.playerSettingsManager = playerSettingsManager;
+        this.sessionManager = sessionManager;
+        this.playTimeManager = playTimeManager;
+
+        gui = Gui.gui().title(template.title()).rows(1).disableAllInteractions().create();
+
+        gui.setItem(
+                SettingsGuiTemplate.ACTIONBAR_SLOT,
+                new GuiItem(
+                        template.actionbarItem(playerSettings.isActionbarEnabled()),
+                        event -> toggleActionbar((Player) event.getWhoClicked())));
+        gui.setItem(
+                SettingsGuiTemplate.BOSSBAR_SLOT,
+                new GuiItem(
+                        template.bossbarItem(playerSettings.isBossbarEnabled()),
+                        event -> toggleBossbar((Player) event.getWhoClicked())));
+        gui.getFiller().fill(new GuiItem(template.filler()));
 
-        gui.setItem(3, actionbar);
-        gui.setItem(5, bossbar);
-
-        GuiItem filler = ItemBuilder.from(Material.BLACK_STAINED_GLASS_PANE)
-                .name(Component.text().content(" ").build())
-                .asGuiItem();
-        gui.getFiller().fill(filler);
         gui.setCloseGuiAction(event -> {
-            TextComponent closeMessage = Component.text()
-                    .content("Einstellungen erfolgreich gespeichert!")
-                    .color(TextColor.color(0x3F9EFF))
-                    .decoration(TextDecoration.BOLD, true)
-                    .build();
-            TextComponent actionbarMessage = Component.text()
-                    .content("Spielzeit Actionbar: ")
-                    .color(TextColor.color(0xDFDFDF))
-                    .append(Component.text(playerSettings.isActionbarEnabled() ? "aktiviert" : "deaktiviert")
-                            .color(
-                                    playerSettings.isActionbarEnabled()
-                                            ? TextColor.color(0x69FF69)
-                                            : TextColor.color(0xFF6969)))
-                    .build();
-            TextComponent bossbarMessage = Component.text()
-                    .content("Spielzeit Bossbar: ")
-                    .color(TextColor.color(0xDFDFDF))
-                    .append(Component.text(playerSettings.isBossbarEnabled() ? "aktiviert" : "deaktiviert")
-                            .color(
-                                    playerSettings.isBossbarEnabled()
-                                            ? TextColor.color(0x69FF69)
-                                            : TextColor.color(0xFF6969)))
-                    .build();
-
-            event.getPlayer().sendMessage(closeMessage);
-            event.getPlayer().sendMessage(actionbarMessage);
-            event.getPlayer().sendMessage(bossbarMessage);
+            event.getPlayer().sendMessage(messages.get(Message.SETTINGS_SAVED));
+            event.getPlayer()
+                    .sendMessage(template.stateLine(
+                            Message.SETTINGS_ACTIONBAR_STATE, playerSettings.isActionbarEnabled()));
+            event.getPlayer()
+                    .sendMessage(
+                            template.stateLine(Message.SETTINGS_BOSSBAR_STATE, playerSettings.isBossbarEnabled()));
         });
     }
 
+    /**
+     * Opens the GUI with the current state of the settings.
+     *
+     * @param target The player the GUI belongs to.
+     */
     public void open(Player target) {
+        gui.updateItem(SettingsGuiTemplate.ACTIONBAR_SLOT, template.actionbarItem(playerSettings.isActionbarEnabled()));
+        gui.updateItem(SettingsGuiTemplate.BOSSBAR_SLOT, template.bossbarItem(playerSettings.isBossbarEnabled()));
         gui.open(target);
     }
 
     private void toggleActionbar(Player target) {
-        playerSettings.setActionbarEnabled(target, databaseManager, !playerSettings.isActionbarEnabled());
-        UUID playerUUID = target.getUniqueId();
+        playerSettingsManager.setEnabled(
+                target.getUniqueId(), PlayerSettings.ACTIONBAR, !playerSettings.isActionbarEnabled());
+        gui.updateItem(SettingsGuiTemplate.ACTIONBAR_SLOT, template.actionbarItem(playerSettings.isActionbarEnabled()));
 
-        // Remove existing task if present
-        if (plugin.getActionBarTasks().containsKey(playerUUID)) {
-            BukkitTask task = plugin.getActionBarTasks().remove(playerUUID);
-            task.cancel();
-        }
-
-        // Add new task if enabled
-        if (playerSettings.isActionbarEnabled()) {
-            BukkitTask task = plugin.getServer()
-                    .getScheduler()
-                    .runTaskTimer(
-                            plugin, () -> plugin.getPlayTimeManager().actionBarTask(target), 0L, 20L); // 20L = 1 second
-            plugin.getActionBarTasks().put(playerUUID, task);
-        }
+        PlayerSession session = sessionManager.getSession(target.getUniqueId());
+        if (session != null) session.setActionbarEnabled(playerSettings.isActionbarEnabled());
     }
 
     private void toggleBossbar(Player target) {
-        playerSettings.setBossbarEnabled(target, databaseManager, !playerSettings.isBossbarEnabled());
-        UUID playerUUID = target.getUniqueId();
-
-        // Remove existing task if present
-        if (plugin.getBossBarTasks().containsKey(playerUUID)) {
-            BukkitTask task = plugin.getBossBarTasks().remove(playerUUID);
-            task.cancel();
-            plugin.getPlayTimeManager().removeBossBar(target);
-        }
+        playerSettingsManager.setEnabled(
+                target.getUniqueId(), PlayerSettings.BOSSBAR, !playerSettings.isBossbarEnabled());
+        gui.updateItem(SettingsGuiTemplate.BOSSBAR_SLOT, template.bossbarItem(playerSettings.isBossbarEnabled()));
 
-        // Add new task if enabled
-        if (playerSettings.isBossbarEnabled()) {
-            BukkitTask task = plugin.getServer()
-                    .getScheduler()
-                    .runTaskTimer(
-                            plugin,
-                            () -> plugin.getPlayTimeManager().playtimeBossbarTask(target),
-                            0L,
-                            20L); // 20L = 1 second
-            plugin.getBossBarTasks().put(playerUUID, task);
-        }
+        PlayerSession session = sessionManager.getSession(target.getUniqueId());
+        if (session != null) session.setBossbarEnabled(playerSettings.isBossbarEnabled());
+        if (!playerSettings.isBossbarEnabled()) playTimeManager.removeBossBar(target);
     }
 }
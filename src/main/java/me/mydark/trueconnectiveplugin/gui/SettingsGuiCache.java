@@ -0,0 +1,82 @@
+//********************************************************************************************
+// Author:      V01D-PH03N1X (PinguBasti), TrueConnective Paul & Stolle GbR
+// Project:     TrueConnective Paper Plugin
+// Description: Management Plugin for Paper Servers (Minecraft)
+//********************************************************************************************
+package me.mydark.trueconnectiveplugin.gui;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+import me.mydark.trueconnectiveplugin.dto.PlayerSettings;
+import me.mydark.trueconnectiveplugin.manager.MessageManager;
+import me.mydark.trueconnectiveplugin.manager.PlayTimeManager;
+import me.mydark.trueconnectiveplugin.manager.PlayerSettingsManager;
+import me.mydark.trueconnectiveplugin.manager.SessionManager;
+import org.bukkit.entity.Player;
+
+/**
+ * Cache of the settings GUIs of the online players.
+ * The template is rendered once and every player gets their own view of it on their first open,
+ * which is kept until they leave. The settings are taken from the {@link PlayerSettingsManager}.
+ * Synchronized, since on Folia the GUIs are opened on the region threads of the players.
+ */
+public class SettingsGuiCache {
+    private final MessageManager messageManager;
+    private final PlayerSettingsManager playerSettingsManager;
+    private final SessionManager sessionManager;
+    private final PlayTimeManager playTimeManager;
+
+    private final Map<UUID, SettingsGui> views = new HashMap<>();
+    private SettingsGuiTemplate template;
+
+    public SettingsGuiCache(
+            MessageManager messageManager,
+            PlayerSettingsManager playerSettingsManager,
+            SessionManager sessionManager,
+            PlayTimeManager playTimeManager) {
+        this.messageManager = messageManager;
+        this.playerSettingsManager = playerSettingsManager;
+        this.sessionManager = sessionManager;
+        this.playTimeManager = playTimeManager;
+    }
+
+    /**
+     * Opens the settings GUI of a player.
+     *
+     * @param player The player to open the GUI for.
+     * @return True if the GUI was opened, false if the settings of the player haven't been loaded yet.
+     */
+    public synchronized boolean open(Player player) {
+        SettingsGui view = views.get(player.getUniqueId());
+        if (view == null) {
+            PlayerSettings settings = playerSettingsManager.getSettings(player.getUniqueId());
+            if (settings == null) return false;
+
+            if (template == null) template = new SettingsGuiTemplate(messageManager);
+            view = new SettingsGui(
+                    template, settings, messageManager, playerSettingsManager, sessionManager, playTimeManager);
+            views.put(player.getUniqueId(), view);
+        }
+        view.open(player);
+        return true;
+    }
+
+    /**
+     * Removes the view of a player that left.
+     *
+     * @param playerUUID The UUID of the player.
+     */
+    public synchronized void remove(UUID playerUUID) {
+        views.remove(playerUUID);
+    }
+
+    /**
+     * Drops the template and all views, e.g. after the messages were reloaded.
+     * They are built again on the next open.
+     */
+    public synchronized void invalidate() {
+        template = null;
+        views.clear();
+    }
+}
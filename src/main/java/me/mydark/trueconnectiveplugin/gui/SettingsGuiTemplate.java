@@ -0,0 +1,89 @@
+//********************************************************************************************
+// Author:      V01D-PH03N1X (PinguBasti), TrueConnective Paul & Stolle GbR
+// Project:     TrueConnective Paper Plugin
+// Description: Management Plugin for Paper Servers (Minecraft)
+//********************************************************************************************
+package me.mydark.trueconnectiveplugin.gui;
+
+import dev.triumphteam.gui.builder.item.ItemBuilder;
+import me.mydark.trueconnectiveplugin.manager.MessageManager;
+import me.mydark.trueconnectiveplugin.manager.MessageManager.Message;
+import net.kyori.adventure.text.Component;
+import net.kyori.adventure.text.minimessage.tag.resolver.Placeholder;
+import org.bukkit.Material;
+import org.bukkit.inventory.ItemStack;
+
+/**
+ * The static layout of the settings GUI, rendered once from the messages.
+ * Holds a prototype of every item in each of its states, so a view only has to copy the prototype of the
+ * current state into its slot instead of building the item again.
+ */
+final class SettingsGuiTemplate {
+    static final int ACTIONBAR_SLOT = 3;
+    static final int BOSSBAR_SLOT = 5;
+
+    private final MessageManager messages;
+    private final Component title;
+    private final ItemStack filler;
+    private final ItemStack[] actionbarItems;
+    private final ItemStack[] bossbarItems;
+
+    SettingsGuiTemplate(MessageManager messages) {
+        this.messages = messages;
+        this.title = messages.get(Message.SETTINGS_TITLE);
+        this.filler = ItemBuilder.from(Material.BLACK_STAINED_GLASS_PANE)
+                .name(Component.text().content(" ").build())
+                .build();
+        this.actionbarItems = toggleItems(
+                Material.FEATHER,
+                Message.SETTINGS_ACTIONBAR_NAME,
+                Message.SETTINGS_ACTIONBAR_LORE,
+                Message.SETTINGS_ACTIONBAR_STATE);
+        this.bossbarItems = toggleItems(
+                Material.WITHER_SKELETON_SKULL,
+                Message.SETTINGS_BOSSBAR_NAME,
+                Message.SETTINGS_BOSSBAR_LORE,
+                Message.SETTINGS_BOSSBAR_STATE);
+    }
+
+    // Index 0 is the disabled and index 1 the enabled state
+    private ItemStack[] toggleItems(Material material, Message name, Message lore, Message state) {
+        ItemStack[] items = new ItemStack[2];
+        for (int i = 0; i < items.length; i++) {
+            items[i] = ItemBuilder.from(material)
+                    .name(messages.get(name))
+                    .lore(messages.get(lore), stateLine(state, i == 1))
+                    .build();
+        }
+        return items;
+    }
+
+    Component title() {
+        return title;
+    }
+
+    ItemStack filler() {
+        return filler.clone();
+    }
+
+    // The GUI tags the items it is given, so the views get copies of the prototypes
+    ItemStack actionbarItem(boolean enabled) {
+        return actionbarItems[enabled ? 1 : 0].clone();
+    }
+
+    ItemStack bossbarItem(boolean enabled) {
+        return bossbarItems[enabled ? 1 : 0].clone();
+    }
+
+    /**
+     * Renders a line that shows the state of a setting, e.g. "Spielzeit Actionbar: aktiviert".
+     *
+     * @param message The message of the line with a state placeholder.
+     * @param enabled The state of the setting.
+     * @return The rendered line.
+     */
+    Component stateLine(Message message, boolean enabled) {
+        Component state = messages.get(enabled ? Message.SETTINGS_ENABLED : Message.SETTINGS_DISABLED);
+        return messages.get(message, Placeholder.component("state", state));
+    }
+}
@@ -8,29 +8,27 @@ package me.mydark.trueconnectiveplugin.gui;
 import dev.triumphteam.gui.builder.item.ItemBuilder;
 import dev.triumphteam.gui.guis.Gui;
 import dev.triumphteam.gui.guis.GuiItem;
+import me.mydark.trueconnectiveplugin.manager.MessageManager;
+import me.mydark.trueconnectiveplugin.manager.MessageManager.Message;
 import net.kyori.adventure.text.Component;
-import net.kyori.adventure.text.TextComponent;
-import net.kyori.adventure.text.event.ClickEvent;
-import net.kyori.adventure.text.format.TextColor;
-import net.kyori.adventure.text.format.TextDecoration;
 import org.bukkit.Material;
 import org.bukkit.entity.Player;
 
 public class TrueConnectiveGui {
     private final Gui trueConnectiveMenu;
+    private final MessageManager messageManager;
 
     /**
      * Constructor for the TrueConnectiveGui.
      * Initializes the GUI.
+     *
+     * @param messageManager The MessageManager instance to get the messages from.
      */
-    public TrueConnectiveGui() {
+    public TrueConnectiveGui(MessageManager messageManager) {
+        this.messageManager = messageManager;
 
         trueConnectiveMenu = Gui.gui()
-                .title(Component.text()
-                        .content("TrueConnective Management")
-                        .color(TextColor.color(0xAD14F5))
-                        .decoration(TextDecoration.BOLD, true)
-                        .build())
+                .title(messageManager.get(Message.MENU_TITLE))
                 .rows(1)
                 .disableAllInteractions()
                 .create();
@@ -40,10 +38,7 @@ public class TrueConnectiveGui {
                 .asGuiItem();
 
         GuiItem tcItem = ItemBuilder.from(Material.BLACK_CONCRETE)
-                .name(Component.text()
-                        .content("Erfahre mehr oder bewerbe dich jetzt!")
-                        .color(TextColor.color(0xef6969))
-                        .build())
+                .name(messageManager.get(Message.MENU_WEBSITE_ITEM))
                 .asGuiItem(event -> {
                     webTrueConnective((Player) event.getWhoClicked());
                     trueConnectiveMenu.close((Player) event.getWhoClicked());
@@ -59,12 +54,7 @@ public class TrueConnectiveGui {
      * @param player The player to send the message to.
      */
     private void webTrueConnective(Player player) {
-        TextComponent webPage = Component.text()
-                .content("Klicke hier um mehr über TrueConnective zu erfahren!")
-                .color(TextColor.color(0x3F9EFF))
-                .clickEvent(ClickEvent.openUrl("https://trueconnective.com"))
-                .build();
-        player.sendMessage(webPage);
+        player.sendMessage(messageManager.get(Message.MENU_WEBSITE));
     }
 
     /**
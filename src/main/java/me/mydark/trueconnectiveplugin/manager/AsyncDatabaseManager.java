@@ -0,0 +1,211 @@
+//********************************************************************************************
+// Author:      V01D-PH03N1X (PinguBasti), TrueConnective Paul & Stolle GbR
+// Project:     TrueConnective Paper Plugin
+// Description: Management Plugin for Paper Servers (Minecraft)
+//********************************************************************************************
+package me.mydark.trueconnectiveplugin.manager;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import me.mydark.trueconnectiveplugin.dto.NetworkPlaytimes;
+import me.mydark.trueconnectiveplugin.dto.PlayerDirectoryEntry;
+import me.mydark.trueconnectiveplugin.dto.PlayerProfile;
+import me.mydark.trueconnectiveplugin.dto.PlayerSettings;
+import me.mydark.trueconnectiveplugin.dto.PlayerSettingsUpdate;
+import me.mydark.trueconnectiveplugin.dto.PlaytimeHistoryDay;
+import me.mydark.trueconnectiveplugin.dto.PlaytimeSession;
+import me.mydark.trueconnectiveplugin.dto.PlaytimeUpdate;
+import org.bukkit.OfflinePlayer;
+import org.bukkit.entity.Player;
+
+/**
+ * Asynchronous facade for the {@link DatabaseManager}.
+ * Every operation runs on a dedicated database thread, so the server thread never waits for the disk.
+ * The returned futures are completed on the main server thread through the {@link TaskScheduler},
+ * on Folia on the global region thread.
+ */
+@Slf4j
+public class AsyncDatabaseManager {
+
+    @Getter
+    private final DatabaseManager databaseManager;
+
+    private final ExecutorService databaseExecutor;
+    private final Executor mainThreadExecutor;
+
+    /**
+     * Constructor for AsyncDatabaseManager.
+     *
+     * @param scheduler       The scheduler the futures are completed through.
+     * @param databaseManager The DatabaseManager that executes the queries.
+     */
+    public AsyncDatabaseManager(TaskScheduler scheduler, DatabaseManager databaseManager) {
+        this.databaseManager = databaseManager;
+        // SQLite allows only one writer at a time, so a single thread keeps all operations in order
+        this.databaseExecutor = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "TrueConnective-Database");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.mainThreadExecutor = scheduler::runGlobal;
+    }
+
+    /*
+     * TikTok Area
+     */
+
+    public CompletableFuture<Optional<String>> getTiktokUsername(Player player) {
+        return supply(() -> databaseManager.getTiktokUsername(player));
+    }
+
+    public CompletableFuture<Void> setTiktokUsername(OfflinePlayer player, String username) {
+        return run(() -> databaseManager.setTiktokUsername(player, username));
+    }
+
+    /*
+     * PlayerTimes Area
+     */
+
+    public CompletableFuture<Integer> getPlaytime(OfflinePlayer player) {
+        return supply(() -> databaseManager.getPlaytime(player));
+    }
+
+    public CompletableFuture<Void> updatePlaytime(OfflinePlayer player, int playtimeSeconds) {
+        return run(() -> databaseManager.updatePlaytime(player, playtimeSeconds));
+    }
+
+    public CompletableFuture<Void> updatePlaytime(UUID playerUUID, int playtimeSeconds) {
+        return run(() -> databaseManager.updatePlaytime(playerUUID, playtimeSeconds));
+    }
+
+    public CompletableFuture<Void> updatePlaytimes(Collection<PlaytimeUpdate> updates) {
+        return run(() -> databaseManager.updatePlaytimes(updates));
+    }
+
+    public CompletableFuture<Integer> resetPlaytimes(long day) {
+        return supply(() -> databaseManager.resetPlaytimes(day));
+    }
+
+    public CompletableFuture<Map<UUID, Integer>> getDailyPlaytimes() {
+        return supply(databaseManager::getDailyPlaytimes);
+    }
+
+    /*
+     * PlayerSettings Area
+     */
+
+    public CompletableFuture<PlayerSettings> getPlayerSettings(OfflinePlayer player) {
+        return supply(() -> databaseManager.getPlayerSettings(player));
+    }
+
+    public CompletableFuture<Void> updatePlayerSettings(Collection<PlayerSettingsUpdate> updates) {
+        return run(() -> databaseManager.updatePlayerSettings(updates));
+    }
+
+    /*
+     * PlayerProfile Area
+     */
+
+    public CompletableFuture<PlayerProfile> loadPlayerProfile(OfflinePlayer player) {
+        return supply(() -> databaseManager.loadPlayerProfile(player.getUniqueId()));
+    }
+
+    /**
+     * Loads the profile of a player, for callers that are not on the main thread.
+     * Unlike the other operations, the future is completed on the database thread.
+     *
+     * @param playerUUID The UUID of the player.
+     * @return A future with the profile of the player.
+     */
+    public CompletableFuture<PlayerProfile> loadPlayerProfile(UUID playerUUID) {
+        return CompletableFuture.supplyAsync(() -> databaseManager.loadPlayerProfile(playerUUID), databaseExecutor);
+    }
+
+    /*
+     * PlayerDirectory Area
+     */
+
+    public CompletableFuture<Void> updatePlayerDirectory(Collection<PlayerDirectoryEntry> entries) {
+        return run(() -> databaseManager.updatePlayerDirectory(entries));
+    }
+
+    public CompletableFuture<List<PlayerDirectoryEntry>> loadPlayerDirectory() {
+        return supply(databaseManager::loadPlayerDirectory);
+    }
+
+    public CompletableFuture<Optional<PlayerDirectoryEntry>> findPlayer(String name) {
+        return supply(() -> databaseManager.findPlayer(name));
+    }
+
+    /*
+     * Session Log Area
+     */
+
+    public CompletableFuture<Void> appendSessions(Collection<PlaytimeSession> sessions) {
+        return run(() -> databaseManager.appendSessions(sessions));
+    }
+
+    public CompletableFuture<Integer> compactSessions(long day) {
+        return supply(() -> databaseManager.compactSessions(day));
+    }
+
+    public CompletableFuture<List<PlaytimeHistoryDay>> getPlaytimeHistory(UUID playerUUID, long fromDay) {
+        return supply(() -> databaseManager.getPlaytimeHistory(playerUUID, fromDay));
+    }
+
+    public CompletableFuture<Map<UUID, Integer>> getRolledUpPlaytimes(long fromDay, long toDay) {
+        return supply(() -> databaseManager.getRolledUpPlaytimes(fromDay, toDay));
+    }
+
+    /*
+     * Network Area
+     */
+
+    public CompletableFuture<NetworkPlaytimes> pollNetworkPlaytimes() {
+        return supply(databaseManager::pollNetworkPlaytimes);
+    }
+
+    /**
+     * Waits for all queued operations to finish and stops the database thread.
+     * Futures of operations that finish during shutdown are no longer completed on the main thread.
+     */
+    public void shutdown() {
+        databaseExecutor.shutdown();
+        try {
+            if (!databaseExecutor.awaitTermination(10, TimeUnit.SECONDS)) {
+                log.error("Database thread did not finish queued operations in time");
+                databaseExecutor.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            databaseExecutor.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private <T> CompletableFuture<T> supply(Supplier<T> operation) {
+        return CompletableFuture.supplyAsync(operation, databaseExecutor)
+                .whenComplete((result, throwable) -> {
+                    if (throwable != null) log.error("Database operation failed: {}", throwable.getMessage());
+                })
+                .thenApplyAsync(Function.identity(), mainThreadExecutor);
+    }
+
+    private CompletableFuture<Void> run(Runnable operation) {
+        return supply(() -> {
+            operation.run();
+            return null;
+        });
+    }
+}
@@ -0,0 +1,170 @@
+//********************************************************************************************
+// Author:      V01D-PH03N1X (PinguBasti), TrueConnective Paul & Stolle GbR
+// Project:     TrueConnective Paper Plugin
+// Description: Management Plugin for Paper Servers (Minecraft)
+//********************************************************************************************
+package me.mydark.trueconnectiveplugin.manager;
+
+import java.time.DateTimeException;
+import java.time.Duration;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicReference;
+import lombok.extern.slf4j.Slf4j;
+import me.mydark.trueconnectiveplugin.TrueConnective;
+import me.mydark.trueconnectiveplugin.dto.DatabaseConfig;
+import me.mydark.trueconnectiveplugin.dto.PluginConfig;
+import me.mydark.trueconnectiveplugin.dto.QuotaTier;
+import org.bukkit.configuration.ConfigurationSection;
+import org.bukkit.configuration.file.FileConfiguration;
+
+/**
+ * Loads the config.yml into an immutable {@link PluginConfig} snapshot.
+ * The snapshot is swapped atomically on reload, so it can be read from any thread without locking.
+ */
+@Slf4j
+public class ConfigManager {
+    private final TrueConnective plugin;
+    private final AtomicReference<PluginConfig> config = new AtomicReference<>();
+
+    public ConfigManager(TrueConnective plugin) {
+        this.plugin = plugin;
+        config.set(load(plugin.getConfig()));
+    }
+
+    /**
+     * Returns the current config snapshot.
+     *
+     * @return The current config.
+     */
+    public PluginConfig get() {
+        return config.get();
+    }
+
+    /**
+     * Reads the config.yml from the disk again and replaces the current snapshot.
+     *
+     * @return The new config.
+     */
+    public PluginConfig reload() {
+        plugin.reloadConfig();
+        PluginConfig reloaded = load(plugin.getConfig());
+        config.set(reloaded);
+        log.info("Config reloaded with {} quota tiers", reloaded.tiers().size());
+        return reloaded;
+    }
+
+    private PluginConfig load(FileConfiguration fileConfig) {
+        return new PluginConfig(
+                loadTiers(fileConfig),
+                Duration.ofSeconds(Math.max(1, fileConfig.getLong("database.flush-interval", 60))),
+                loadDailyResetTime(fileConfig),
+                loadDailyResetZone(fileConfig),
+                Duration.ofSeconds(fileConfig.getLong("tiktok.live-cache-ttl", 60)),
+                fileConfig.getInt("tiktok.live-cache-size", 500),
+                fileConfig.getInt("tiktok.live-sessions.max-connections", 100),
+                fileConfig.getInt("tiktok.live-sessions.reconnect-attempts", 5),
+                Duration.ofSeconds(fileConfig.getLong("tiktok.live-sessions.max-reconnect-delay", 60)),
+                fileConfig.getBoolean("metrics.jmx", true),
+                loadMetricsFile(fileConfig),
+                Duration.ofSeconds(Math.max(1, fileConfig.getLong("metrics.file-interval", 30))),
+                loadDatabase(fileConfig));
+    }
+
+    private DatabaseConfig loadDatabase(FileConfiguration fileConfig) {
+        String type = fileConfig.getString("database.type", "sqlite");
+        DatabaseConfig.Type databaseType;
+        try {
+            databaseType = DatabaseConfig.Type.valueOf(type.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            log.error("Invalid database type {}, using sqlite", type);
+            databaseType = DatabaseConfig.Type.SQLITE;
+        }
+        return new DatabaseConfig(
+                databaseType,
+                fileConfig.getString("database.sqlite.file", DatabaseManager.SQLITE_FILE_NAME),
+                fileConfig.getString("database.mariadb.url", "jdbc:mariadb://localhost:3306/trueconnective"),
+                fileConfig.getString("database.mariadb.username", "trueconnective"),
+                fileConfig.getString("database.mariadb.password", ""),
+                fileConfig.getInt("database.mariadb.pool-size", 4),
+                loadServerId(fileConfig, databaseType),
+                Duration.ofSeconds(Math.max(1, fileConfig.getLong("database.network.poll-interval", 5))));
+    }
+
+    private String loadServerId(FileConfiguration fileConfig, DatabaseConfig.Type databaseType) {
+        if (!fileConfig.getBoolean("database.network.enabled", false)) return null;
+
+        String serverId = fileConfig.getString("database.network.server-id", "");
+        if (serverId.isBlank()) {
+            log.error("Network mode is enabled without a server id, the playtime is not shared");
+            return null;
+        }
+        if (databaseType == DatabaseConfig.Type.MEMORY) {
+            log.error("Network mode needs a shared database, the playtime is not shared");
+            return null;
+        }
+        return serverId.strip();
+    }
+
+    private String loadMetricsFile(FileConfiguration fileConfig) {
+        String file = fileConfig.getString("metrics.file", "");
+        return file.isBlank() ? null : file;
+    }
+
+    /**
+     * Loads the quota tiers, ordered from the highest to the lowest priority.
+     * Configs without a tiers section still use the creator and viewer limits of older versions.
+     */
+    private List<QuotaTier> loadTiers(FileConfiguration fileConfig) {
+        List<QuotaTier> tiers = new ArrayList<>();
+        // Ignore the defaults, otherwise the tiers of the default config would hide the old limits
+        if (fileConfig.contains("tiers", true)) {
+            ConfigurationSection section = fileConfig.getConfigurationSection("tiers");
+            for (String name : section.getKeys(false)) {
+                ConfigurationSection tier = section.getConfigurationSection(name);
+                if (tier == null) continue;
+                tiers.add(new QuotaTier(
+                        name,
+                        tier.getString("permission"),
+                        tier.getInt("priority"),
+                        tier.getInt("max-playtime") * 60)); // Convert minutes of the Config to seconds
+            }
+        } else {
+            tiers.add(new QuotaTier(
+                    "creator", "trueconnective.creator", 100, fileConfig.getInt("creator.max-playtime", 180) * 60));
+            tiers.add(new QuotaTier("viewer", null, 0, fileConfig.getInt("viewer.max-playtime", 30) * 60));
+        }
+        if (tiers.isEmpty()) {
+            log.error("No quota tiers configured, using a viewer tier with 30 minutes");
+            tiers.add(new QuotaTier("viewer", null, 0, 30 * 60));
+        }
+
+        tiers.sort(Comparator.comparingInt(QuotaTier::priority).reversed().thenComparing(QuotaTier::name));
+        return List.copyOf(tiers);
+    }
+
+    private LocalTime loadDailyResetTime(FileConfiguration fileConfig) {
+        String time = fileConfig.getString("daily-reset.time", "00:00");
+        try {
+            return LocalTime.parse(time);
+        } catch (DateTimeException e) {
+            log.error("Invalid daily reset time {}, resetting at midnight", time);
+            return LocalTime.MIDNIGHT;
+        }
+    }
+
+    private ZoneId loadDailyResetZone(FileConfiguration fileConfig) {
+        String timezone = fileConfig.getString("daily-reset.timezone", "");
+        if (timezone.isBlank()) return ZoneId.systemDefault();
+        try {
+            return ZoneId.of(timezone);
+        } catch (DateTimeException e) {
+            log.error("Invalid daily reset timezone {}, using the server timezone", timezone);
+            return ZoneId.systemDefault();
+        }
+    }
+}
@@ -0,0 +1,236 @@
+//********************************************************************************************
+// Author:      V01D-PH03N1X (PinguBasti), TrueConnective Paul & Stolle GbR
+// Project:     TrueConnective Paper Plugin
+// Description: Management Plugin for Paper Servers (Minecraft)
+//********************************************************************************************
+package me.mydark.trueconnectiveplugin.manager;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import lombok.extern.slf4j.Slf4j;
+import me.mydark.trueconnectiveplugin.manager.MessageManager.Message;
+import org.bukkit.Bukkit;
+import org.bukkit.entity.Player;
+
+/**
+ * Keeps one live event connection per online creator and kicks the creator as soon as their stream ends.
+ * Every connection runs on its own virtual thread. Lost connections are re-established with a bounded
+ * exponential backoff, and the number of concurrent connections is capped. When the reconnect attempts are used up,
+ * the live status of the creator is checked instead at the maximum reconnect delay until the stream has ended
+ * or a connection succeeds again.
+ */
+@Slf4j
+public class CreatorLiveSessionManager {
+    private static final long BASE_RECONNECT_DELAY_MILLIS = 1000L;
+
+    private final TaskScheduler scheduler;
+    private final LiveEventSource liveEventSource;
+    private final TikTokManager tikTokManager;
+    private final MessageManager messageManager;
+
+    private final Semaphore connectionSlots;
+    private final int maxReconnectAttempts;
+    private final long maxReconnectDelayMillis;
+
+    private final ExecutorService sessionExecutor = Executors.newVirtualThreadPerTaskExecutor();
+    private final Map<UUID, LiveSession> sessions = new ConcurrentHashMap<>();
+
+    /**
+     * Constructor for CreatorLiveSessionManager.
+     *
+     * @param scheduler            The scheduler to kick the creators through.
+     * @param liveEventSource      The source of the live stream events.
+     * @param tikTokManager        The TikTokManager whose live status cache is updated when a stream ends.
+     * @param messageManager       The MessageManager to get the kick message from.
+     * @param maxConnections       The maximum number of concurrent event connections.
+     * @param maxReconnectAttempts The maximum number of reconnect attempts in a row before the live status is checked
+     *                             instead.
+     * @param maxReconnectDelay    The maximum delay between two reconnect attempts.
+     */
+    public CreatorLiveSessionManager(
+            TaskScheduler scheduler,
+            LiveEventSource liveEventSource,
+            TikTokManager tikTokManager,
+            MessageManager messageManager,
+            int maxConnections,
+            int maxReconnectAttempts,
+            Duration maxReconnectDelay) {
+        this.scheduler = scheduler;
+        this.liveEventSource = liveEventSource;
+        this.tikTokManager = tikTokManager;
+        this.messageManager = messageManager;
+        this.connectionSlots = new Semaphore(Math.max(1, maxConnections));
+        this.maxReconnectAttempts = maxReconnectAttempts;
+        this.maxReconnectDelayMillis = Math.max(BASE_RECONNECT_DELAY_MILLIS, maxReconnectDelay.toMillis());
+    }
+
+    /**
+     * Starts watching the live stream of a creator.
+     *
+     * @param player   The creator.
+     * @param username The TikTok username of the creator.
+     */
+    public void startSession(Player player, String username) {
+        LiveSession session = new LiveSession(player.getUniqueId(), username);
+        LiveSession previous = sessions.put(player.getUniqueId(), session);
+        if (previous != null) previous.close();
+        sessionExecutor.execute(session::run);
+    }
+
+    /**
+     * Stops watching the live stream of a creator.
+     *
+     * @param player The creator.
+     */
+    public void stopSession(Player player) {
+        LiveSession session = sessions.remove(player.getUniqueId());
+        if (session != null) session.close();
+    }
+
+    /**
+     * Returns the number of creators whose live stream is watched.
+     *
+     * @return The number of live sessions.
+     */
+    public int getSessionCount() {
+        return sessions.size();
+    }
+
+    /**
+     * Closes all live sessions.
+     */
+    public void shutdown() {
+        sessions.values().forEach(LiveSession::close);
+        sessions.clear();
+        sessionExecutor.shutdownNow();
+    }
+
+    private long reconnectDelayMillis(int attempt) {
+        long delay = BASE_RECONNECT_DELAY_MILLIS << Math.min(attempt - 1, 16);
+        delay = Math.min(delay, maxReconnectDelayMillis);
+        // Spread the reconnects of many creators after a TikTok outage
+        return delay / 2 + ThreadLocalRandom.current().nextLong(delay / 2 + 1);
+    }
+
+    private void endStream(LiveSession session) {
+        log.info("TikTok live stream of {} has ended", session.username);
+        tikTokManager.updateLiveStatus(session.username, false);
+        scheduler.runGlobal(() -> {
+            Player player = Bukkit.getPlayer(session.playerUUID);
+            if (player == null) return;
+            // The player is kicked on the thread of their region, where the session may have been replaced by then
+            scheduler.runAtEntity(player, () -> {
+                if (sessions.get(session.playerUUID) == session) {
+                    player.kick(messageManager.get(Message.KICK_NOT_LIVE));
+                }
+            });
+        });
+    }
+
+    private final class LiveSession implements LiveEventSource.Listener {
+        private final UUID playerUUID;
+        private final String username;
+
+        // true = stream ended, false = disconnected
+        private final BlockingQueue<Boolean> signals = new LinkedBlockingQueue<>();
+
+        private volatile boolean closed;
+        private volatile Thread thread;
+        private volatile LiveEventSource.LiveConnection connection;
+
+        private LiveSession(UUID playerUUID, String username) {
+            this.playerUUID = playerUUID;
+            this.username = username;
+        }
+
+        private void run() {
+            thread = Thread.currentThread();
+            if (closed) return;
+
+            try {
+                connectionSlots.acquire();
+            } catch (InterruptedException e) {
+                return;
+            }
+
+            try {
+                int attempt = 0;
+                while (!closed) {
+                    signals.clear();
+                    try {
+                        connection = liveEventSource.connect(username, this);
+                        if (closed) return;
+                        boolean ended = signals.take();
+                        closeConnection();
+                        if (ended) {
+                            if (!closed) endStream(this);
+                            return;
+                        }
+                        attempt = 0;
+                    } catch (InterruptedException e) {
+                        return;
+                    } catch (Exception e) {
+                        log.warn("Live connection to {} failed: {}", username, e.getMessage());
+                    }
+
+                    if (closed) return;
+                    if (++attempt > maxReconnectAttempts) {
+                        if (attempt == maxReconnectAttempts + 1) {
+                            log.warn("Live connection to {} lost after {} attempts", username, maxReconnectAttempts);
+                        }
+                        // Without a connection the end of the stream is only noticed through the live status
+                        if (!tikTokManager.checkTikTokLive(username)) {
+                            if (!closed) endStream(this);
+                            return;
+                        }
+                        Thread.sleep(maxReconnectDelayMillis);
+                        continue;
+                    }
+                    Thread.sleep(reconnectDelayMillis(attempt));
+                }
+            } catch (InterruptedException e) {
+                // Session closed while waiting for the next reconnect
+            } finally {
+                closeConnection();
+                connectionSlots.release();
+                sessions.remove(playerUUID, this);
+            }
+        }
+
+        @Override
+        public void onLiveEnded() {
+            signals.offer(true);
+        }
+
+        @Override
+        public void onDisconnected() {
+            signals.offer(false);
+        }
+
+        private void close() {
+            closed = true;
+            closeConnection();
+            Thread sessionThread = thread;
+            if (sessionThread != null) sessionThread.interrupt();
+        }
+
+        private void closeConnection() {
+            LiveEventSource.LiveConnection current = connection;
+            connection = null;
+            if (current == null) return;
+            try {
+                current.close();
+            } catch (RuntimeException e) {
+                log.warn("Failed to close live connection to {}: {}", username, e.getMessage());
+            }
+        }
+    }
+}
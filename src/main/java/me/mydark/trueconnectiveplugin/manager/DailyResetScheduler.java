@@ -0,0 +1,112 @@
+//********************************************************************************************
+// Author:      V01D-PH03N1X (PinguBasti), TrueConnective Paul & Stolle GbR
+// Project:     TrueConnective Paper Plugin
+// Description: Management Plugin for Paper Servers (Minecraft)
+//********************************************************************************************
+package me.mydark.trueconnectiveplugin.manager;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Resets the playtime of all players once a day at a configurable time.
+ * A reset day starts at the reset time in the configured time zone and is identified by its epoch day,
+ * so with a reset time of 04:00 the night from Monday to Tuesday still belongs to Monday until 04:00.
+ * After every reset the session log of the past days is compacted into daily rollups on the database thread.
+ */
+@Slf4j
+public class DailyResetScheduler {
+    private static final long MAX_CHECK_DELAY = 20L * 60; // 20L * 60 = 1 minute, limits the delay when the server lags
+
+    private final TaskScheduler scheduler;
+    private final AsyncDatabaseManager asyncDatabaseManager;
+    private final PlaytimeLedger playtimeLedger;
+    private final ZoneId zone;
+    private final LocalTime resetTime;
+
+    /**
+     * The epoch day of the current reset day, as seen by the main thread. Also read by the region threads on Folia.
+     */
+    @Getter
+    private volatile long currentDay;
+
+    private TaskScheduler.Task task;
+
+    public DailyResetScheduler(
+            TaskScheduler scheduler,
+            AsyncDatabaseManager asyncDatabaseManager,
+            PlaytimeLedger playtimeLedger,
+            ZoneId zone,
+            LocalTime resetTime) {
+        this.scheduler = scheduler;
+        this.asyncDatabaseManager = asyncDatabaseManager;
+        this.playtimeLedger = playtimeLedger;
+        this.zone = zone;
+        this.resetTime = resetTime;
+    }
+
+    /**
+     * Catches up on the resets and compactions that were missed while the server was offline
+     * and schedules the next reset.
+     */
+    public void start() {
+        currentDay = calculateDay(LocalDateTime.now(zone));
+        asyncDatabaseManager.resetPlaytimes(currentDay);
+        asyncDatabaseManager.compactSessions(currentDay);
+        log.info(
+                "Daily playtime reset at {} ({}), current day is {}",
+                resetTime,
+                zone,
+                LocalDate.ofEpochDay(currentDay));
+        scheduleNextCheck();
+    }
+
+    /**
+     * Cancels the scheduled reset.
+     */
+    public void stop() {
+        if (task != null) {
+            task.cancel();
+            task = null;
+        }
+    }
+
+    private void scheduleNextCheck() {
+        ZonedDateTime nextReset = LocalDate.ofEpochDay(currentDay + 1).atTime(resetTime).atZone(zone);
+        long delayTicks = Duration.between(ZonedDateTime.now(zone), nextReset).toMillis() / 50 + 1;
+        task = scheduler.runGlobalLater(this::check, Math.clamp(delayTicks, 1L, MAX_CHECK_DELAY));
+    }
+
+    private void check() {
+        long day = calculateDay(LocalDateTime.now(zone));
+        if (day > currentDay) {
+            rollOver(day);
+        }
+        scheduleNextCheck();
+    }
+
+    /**
+     * Starts a new reset day. The ledger of the online players and the leaderboard are reset in memory and the
+     * database is reset with a single statement, which is queued behind all earlier playtime writes.
+     * The sessions of the ended day are compacted afterwards.
+     *
+     * @param day The epoch day of the new reset day.
+     */
+    private void rollOver(long day) {
+        log.info("Resetting the playtime of all players for {}", LocalDate.ofEpochDay(day));
+        currentDay = day;
+        playtimeLedger.resetAll(day);
+        asyncDatabaseManager.resetPlaytimes(day);
+        asyncDatabaseManager.compactSessions(day);
+    }
+
+    private long calculateDay(LocalDateTime time) {
+        return time.minusNanos(resetTime.toNanoOfDay()).toLocalDate().toEpochDay();
+    }
+}
@@ -5,316 +5,293 @@
 //********************************************************************************************
 package me.mydark.trueconnectiveplugin.manager;
 
-import java.io.File;
-import java.sql.*;
-import java.time.LocalDate;
-import java.time.format.DateTimeFormatter;
-import java.time.format.DateTimeParseException;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
-import lombok.Getter;
-import lombok.extern.slf4j.Slf4j;
+import java.util.UUID;
 import me.mydark.trueconnectiveplugin.TrueConnective;
+import me.mydark.trueconnectiveplugin.dto.DatabaseConfig;
+import me.mydark.trueconnectiveplugin.dto.NetworkPlaytimes;
+import me.mydark.trueconnectiveplugin.dto.PlayerDirectoryEntry;
+import me.mydark.trueconnectiveplugin.dto.PlayerProfile;
 import me.mydark.trueconnectiveplugin.dto.PlayerSettings;
+import me.mydark.trueconnectiveplugin.dto.PlayerSettingsUpdate;
+import me.mydark.trueconnectiveplugin.dto.PlaytimeHistoryDay;
+import me.mydark.trueconnectiveplugin.dto.PlaytimeSession;
+import me.mydark.trueconnectiveplugin.dto.PlaytimeUpdate;
 import org.bukkit.OfflinePlayer;
 import org.bukkit.entity.Player;
 
-@Slf4j
-public class DatabaseManager {
-
-    @Getter
-    private Connection connection;
-
-    private static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd");
-
-    // TikTok SQL Queries
-    private static final String CREATE_TIKTOK_TABLE_SQL =
-            "CREATE TABLE IF NOT EXISTS TikTokPlayers (uuid TEXT PRIMARY KEY, username TEXT)";
-    private static final String SELECT_TIKTOK_USERNAME_SQL = "SELECT username FROM TikTokPlayers WHERE uuid = ?";
-    private static final String INSERT_OR_REPLACE_TIKTOK_USERNAME_SQL =
-            "INSERT OR REPLACE INTO TikTokPlayers (uuid, username) VALUES (?, ?)";
-
-    // PlayerTimes SQL Queries
-    private static final String CREATE_PLAYER_TIMES_TABLE_SQL =
-            "CREATE TABLE IF NOT EXISTS PlayerTimes (uuid TEXT PRIMARY KEY, playtime INTEGER, last_login TEXT)";
-    private static final String SELECT_PLAYTIME_SQL = "SELECT playtime FROM PlayerTimes WHERE uuid = ?";
-    private static final String INSERT_OR_REPLACE_PLAYTIME_SQL =
-            "INSERT OR REPLACE INTO PlayerTimes (uuid, playtime, last_login) VALUES (?, ?, ?)";
-    private static final String UPDATE_PLAYTIME_SQL =
-            "UPDATE PlayerTimes SET playtime = 0, last_login = ? WHERE uuid = ?";
-    private static final String SELECT_LAST_LOGIN_SQL = "SELECT last_login FROM PlayerTimes WHERE uuid = ?";
-
-    // PlayerSettings SQL Queries
-    private static final String CREATE_PLAYER_SETTINGS_TABLE_SQL =
-            "CREATE TABLE IF NOT EXISTS PlayerSettings (uuid TEXT PRIMARY KEY, actionbar_enabled BOOLEAN DEFAULT TRUE, bossbar_enabled BOOLEAN DEFAULT TRUE, joined_before BOOLEAN DEFAULT FALSE)";
-    private static final String SELECT_PLAYER_SETTINGS_SQL =
-            "SELECT actionbar_enabled, bossbar_enabled, joined_before FROM PlayerSettings WHERE uuid = ?";
-    private static final String INSERT_OR_REPLACE_PLAYER_SETTINGS_SQL =
-            "INSERT OR REPLACE INTO PlayerSettings (uuid, actionbar_enabled, bossbar_enabled, joined_before) VALUES (?, ?, ?, ?)";
+/**
+ * Storage of the TikTok usernames, playtimes and settings of the players.
+ * All operations block until the storage has answered, the {@link AsyncDatabaseManager} runs them off the main thread.
+ * Implementations are a local SQLite file, a MariaDB or MySQL server shared by several servers and an in-memory
+ * storage for tests and benchmarks.
+ */
+public interface DatabaseManager {
+    String SQLITE_FILE_NAME = "trueconnective.db";
 
     /**
-     * Constructor for DatabaseManager.
-     * Initializes the database and tables.
-     *
-     * @param instance The instance of the TrueConnective plugin.
-     */
-    public DatabaseManager(TrueConnective instance) {
-        // Initialize Database and Tables.
-        initializeDatabase(instance);
-    }
-
-    /**
-     * Initializes the database and tables.
+     * Creates the storage that is selected in the config.
      *
      * @param plugin The instance of the TrueConnective plugin.
+     * @param config The database config.
+     * @return The connected storage with an up-to-date schema.
      */
-    private void initializeDatabase(TrueConnective plugin) {
-        File pluginFolder = plugin.getDataFolder(); // this is the default plugin directory
-
-        // Create directory if it is not existing
-        if (!pluginFolder.exists()) {
-            if (pluginFolder.mkdirs()) {
-                log.info("Creating Plugin directory: {}", pluginFolder.getAbsolutePath());
-            } else {
-                log.error("Couldn't create plugin directory: {}", pluginFolder.getAbsolutePath());
-            }
-        }
-        // Connect to the database.
-        connect();
-
-        initializeTikTokTable();
-        initializePlayerTimesTable();
-        initializePlayerSettingsTable();
-    }
-
-    /**
-     * Establishes a connection to the SQLite database.
-     */
-    private void connect() {
-        try {
-            Class.forName("org.sqlite.JDBC");
-            connection = DriverManager.getConnection("jdbc:sqlite:plugins/TrueConnective/trueconnective.db");
-            log.info("Database connection established");
-        } catch (ClassNotFoundException | SQLException e) {
-            log.error("Database connection failed: {}", e.getMessage());
-        }
+    static DatabaseManager create(TrueConnective plugin, DatabaseConfig config) {
+        return switch (config.type()) {
+            case MARIADB -> new MariaDbDatabaseManager(config, plugin.getMetricsRegistry());
+            case MEMORY -> new InMemoryDatabaseManager();
+            case SQLITE -> new SqliteDatabaseManager(
+                    plugin.getDataFolder().toPath().resolve(config.sqliteFile()).toFile(),
+                    config.serverId(),
+                    plugin.getMetricsRegistry());
+        };
     }
 
     /*
-     * Database TikTok Area
+     * TikTok Area
      */
 
-    /**
-     * Initializes the TikTokPlayers table if it doesn't exist.
-     */
-    private void initializeTikTokTable() {
-        try (Statement statement = connection.createStatement()) {
-            statement.executeUpdate(CREATE_TIKTOK_TABLE_SQL);
-        } catch (SQLException e) {
-            log.error("Failed to initialize TikTok table: {}", e.getMessage());
-        }
-    }
-
     /**
      * Retrieves the TikTok username for a player.
      *
      * @param player The player whose TikTok username is to be retrieved.
-     * @return The TikTok username of the player, or null if not found.
-     */
-    public Optional<String> getTiktokUsername(Player player) {
-        String uuid = player.getUniqueId().toString();
-        try (PreparedStatement statement = connection.prepareStatement(SELECT_TIKTOK_USERNAME_SQL)) {
-            statement.setString(1, uuid);
-            try (ResultSet resultSet = statement.executeQuery()) {
-                if (resultSet.next()) {
-                    String username = resultSet.getString("username");
-                    log.info("Player {} has TikTok username {}", player.getName(), username);
-                    return Optional.of(username);
-                } else {
-                    log.info("Player {} has no TikTok username", player.getName());
-                    return Optional.empty();
-                }
-            }
-        } catch (SQLException e) {
-            log.error("Failed to get TikTok username: {}", e.getMessage());
-            return Optional.empty();
-        }
+     * @return The TikTok username of the player, or empty if not found.
+     */
+    default Optional<String> getTiktokUsername(Player player) {
+        return getTiktokUsername(player.getUniqueId());
     }
 
+    /**
+     * Retrieves the TikTok username for a player by their UUID.
+     *
+     * @param playerUUID The UUID of the player whose TikTok username is to be retrieved.
+     * @return The TikTok username of the player, or empty if not found.
+     */
+    Optional<String> getTiktokUsername(UUID playerUUID);
+
     /**
      * Sets the TikTok username for a player.
      *
      * @param player   The player whose TikTok username is to be set.
      * @param username The TikTok username to be set.
      */
-    public void setTiktokUsername(OfflinePlayer player, String username) {
-        String uuid = player.getUniqueId().toString();
-        try (PreparedStatement statement = connection.prepareStatement(INSERT_OR_REPLACE_TIKTOK_USERNAME_SQL)) {
-            statement.setString(1, uuid);
-            statement.setString(2, username);
-            statement.executeUpdate();
-            log.info("Player {} has set TikTok username {}", player.getName(), username);
-        } catch (SQLException e) {
-            log.error("Failed to set TikTok username: {}", e.getMessage());
-        }
-    }
+    void setTiktokUsername(OfflinePlayer player, String username);
 
     /*
-     * Database PlayerTimes Area
+     * PlayerTimes Area
      */
 
-    /**
-     * Initializes the PlayerTimes table if it doesn't exist.
-     */
-    private void initializePlayerTimesTable() {
-        try (Statement statement = connection.createStatement()) {
-            statement.executeUpdate(CREATE_PLAYER_TIMES_TABLE_SQL);
-        } catch (SQLException e) {
-            log.error("Failed to initialize PlayerTimes table: {}", e.getMessage());
-        }
-    }
-
     /**
      * Retrieves the playtime for a player.
+     * In network mode this is the sum of the playtime on all servers.
      *
      * @param player The player whose playtime is to be retrieved.
      * @return The playtime of the player in seconds.
      */
-    public int getPlaytime(OfflinePlayer player) {
-        String uuid = player.getUniqueId().toString();
-        try (PreparedStatement statement = connection.prepareStatement(SELECT_PLAYTIME_SQL)) {
-            statement.setString(1, uuid);
-            try (ResultSet resultSet = statement.executeQuery()) {
-                if (resultSet.next()) {
-                    return resultSet.getInt("playtime"); // Return playtime in seconds
-                }
-            }
-        } catch (SQLException e) {
-            log.error("Failed to get playtime: {}", e.getMessage());
-        }
-        return 0;
-    }
+    int getPlaytime(OfflinePlayer player);
 
     /**
      * Updates the playtime for a player.
+     * In network mode the playtime on this server is adjusted, so that the sum of all servers is the new playtime.
      *
-     * @param player   The player whose playtime is to be updated.
+     * @param player          The player whose playtime is to be updated.
      * @param playtimeSeconds The new playtime to be set.
      */
-    public void updatePlaytime(OfflinePlayer player, int playtimeSeconds) {
-        String uuid = player.getUniqueId().toString();
-        try (PreparedStatement statement = connection.prepareStatement(INSERT_OR_REPLACE_PLAYTIME_SQL)) {
-            statement.setString(1, uuid);
-            statement.setInt(2, playtimeSeconds); // Store playtime in seconds
-            statement.setString(3, LocalDate.now().format(DATE_FORMATTER));
-            statement.executeUpdate();
-        } catch (SQLException e) {
-            log.error("Failed to update playtime: {}", e.getMessage());
-        }
+    default void updatePlaytime(OfflinePlayer player, int playtimeSeconds) {
+        updatePlaytime(player.getUniqueId(), playtimeSeconds);
     }
 
     /**
-     * Resets the playtime for a player.
+     * Updates the playtime for a player by their UUID.
+     * In network mode the playtime on this server is adjusted, so that the sum of all servers is the new playtime.
      *
-     * @param player The player whose playtime is to be reset.
-     */
-    public void resetPlaytime(OfflinePlayer player) {
-        String uuid = player.getUniqueId().toString();
-        try (PreparedStatement statement = connection.prepareStatement(UPDATE_PLAYTIME_SQL)) {
-            statement.setString(1, LocalDate.now().format(DATE_FORMATTER));
-            statement.setString(2, uuid);
-            statement.executeUpdate();
-        } catch (SQLException e) {
-            log.error("Failed to reset playtime: {}", e.getMessage());
-        }
-    }
+     * @param playerUUID      The UUID of the player whose playtime is to be updated.
+     * @param playtimeSeconds The new playtime to be set.
+     */
+    void updatePlaytime(UUID playerUUID, int playtimeSeconds);
 
     /**
-     * Checks if it is a new day since the player's last login.
+     * Writes the playtime of many players at once.
+     * In network mode the updates only contain the playtime on this server.
      *
-     * @param player The player to check.
-     * @return True if it is a new day, false otherwise.
-     */
-    public boolean isNewDay(OfflinePlayer player) {
-        String uuid = player.getUniqueId().toString();
-        try (PreparedStatement statement = connection.prepareStatement(SELECT_LAST_LOGIN_SQL)) {
-            statement.setString(1, uuid);
-            try (ResultSet resultSet = statement.executeQuery()) {
-                if (resultSet.next()) {
-                    String lastLoginStr = resultSet.getString("last_login");
-                    try {
-                        LocalDate lastLogin = LocalDate.parse(lastLoginStr, DATE_FORMATTER);
-                        return !lastLogin.equals(LocalDate.now());
-                    } catch (DateTimeParseException e) {
-                        log.error("Error parsing last login date: {}", e.getMessage());
-                        return true; // Treat as new day if parsing fails
-                    }
-                } else {
-                    return true;
-                }
-            }
-        } catch (SQLException e) {
-            log.error("Failed to check if new day: {}", e.getMessage());
-        }
-        return false;
-    }
+     * @param updates The playtime updates to write.
+     */
+    void updatePlaytimes(Collection<PlaytimeUpdate> updates);
 
-    /*
-     * Database PlayerSettings Area
+    /**
+     * Starts a new reset day and resets the playtime of every player that last played on an earlier day.
+     * Playtime written afterwards belongs to the new day.
+     *
+     * @param day The epoch day of the new reset day.
+     * @return The number of players whose playtime was reset.
      */
+    int resetPlaytimes(long day);
+
     /**
-     * Initializes the PlayerSettings table if it doesn't exist.
-     */
-    public void initializePlayerSettingsTable() {
-        try (Statement statement = connection.createStatement()) {
-            statement.executeUpdate(CREATE_PLAYER_SETTINGS_TABLE_SQL);
-        } catch (SQLException e) {
-            log.error("Failed to initialize PlayerSettings table: {}", e.getMessage());
-        }
-    }
+     * Retrieves the playtime of all players that played on the current reset day, e.g. to build a leaderboard.
+     * In network mode this is the sum of the playtime on all servers.
+     *
+     * @return The playtime in seconds per player.
+     */
+    Map<UUID, Integer> getDailyPlaytimes();
+
+    /*
+     * PlayerSettings Area
+     */
 
     /**
      * Get the player settings for a player.
-     * @param player The player whose settings are to be set.
+     * The default settings are stored for players that haven't joined before.
+     *
+     * @param player The player whose settings are to be retrieved.
      * @return The player settings.
      */
-    public PlayerSettings getPlayerSettings(OfflinePlayer player) {
-        String uuid = player.getUniqueId().toString();
-        try (PreparedStatement statement = connection.prepareStatement(SELECT_PLAYER_SETTINGS_SQL)) {
-            statement.setString(1, uuid);
-            try (ResultSet resultSet = statement.executeQuery()) {
-                if (resultSet.next()) {
-                    boolean actionbarEnabled = resultSet.getBoolean("actionbar_enabled");
-                    boolean bossbarEnabled = resultSet.getBoolean("bossbar_enabled");
-                    boolean joinedBefore = resultSet.getBoolean("joined_before");
-
-                    if (!joinedBefore) {
-                        setPlayerSettings(player, new PlayerSettings());
-                        return new PlayerSettings();
-                    }
-                    return new PlayerSettings(actionbarEnabled, bossbarEnabled);
-                }
-            }
-        } catch (SQLException e) {
-            log.error("Failed to get player settings: {}", e.getMessage());
-        }
-        return new PlayerSettings();
-    }
+    PlayerSettings getPlayerSettings(OfflinePlayer player);
 
     /**
      * Set the player settings for a player.
-     * @param player The player whose settings are to be set.
+     *
+     * @param player         The player whose settings are to be set.
+     * @param playerSettings The player settings to be set.
+     */
+    default void setPlayerSettings(OfflinePlayer player, PlayerSettings playerSettings) {
+        setPlayerSettings(player.getUniqueId(), playerSettings);
+    }
+
+    /**
+     * Set the player settings for a player by their UUID.
+     *
+     * @param playerUUID     The UUID of the player whose settings are to be set.
      * @param playerSettings The player settings to be set.
      */
-    public void setPlayerSettings(OfflinePlayer player, PlayerSettings playerSettings) {
-        String uuid = player.getUniqueId().toString();
-        try (PreparedStatement statement = connection.prepareStatement(INSERT_OR_REPLACE_PLAYER_SETTINGS_SQL)) {
-            statement.setString(1, uuid);
-            statement.setBoolean(2, playerSettings.isActionbarEnabled());
-            statement.setBoolean(3, playerSettings.isBossbarEnabled());
-            statement.setBoolean(4, true);
-            statement.executeUpdate();
-        } catch (SQLException e) {
-            log.error("Failed to set player settings: {}", e.getMessage());
-        }
+    void setPlayerSettings(UUID playerUUID, PlayerSettings playerSettings);
+
+    /**
+     * Writes the settings of many players at once.
+     *
+     * @param updates The settings updates to write.
+     */
+    void updatePlayerSettings(Collection<PlayerSettingsUpdate> updates);
+
+    /*
+     * PlayerProfile Area
+     */
+
+    /**
+     * Loads the playtime, TikTok username and settings of a player at once.
+     * The default settings are stored for players that haven't joined before.
+     *
+     * @param playerUUID The UUID of the player whose profile is to be loaded.
+     * @return The profile of the player.
+     */
+    PlayerProfile loadPlayerProfile(UUID playerUUID);
+
+    /*
+     * PlayerDirectory Area
+     */
+
+    /**
+     * Stores the names of many players at once, replacing the previous names of the players.
+     *
+     * @param entries The players to store.
+     */
+    void updatePlayerDirectory(Collection<PlayerDirectoryEntry> entries);
+
+    /**
+     * Loads all players of the player directory.
+     *
+     * @return All known players.
+     */
+    List<PlayerDirectoryEntry> loadPlayerDirectory();
+
+    /**
+     * Finds a player by name, ignoring the case.
+     * If several players used the name, the player that was seen last is returned.
+     *
+     * @param name The name of the player.
+     * @return The player, or empty if no player with the name is known.
+     */
+    Optional<PlayerDirectoryEntry> findPlayer(String name);
+
+    /*
+     * Session Log Area
+     */
+
+    /**
+     * Appends the sessions of many players to the session log at once.
+     * The sessions belong to the current reset day.
+     *
+     * @param sessions The sessions to append.
+     */
+    void appendSessions(Collection<PlaytimeSession> sessions);
+
+    /**
+     * Compacts the sessions this server logged before a day into one rollup per player and day.
+     * The compacted sessions are deleted from the session log.
+     *
+     * @param day The epoch day of the first reset day that is not compacted.
+     * @return The number of compacted sessions.
+     */
+    int compactSessions(long day);
+
+    /**
+     * Retrieves the daily playtime of a player from the rollups.
+     * Sessions that haven't been compacted yet aren't included.
+     *
+     * @param playerUUID The UUID of the player.
+     * @param fromDay    The epoch day of the first reset day to include.
+     * @return The days the player played on, latest first.
+     */
+    List<PlaytimeHistoryDay> getPlaytimeHistory(UUID playerUUID, long fromDay);
+
+    /**
+     * Sums the rollups of all players over a range of days.
+     *
+     * @param fromDay The epoch day of the first reset day to include.
+     * @param toDay   The epoch day of the first reset day to exclude.
+     * @return The playtime in seconds per player that played in the range.
+     */
+    Map<UUID, Integer> getRolledUpPlaytimes(long fromDay, long toDay);
+
+    /*
+     * Network Area
+     */
+
+    /**
+     * Checks if the playtime is shared with the other servers of a network.
+     *
+     * @return True in network mode.
+     */
+    default boolean isNetworkMode() {
+        return false;
+    }
+
+    /**
+     * Polls the playtime on the other servers of the network.
+     * Only players whose playtime changed on another server since the last poll are returned.
+     * The first poll of a new reset day returns every player that played on another server on that day.
+     *
+     * @return The playtime in seconds on all other servers per player and the day it was read for,
+     *         empty outside of network mode.
+     */
+    default NetworkPlaytimes pollNetworkPlaytimes() {
+        return new NetworkPlaytimes(0, Map.of());
+    }
+
+    /**
+     * Returns how often each statement has been executed since the plugin was enabled.
+     *
+     * @return The execution count per statement, empty for storages without statements.
+     */
+    default Map<String, Long> getStatementExecutionCounts() {
+        return Map.of();
     }
+
+    /**
+     * Closes the connection to the storage.
+     */
+    void close();
 }
@@ -0,0 +1,77 @@
+//********************************************************************************************
+// Author:      V01D-PH03N1X (PinguBasti), TrueConnective Paul & Stolle GbR
+// Project:     TrueConnective Paper Plugin
+// Description: Management Plugin for Paper Servers (Minecraft)
+//********************************************************************************************
+package me.mydark.trueconnectiveplugin.manager;
+
+import io.papermc.paper.threadedregions.scheduler.ScheduledTask;
+import java.util.concurrent.TimeUnit;
+import me.mydark.trueconnectiveplugin.TrueConnective;
+import org.bukkit.Bukkit;
+import org.bukkit.entity.Entity;
+
+/**
+ * Scheduler for Folia, which ticks the regions of the world on several threads.
+ * The tasks of an entity run on the entity scheduler, so they run on the thread of the region the entity is in.
+ * The other tasks run on the global region scheduler or the async scheduler.
+ * Folia doesn't accept delays below one tick, so shorter delays are rounded up.
+ */
+public class FoliaTaskScheduler implements TaskScheduler {
+    private static final long MILLIS_PER_TICK = 50L;
+
+    private final TrueConnective plugin;
+
+    public FoliaTaskScheduler(TrueConnective plugin) {
+        this.plugin = plugin;
+    }
+
+    @Override
+    public boolean isRegionized() {
+        return true;
+    }
+
+    @Override
+    public void runGlobal(Runnable task) {
+        Bukkit.getGlobalRegionScheduler().execute(plugin, task);
+    }
+
+    @Override
+    public Task runGlobalLater(Runnable task, long delayTicks) {
+        ScheduledTask scheduledTask = Bukkit.getGlobalRegionScheduler()
+                .runDelayed(plugin, ignored -> task.run(), Math.max(1L, delayTicks));
+        return scheduledTask::cancel;
+    }
+
+    @Override
+    public Task runGlobalTimer(Runnable task, long delayTicks, long periodTicks) {
+        ScheduledTask scheduledTask = Bukkit.getGlobalRegionScheduler()
+                .runAtFixedRate(plugin, ignored -> task.run(), Math.max(1L, delayTicks), Math.max(1L, periodTicks));
+        return scheduledTask::cancel;
+    }
+
+    @Override
+    public Task runAsyncTimer(Runnable task, long delayTicks, long periodTicks) {
+        ScheduledTask scheduledTask = Bukkit.getAsyncScheduler()
+                .runAtFixedRate(
+                        plugin,
+                        ignored -> task.run(),
+                        delayTicks * MILLIS_PER_TICK,
+                        Math.max(1L, periodTicks) * MILLIS_PER_TICK,
+                        TimeUnit.MILLISECONDS);
+        return scheduledTask::cancel;
+    }
+
+    @Override
+    public void runAtEntity(Entity entity, Runnable task) {
+        entity.getScheduler().run(plugin, ignored -> task.run(), null);
+    }
+
+    @Override
+    public Task runAtEntityTimer(Entity entity, Runnable task, long delayTicks, long periodTicks) {
+        ScheduledTask scheduledTask = entity.getScheduler()
+                .runAtFixedRate(
+                        plugin, ignored -> task.run(), null, Math.max(1L, delayTicks), Math.max(1L, periodTicks));
+        return scheduledTask == null ? null : scheduledTask::cancel;
+    }
+}
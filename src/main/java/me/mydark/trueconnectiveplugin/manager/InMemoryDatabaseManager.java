@@ -0,0 +1,218 @@
+//********************************************************************************************
+// Author:      V01D-PH03N1X (PinguBasti), TrueConnective Paul & Stolle GbR
+// Project:     TrueConnective Paper Plugin
+// Description: Management Plugin for Paper Servers (Minecraft)
+//********************************************************************************************
+package me.mydark.trueconnectiveplugin.manager;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import lombok.extern.slf4j.Slf4j;
+import me.mydark.trueconnectiveplugin.dto.PlayerDirectoryEntry;
+import me.mydark.trueconnectiveplugin.dto.PlayerProfile;
+import me.mydark.trueconnectiveplugin.dto.PlayerSettings;
+import me.mydark.trueconnectiveplugin.dto.PlayerSettingsUpdate;
+import me.mydark.trueconnectiveplugin.dto.PlaytimeHistoryDay;
+import me.mydark.trueconnectiveplugin.dto.PlaytimeSession;
+import me.mydark.trueconnectiveplugin.dto.PlaytimeUpdate;
+import org.bukkit.OfflinePlayer;
+
+/**
+ * Storage that only keeps the data in memory, for tests and benchmarks without a database.
+ * It behaves like the SQL storages, but nothing is persisted and all data is lost on close.
+ */
+@Slf4j
+public class InMemoryDatabaseManager implements DatabaseManager {
+    private final Map<UUID, String> tiktokUsernames = new ConcurrentHashMap<>();
+    private final Map<UUID, PlaytimeRow> playtimes = new ConcurrentHashMap<>();
+    // The settings as stored flags, see PlayerSettings#toStoredFlags()
+    private final Map<UUID, Integer> playerSettings = new ConcurrentHashMap<>();
+    private final Map<UUID, PlayerDirectoryEntry> playerDirectory = new ConcurrentHashMap<>();
+    private final Queue<SessionRow> sessions = new ConcurrentLinkedQueue<>();
+    // The compacted playtime in seconds per player and day
+    private final Map<UUID, NavigableMap<Long, Integer>> rollups = new ConcurrentHashMap<>();
+
+    // The reset day all playtime writes belong to, only advanced by resetPlaytimes
+    private volatile long currentDay = LocalDate.now().toEpochDay();
+
+    public InMemoryDatabaseManager() {
+        log.warn("Using the in-memory storage, no data will be persisted");
+    }
+
+    @Override
+    public Optional<String> getTiktokUsername(UUID playerUUID) {
+        return Optional.ofNullable(tiktokUsernames.get(playerUUID));
+    }
+
+    @Override
+    public void setTiktokUsername(OfflinePlayer player, String username) {
+        tiktokUsernames.put(player.getUniqueId(), username);
+        log.info("Player {} has set TikTok username {}", player.getName(), username);
+    }
+
+    @Override
+    public int getPlaytime(OfflinePlayer player) {
+        PlaytimeRow row = playtimes.get(player.getUniqueId());
+        return row == null ? 0 : row.playtime();
+    }
+
+    @Override
+    public void updatePlaytime(UUID playerUUID, int playtimeSeconds) {
+        playtimes.put(playerUUID, new PlaytimeRow(playtimeSeconds, currentDay));
+    }
+
+    @Override
+    public void updatePlaytimes(Collection<PlaytimeUpdate> updates) {
+        long day = currentDay;
+        for (PlaytimeUpdate update : updates) {
+            playtimes.put(update.uuid(), new PlaytimeRow(update.playtime(), day));
+        }
+    }
+
+    @Override
+    public int resetPlaytimes(long day) {
+        currentDay = day;
+        AtomicInteger resetPlayers = new AtomicInteger();
+        playtimes.replaceAll((uuid, row) -> {
+            if (row.lastLogin() >= day) return row;
+            resetPlayers.incrementAndGet();
+            return new PlaytimeRow(0, day);
+        });
+        log.info("Reset playtime of {} players for day {}", resetPlayers.get(), LocalDate.ofEpochDay(day));
+        return resetPlayers.get();
+    }
+
+    @Override
+    public Map<UUID, Integer> getDailyPlaytimes() {
+        long day = currentDay;
+        Map<UUID, Integer> dailyPlaytimes = new HashMap<>();
+        playtimes.forEach((uuid, row) -> {
+            if (row.lastLogin() == day && row.playtime() > 0) dailyPlaytimes.put(uuid, row.playtime());
+        });
+        return dailyPlaytimes;
+    }
+
+    @Override
+    public PlayerSettings getPlayerSettings(OfflinePlayer player) {
+        // Store the default settings for players that haven't joined before
+        int storedFlags = playerSettings.computeIfAbsent(
+                player.getUniqueId(), uuid -> new PlayerSettings().toStoredFlags());
+        return PlayerSettings.fromStoredFlags(storedFlags);
+    }
+
+    @Override
+    public void setPlayerSettings(UUID playerUUID, PlayerSettings settings) {
+        playerSettings.put(playerUUID, settings.toStoredFlags());
+    }
+
+    @Override
+    public void updatePlayerSettings(Collection<PlayerSettingsUpdate> updates) {
+        for (PlayerSettingsUpdate update : updates) {
+            playerSettings.put(update.uuid(), update.storedFlags());
+        }
+    }
+
+    @Override
+    public PlayerProfile loadPlayerProfile(UUID playerUUID) {
+        long day = currentDay;
+        PlaytimeRow row = playtimes.get(playerUUID);
+        int storedFlags = playerSettings.computeIfAbsent(playerUUID, uuid -> new PlayerSettings().toStoredFlags());
+        return new PlayerProfile(
+                playerUUID,
+                row == null ? 0 : row.playtime(),
+                0,
+                day,
+                tiktokUsernames.get(playerUUID),
+                PlayerSettings.fromStoredFlags(storedFlags));
+    }
+
+    @Override
+    public void updatePlayerDirectory(Collection<PlayerDirectoryEntry> entries) {
+        for (PlayerDirectoryEntry entry : entries) {
+            playerDirectory.put(entry.uuid(), entry);
+        }
+    }
+
+    @Override
+    public List<PlayerDirectoryEntry> loadPlayerDirectory() {
+        return new ArrayList<>(playerDirectory.values());
+    }
+
+    @Override
+    public Optional<PlayerDirectoryEntry> findPlayer(String name) {
+        return playerDirectory.values().stream()
+                .filter(entry -> entry.name().equalsIgnoreCase(name))
+                .max(Comparator.comparingLong(PlayerDirectoryEntry::lastSeen));
+    }
+
+    @Override
+    public void appendSessions(Collection<PlaytimeSession> sessions) {
+        long day = currentDay;
+        for (PlaytimeSession session : sessions) {
+            this.sessions.add(new SessionRow(session, day));
+        }
+    }
+
+    @Override
+    public int compactSessions(long day) {
+        int compacted = 0;
+        for (SessionRow row : sessions) {
+            if (row.day() >= day || !sessions.remove(row)) continue;
+            rollups.computeIfAbsent(row.session().uuid(), uuid -> new ConcurrentSkipListMap<>())
+                    .merge(row.day(), row.session().seconds(), Integer::sum);
+            compacted++;
+        }
+        log.info("Compacted {} sessions before day {}", compacted, LocalDate.ofEpochDay(day));
+        return compacted;
+    }
+
+    @Override
+    public List<PlaytimeHistoryDay> getPlaytimeHistory(UUID playerUUID, long fromDay) {
+        NavigableMap<Long, Integer> days = rollups.get(playerUUID);
+        if (days == null) return List.of();
+        List<PlaytimeHistoryDay> history = new ArrayList<>();
+        days.tailMap(fromDay, true)
+                .descendingMap()
+                .forEach((day, seconds) -> history.add(new PlaytimeHistoryDay(day, seconds)));
+        return history;
+    }
+
+    @Override
+    public Map<UUID, Integer> getRolledUpPlaytimes(long fromDay, long toDay) {
+        Map<UUID, Integer> rolledUpPlaytimes = new HashMap<>();
+        rollups.forEach((uuid, days) -> {
+            int seconds = days.subMap(fromDay, true, toDay, false).values().stream()
+                    .mapToInt(Integer::intValue)
+                    .sum();
+            if (seconds > 0) rolledUpPlaytimes.put(uuid, seconds);
+        });
+        return rolledUpPlaytimes;
+    }
+
+    @Override
+    public void close() {
+        tiktokUsernames.clear();
+        playtimes.clear();
+        playerSettings.clear();
+        playerDirectory.clear();
+        sessions.clear();
+        rollups.clear();
+    }
+
+    private record PlaytimeRow(int playtime, long lastLogin) {}
+
+    private record SessionRow(PlaytimeSession session, long day) {}
+}
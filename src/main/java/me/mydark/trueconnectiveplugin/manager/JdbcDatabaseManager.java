@@ -0,0 +1,821 @@
+//********************************************************************************************
+// Author:      V01D-PH03N1X (PinguBasti), TrueConnective Paul & Stolle GbR
+// Project:     TrueConnective Paper Plugin
+// Description: Management Plugin for Paper Servers (Minecraft)
+//********************************************************************************************
+package me.mydark.trueconnectiveplugin.manager;
+
+import java.nio.ByteBuffer;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import lombok.extern.slf4j.Slf4j;
+import me.mydark.trueconnectiveplugin.dto.NetworkPlaytimes;
+import me.mydark.trueconnectiveplugin.dto.PlayerDirectoryEntry;
+import me.mydark.trueconnectiveplugin.dto.PlayerProfile;
+import me.mydark.trueconnectiveplugin.dto.PlayerSettings;
+import me.mydark.trueconnectiveplugin.dto.PlayerSettingsUpdate;
+import me.mydark.trueconnectiveplugin.dto.PlaytimeHistoryDay;
+import me.mydark.trueconnectiveplugin.dto.PlaytimeSession;
+import me.mydark.trueconnectiveplugin.dto.PlaytimeUpdate;
+import org.bukkit.OfflinePlayer;
+
+/**
+ * Base of the SQL storages.
+ * The queries are shared by all databases, only the upserts are dialect-specific and supplied by the subclasses.
+ * All tables use the 16 byte form of the UUID as key, see {@link #toBytes(UUID)}.
+ * <p>
+ * In network mode the playtime isn't stored in PlayerTimes. Every server only writes its own contribution
+ * to the playtime of a player per day into PlaytimeContributions, and the playtime is the sum of all contributions,
+ * so the servers never update the same row. Each write is stamped with a version of the server, which is also
+ * stored in NetworkServers. Polling that small table shows which servers wrote since the last poll.
+ * <p>
+ * The sessions of the players are appended to PlaytimeSessions and never updated. Every server compacts its own
+ * sessions of past days into PlaytimeRollups, one row per player, day and server, which the history is read from.
+ */
+@Slf4j
+public abstract class JdbcDatabaseManager implements DatabaseManager {
+    // TikTok SQL Queries
+    protected static final String SELECT_TIKTOK_USERNAME_SQL = "SELECT username FROM TikTokPlayers WHERE uuid = ?";
+
+    // PlayerTimes SQL Queries, the last_login is stored as epoch day
+    protected static final String SELECT_PLAYTIME_SQL = "SELECT playtime FROM PlayerTimes WHERE uuid = ?";
+    protected static final String RESET_PLAYTIMES_SQL =
+            "UPDATE PlayerTimes SET playtime = 0, last_login = ? WHERE last_login < ?";
+    protected static final String SELECT_DAILY_PLAYTIMES_SQL =
+            "SELECT uuid, playtime FROM PlayerTimes WHERE last_login = ? AND playtime > 0";
+
+    // PlayerSettings SQL Queries, the flags only contain the bits that differ from the default settings
+    protected static final String SELECT_PLAYER_SETTINGS_SQL = "SELECT flags FROM PlayerSettings WHERE uuid = ?";
+
+    // PlayerProfile SQL Queries
+    protected static final String SELECT_PLAYER_PROFILE_SQL =
+            "SELECT t.playtime, 0 AS network_playtime, k.username, s.flags "
+                    + "FROM (SELECT ? AS uuid) AS p "
+                    + "LEFT JOIN PlayerTimes t ON t.uuid = p.uuid "
+                    + "LEFT JOIN TikTokPlayers k ON k.uuid = p.uuid "
+                    + "LEFT JOIN PlayerSettings s ON s.uuid = p.uuid";
+
+    // Network SQL Queries, the parameters of the profile are the day and server id twice, followed by the uuid
+    protected static final String SELECT_NETWORK_PLAYER_PROFILE_SQL =
+            "SELECT (SELECT COALESCE(SUM(c.playtime), 0) FROM PlaytimeContributions c "
+                    + "WHERE c.uuid = p.uuid AND c.day = ? AND c.server_id = ?) AS playtime, "
+                    + "(SELECT COALESCE(SUM(c.playtime), 0) FROM PlaytimeContributions c "
+                    + "WHERE c.uuid = p.uuid AND c.day = ? AND c.server_id <> ?) AS network_playtime, "
+                    + "k.username, s.flags "
+                    + "FROM (SELECT ? AS uuid) AS p "
+                    + "LEFT JOIN TikTokPlayers k ON k.uuid = p.uuid "
+                    + "LEFT JOIN PlayerSettings s ON s.uuid = p.uuid";
+    protected static final String SELECT_NETWORK_PLAYTIME_SQL =
+            "SELECT COALESCE(SUM(playtime), 0) FROM PlaytimeContributions WHERE uuid = ? AND day = ?";
+    protected static final String SELECT_NETWORK_DAILY_PLAYTIMES_SQL =
+            "SELECT uuid, SUM(playtime) AS playtime FROM PlaytimeContributions WHERE day = ? GROUP BY uuid";
+    protected static final String SELECT_OTHER_CONTRIBUTIONS_SQL =
+            "SELECT COALESCE(SUM(playtime), 0) FROM PlaytimeContributions WHERE uuid = ? AND day = ? AND server_id <> ?";
+    protected static final String DELETE_PAST_CONTRIBUTIONS_SQL = "DELETE FROM PlaytimeContributions WHERE day < ?";
+    protected static final String SELECT_SERVER_VERSION_SQL = "SELECT version FROM NetworkServers WHERE server_id = ?";
+    protected static final String SELECT_NETWORK_VERSIONS_SQL =
+            "SELECT server_id, version FROM NetworkServers WHERE server_id <> ?";
+    protected static final String SELECT_CHANGED_NETWORK_PLAYTIMES_SQL =
+            "SELECT c.uuid, SUM(c.playtime) AS playtime FROM PlaytimeContributions c "
+                    + "WHERE c.day = ? AND c.server_id <> ? AND c.uuid IN "
+                    + "(SELECT uuid FROM PlaytimeContributions WHERE server_id = ? AND version > ? AND day = ?) "
+                    + "GROUP BY c.uuid";
+
+    // PlayerDirectory SQL Queries, the lower_name is indexed for lookups that ignore the case
+    protected static final String SELECT_PLAYER_DIRECTORY_SQL = "SELECT uuid, name, last_seen FROM PlayerDirectory";
+    protected static final String SELECT_PLAYER_BY_NAME_SQL = "SELECT uuid, name, last_seen FROM PlayerDirectory "
+            + "WHERE lower_name = ? ORDER BY last_seen DESC LIMIT 1";
+
+    // Session Log SQL Queries, the server id is empty outside of network mode
+    protected static final String INSERT_PLAYTIME_SESSION_SQL =
+            "INSERT INTO PlaytimeSessions (uuid, server_id, day, joined_at, left_at, seconds) VALUES (?, ?, ?, ?, ?, ?)";
+    protected static final String DELETE_COMPACTED_SESSIONS_SQL =
+            "DELETE FROM PlaytimeSessions WHERE server_id = ? AND day < ?";
+    // Only reads the primary key range of the player, the rollups of all servers are summed per day
+    protected static final String SELECT_PLAYTIME_HISTORY_SQL = "SELECT day, SUM(seconds) AS seconds "
+            + "FROM PlaytimeRollups WHERE uuid = ? AND day >= ? GROUP BY day ORDER BY day DESC";
+    protected static final String SELECT_ROLLED_UP_PLAYTIMES_SQL = "SELECT uuid, SUM(seconds) AS playtime "
+            + "FROM PlaytimeRollups WHERE day >= ? AND day < ? GROUP BY uuid";
+
+    private final Upserts upserts;
+    // The id of this server in the network, or null outside of network mode
+    private final String serverId;
+    // The server id the sessions of this server are logged with
+    private final String sessionServerId;
+
+    // The reset day all playtime writes belong to, only advanced by resetPlaytimes
+    private volatile long currentDay = LocalDate.now().toEpochDay();
+
+    // The version of the last contributions written by this server
+    private final AtomicLong networkVersion = new AtomicLong();
+    // The versions of the other servers as of the last poll, cleared when a new reset day starts
+    private final Map<String, Long> seenNetworkVersions = new ConcurrentHashMap<>();
+
+    protected JdbcDatabaseManager(Upserts upserts, String serverId) {
+        this.upserts = upserts;
+        this.serverId = serverId;
+        this.sessionServerId = serverId == null ? "" : serverId;
+    }
+
+    /**
+     * Reads the versions of all servers in network mode, must be called once the tables exist.
+     * Only changes after this are returned by {@link #pollNetworkPlaytimes()}, the playtime before is part of the
+     * profiles that are loaded on join.
+     */
+    protected void initializeNetwork() {
+        if (serverId == null) return;
+        try {
+            networkVersion.set(execute(SELECT_SERVER_VERSION_SQL, statement -> {
+                statement.setString(1, serverId);
+                try (ResultSet resultSet = statement.executeQuery()) {
+                    return resultSet.next() ? resultSet.getLong("version") : 0L;
+                }
+            }));
+            seenNetworkVersions.putAll(getNetworkVersions());
+            log.info("Network mode as server {}, {} other servers known", serverId, seenNetworkVersions.size());
+        } catch (SQLException e) {
+            log.error("Failed to initialize network mode: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Executes an action with a prepared statement for the given SQL.
+     * Inside {@link #inTransaction(TransactionAction)} the statement belongs to the connection of the transaction.
+     *
+     * @param sql    The SQL of the statement.
+     * @param action The action to execute with the statement.
+     * @return The result of the action.
+     * @throws SQLException If the statement fails.
+     */
+    protected abstract <T> T execute(String sql, StatementCache.StatementAction<T> action) throws SQLException;
+
+    /**
+     * Executes an action in a single transaction, which is rolled back if the action fails.
+     *
+     * @param action The action to execute.
+     * @throws SQLException If the action or the commit fails.
+     */
+    protected abstract void inTransaction(TransactionAction action) throws SQLException;
+
+    @FunctionalInterface
+    protected interface TransactionAction {
+        void run() throws SQLException;
+    }
+
+    /**
+     * The statements that insert a row or replace the existing row with the same uuid.
+     * The parameters are the uuid followed by the remaining columns in the order of the table.
+     *
+     * @param tiktokUsername       The upsert into TikTokPlayers (uuid, username).
+     * @param playtime             The upsert into PlayerTimes (uuid, playtime, last_login).
+     * @param playerSettings       The upsert into PlayerSettings (uuid, flags).
+     * @param playerDirectory      The upsert into PlayerDirectory (uuid, name, lower_name, last_seen).
+     * @param playtimeContribution The upsert into PlaytimeContributions (uuid, day, server_id, playtime, version).
+     * @param networkServer        The upsert into NetworkServers (server_id, version), with the server id as key.
+     * @param sessionRollups       The insert of the summed PlaytimeSessions of a server before a day
+     *                             (server_id, day) into PlaytimeRollups, which adds to existing rollups.
+     */
+    protected record Upserts(
+            String tiktokUsername,
+            String playtime,
+            String playerSettings,
+            String playerDirectory,
+            String playtimeContribution,
+            String networkServer,
+            String sessionRollups) {}
+
+    /**
+     * Converts a UUID to the 16 byte form that is used as key in all tables.
+     *
+     * @param uuid The UUID to convert.
+     * @return The most significant bits followed by the least significant bits.
+     */
+    static byte[] toBytes(UUID uuid) {
+        return ByteBuffer.allocate(16)
+                .putLong(uuid.getMostSignificantBits())
+                .putLong(uuid.getLeastSignificantBits())
+                .array();
+    }
+
+    /**
+     * Converts the 16 byte form of a UUID back to the UUID.
+     *
+     * @param bytes The bytes as created by {@link #toBytes(UUID)}.
+     * @return The UUID.
+     */
+    static UUID fromBytes(byte[] bytes) {
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        return new UUID(buffer.getLong(), buffer.getLong());
+    }
+
+    /*
+     * Database TikTok Area
+     */
+
+    @Override
+    public Optional<String> getTiktokUsername(UUID playerUUID) {
+        byte[] uuid = toBytes(playerUUID);
+        try {
+            return execute(SELECT_TIKTOK_USERNAME_SQL, statement -> {
+                statement.setBytes(1, uuid);
+                try (ResultSet resultSet = statement.executeQuery()) {
+                    if (resultSet.next()) {
+                        String username = resultSet.getString("username");
+                        log.info("Player {} has TikTok username {}", playerUUID, username);
+                        return Optional.of(username);
+                    } else {
+                        log.info("Player {} has no TikTok username", playerUUID);
+                        return Optional.empty();
+                    }
+                }
+            });
+        } catch (SQLException e) {
+            log.error("Failed to get TikTok username: {}", e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    @Override
+    public void setTiktokUsername(OfflinePlayer player, String username) {
+        byte[] uuid = toBytes(player.getUniqueId());
+        try {
+            execute(upserts.tiktokUsername(), statement -> {
+                statement.setBytes(1, uuid);
+                statement.setString(2, username);
+                return statement.executeUpdate();
+            });
+            log.info("Player {} has set TikTok username {}", player.getName(), username);
+        } catch (SQLException e) {
+            log.error("Failed to set TikTok username: {}", e.getMessage());
+        }
+    }
+
+    /*
+     * Database PlayerTimes Area
+     */
+
+    @Override
+    public int getPlaytime(OfflinePlayer player) {
+        byte[] uuid = toBytes(player.getUniqueId());
+        try {
+            if (serverId != null) return getContributions(uuid, false);
+            return execute(SELECT_PLAYTIME_SQL, statement -> {
+                statement.setBytes(1, uuid);
+                try (ResultSet resultSet = statement.executeQuery()) {
+                    if (resultSet.next()) {
+                        return resultSet.getInt("playtime"); // Return playtime in seconds
+                    }
+                    return 0;
+                }
+            });
+        } catch (SQLException e) {
+            log.error("Failed to get playtime: {}", e.getMessage());
+        }
+        return 0;
+    }
+
+    @Override
+    public void updatePlaytime(UUID playerUUID, int playtimeSeconds) {
+        byte[] uuid = toBytes(playerUUID);
+        try {
+            if (serverId != null) {
+                // Only the row of this server is written, it makes up the difference to the other servers
+                inTransaction(() -> {
+                    int otherServers = getContributions(uuid, true);
+                    writeContributions(List.of(new PlaytimeUpdate(playerUUID, playtimeSeconds - otherServers)));
+                });
+                return;
+            }
+            execute(upserts.playtime(), statement -> {
+                statement.setBytes(1, uuid);
+                statement.setInt(2, playtimeSeconds); // Store playtime in seconds
+                statement.setLong(3, currentDay);
+                return statement.executeUpdate();
+            });
+        } catch (SQLException e) {
+            log.error("Failed to update playtime: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Writes the playtime of many players in a single transaction with one batched statement,
+     * so the database only has to sync once.
+     *
+     * @param updates The playtime updates to write.
+     */
+    @Override
+    public void updatePlaytimes(Collection<PlaytimeUpdate> updates) {
+        if (updates.isEmpty()) return;
+        try {
+            if (serverId != null) {
+                inTransaction(() -> writeContributions(updates));
+                log.debug("Updated playtime of {} players", updates.size());
+                return;
+            }
+            inTransaction(() -> execute(upserts.playtime(), statement -> {
+                for (PlaytimeUpdate update : updates) {
+                    statement.setBytes(1, toBytes(update.uuid()));
+                    statement.setInt(2, update.playtime()); // Store playtime in seconds
+                    statement.setLong(3, currentDay);
+                    statement.addBatch();
+                }
+                return statement.executeBatch();
+            }));
+            log.debug("Updated playtime of {} players", updates.size());
+        } catch (SQLException e) {
+            log.error("Failed to update playtime of {} players: {}", updates.size(), e.getMessage());
+        }
+    }
+
+    /**
+     * Starts a new reset day and resets the playtime of every player that last played on an earlier day
+     * with a single statement. Playtime written afterwards belongs to the new day.
+     *
+     * @param day The epoch day of the new reset day.
+     * @return The number of players whose playtime was reset.
+     */
+    @Override
+    public int resetPlaytimes(long day) {
+        if (serverId != null && day != currentDay) {
+            // The first poll of the new day fetches all contributions of the day again
+            seenNetworkVersions.clear();
+        }
+        currentDay = day;
+        if (serverId != null) return deletePastContributions(day);
+        try {
+            int resetPlayers = execute(RESET_PLAYTIMES_SQL, statement -> {
+                statement.setLong(1, day);
+                statement.setLong(2, day);
+                return statement.executeUpdate();
+            });
+            log.info("Reset playtime of {} players for day {}", resetPlayers, LocalDate.ofEpochDay(day));
+            return resetPlayers;
+        } catch (SQLException e) {
+            log.error("Failed to reset playtimes: {}", e.getMessage());
+            return 0;
+        }
+    }
+
+    /**
+     * Retrieves the playtime of all players that played on the current reset day.
+     * Only used to build the leaderboard when the plugin is enabled, so it may read the whole table.
+     *
+     * @return The playtime in seconds per player.
+     */
+    @Override
+    public Map<UUID, Integer> getDailyPlaytimes() {
+        long day = currentDay;
+        String sql = serverId == null ? SELECT_DAILY_PLAYTIMES_SQL : SELECT_NETWORK_DAILY_PLAYTIMES_SQL;
+        try {
+            return execute(sql, statement -> {
+                statement.setLong(1, day);
+                return readPlaytimes(statement);
+            });
+        } catch (SQLException e) {
+            log.error("Failed to get daily playtimes: {}", e.getMessage());
+            return Map.of();
+        }
+    }
+
+    /*
+     * Database PlayerSettings Area
+     */
+
+    @Override
+    public PlayerSettings getPlayerSettings(OfflinePlayer player) {
+        byte[] uuid = toBytes(player.getUniqueId());
+        try {
+            PlayerSettings playerSettings = execute(SELECT_PLAYER_SETTINGS_SQL, statement -> {
+                statement.setBytes(1, uuid);
+                try (ResultSet resultSet = statement.executeQuery()) {
+                    return resultSet.next() ? PlayerSettings.fromStoredFlags(resultSet.getInt("flags")) : null;
+                }
+            });
+            if (playerSettings != null) {
+                return playerSettings;
+            }
+            // Store the default settings for players that haven't joined before
+            setPlayerSettings(player, new PlayerSettings());
+        } catch (SQLException e) {
+            log.error("Failed to get player settings: {}", e.getMessage());
+        }
+        return new PlayerSettings();
+    }
+
+    @Override
+    public void setPlayerSettings(UUID playerUUID, PlayerSettings playerSettings) {
+        byte[] uuid = toBytes(playerUUID);
+        try {
+            execute(upserts.playerSettings(), statement -> {
+                statement.setBytes(1, uuid);
+                statement.setInt(2, playerSettings.toStoredFlags());
+                return statement.executeUpdate();
+            });
+        } catch (SQLException e) {
+            log.error("Failed to set player settings: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Writes the settings of many players in a single transaction with one batched statement.
+     *
+     * @param updates The settings updates to write.
+     */
+    @Override
+    public void updatePlayerSettings(Collection<PlayerSettingsUpdate> updates) {
+        if (updates.isEmpty()) return;
+        try {
+            inTransaction(() -> execute(upserts.playerSettings(), statement -> {
+                for (PlayerSettingsUpdate update : updates) {
+                    statement.setBytes(1, toBytes(update.uuid()));
+                    statement.setInt(2, update.storedFlags());
+                    statement.addBatch();
+                }
+                return statement.executeBatch();
+            }));
+            log.debug("Updated settings of {} players", updates.size());
+        } catch (SQLException e) {
+            log.error("Failed to update settings of {} players: {}", updates.size(), e.getMessage());
+        }
+    }
+
+    /*
+     * Database PlayerProfile Area
+     */
+
+    /**
+     * Loads the playtime, TikTok username and settings of a player with a single query.
+     * The default settings are stored for players that haven't joined before.
+     *
+     * @param playerUUID The UUID of the player whose profile is to be loaded.
+     * @return The profile of the player.
+     */
+    @Override
+    public PlayerProfile loadPlayerProfile(UUID playerUUID) {
+        byte[] uuid = toBytes(playerUUID);
+        long day = currentDay;
+        try {
+            String sql = serverId == null ? SELECT_PLAYER_PROFILE_SQL : SELECT_NETWORK_PLAYER_PROFILE_SQL;
+            ProfileRow row = execute(sql, statement -> {
+                int parameter = 1;
+                if (serverId != null) {
+                    statement.setLong(parameter++, day);
+                    statement.setString(parameter++, serverId);
+                    statement.setLong(parameter++, day);
+                    statement.setString(parameter++, serverId);
+                }
+                statement.setBytes(parameter, uuid);
+                try (ResultSet resultSet = statement.executeQuery()) {
+                    // The query always returns exactly one row, the columns of missing rows are NULL
+                    resultSet.next();
+                    int playtime = resultSet.getInt("playtime");
+                    int networkPlaytime = resultSet.getInt("network_playtime");
+                    String username = resultSet.getString("username");
+                    int flags = resultSet.getInt("flags");
+                    // Players without a settings row haven't joined before
+                    return new ProfileRow(
+                            playtime,
+                            networkPlaytime,
+                            username,
+                            resultSet.wasNull() ? null : PlayerSettings.fromStoredFlags(flags));
+                }
+            });
+
+            PlayerSettings settings = row.settings();
+            if (settings == null) {
+                settings = new PlayerSettings();
+                // Store the default settings for players that haven't joined before
+                setPlayerSettings(playerUUID, settings);
+            }
+            return new PlayerProfile(
+                    playerUUID, row.playtime(), row.networkPlaytime(), day, row.tiktokUsername(), settings);
+        } catch (SQLException e) {
+            log.error("Failed to load player profile: {}", e.getMessage());
+            return new PlayerProfile(playerUUID, 0, 0, day, null, new PlayerSettings());
+        }
+    }
+
+    private record ProfileRow(int playtime, int networkPlaytime, String tiktokUsername, PlayerSettings settings) {}
+
+    /*
+     * Database PlayerDirectory Area
+     */
+
+    /**
+     * Stores the names of many players in a single transaction with one batched statement.
+     *
+     * @param entries The players to store.
+     */
+    @Override
+    public void updatePlayerDirectory(Collection<PlayerDirectoryEntry> entries) {
+        if (entries.isEmpty()) return;
+        try {
+            inTransaction(() -> execute(upserts.playerDirectory(), statement -> {
+                for (PlayerDirectoryEntry entry : entries) {
+                    statement.setBytes(1, toBytes(entry.uuid()));
+                    statement.setString(2, entry.name());
+                    statement.setString(3, entry.name().toLowerCase(Locale.ROOT));
+                    statement.setLong(4, entry.lastSeen());
+                    statement.addBatch();
+                }
+                return statement.executeBatch();
+            }));
+            log.debug("Updated {} players in the player directory", entries.size());
+        } catch (SQLException e) {
+            log.error("Failed to update {} players in the player directory: {}", entries.size(), e.getMessage());
+        }
+    }
+
+    @Override
+    public List<PlayerDirectoryEntry> loadPlayerDirectory() {
+        try {
+            return execute(SELECT_PLAYER_DIRECTORY_SQL, statement -> {
+                List<PlayerDirectoryEntry> entries = new ArrayList<>();
+                try (ResultSet resultSet = statement.executeQuery()) {
+                    while (resultSet.next()) {
+                        entries.add(readPlayerDirectoryEntry(resultSet));
+                    }
+                }
+                return entries;
+            });
+        } catch (SQLException e) {
+            log.error("Failed to load the player directory: {}", e.getMessage());
+            return List.of();
+        }
+    }
+
+    @Override
+    public Optional<PlayerDirectoryEntry> findPlayer(String name) {
+        try {
+            return execute(SELECT_PLAYER_BY_NAME_SQL, statement -> {
+                statement.setString(1, name.toLowerCase(Locale.ROOT));
+                try (ResultSet resultSet = statement.executeQuery()) {
+                    return resultSet.next() ? Optional.of(readPlayerDirectoryEntry(resultSet)) : Optional.empty();
+                }
+            });
+        } catch (SQLException e) {
+            log.error("Failed to find player {}: {}", name, e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    private static PlayerDirectoryEntry readPlayerDirectoryEntry(ResultSet resultSet) throws SQLException {
+        return new PlayerDirectoryEntry(
+                fromBytes(resultSet.getBytes("uuid")), resultSet.getString("name"), resultSet.getLong("last_seen"));
+    }
+
+    /*
+     * Database Session Log Area
+     */
+
+    /**
+     * Appends the sessions of many players in a single transaction with one batched statement.
+     *
+     * @param sessions The sessions to append.
+     */
+    @Override
+    public void appendSessions(Collection<PlaytimeSession> sessions) {
+        if (sessions.isEmpty()) return;
+        long day = currentDay;
+        try {
+            inTransaction(() -> execute(INSERT_PLAYTIME_SESSION_SQL, statement -> {
+                for (PlaytimeSession session : sessions) {
+                    statement.setBytes(1, toBytes(session.uuid()));
+                    statement.setString(2, sessionServerId);
+                    statement.setLong(3, day);
+                    statement.setLong(4, session.joinedAt());
+                    statement.setLong(5, session.leftAt());
+                    statement.setInt(6, session.seconds());
+                    statement.addBatch();
+                }
+                return statement.executeBatch();
+            }));
+            log.debug("Appended {} sessions", sessions.size());
+        } catch (SQLException e) {
+            log.error("Failed to append {} sessions: {}", sessions.size(), e.getMessage());
+        }
+    }
+
+    /**
+     * Sums the sessions of this server before a day into the rollups and deletes them in one transaction.
+     * The servers of a network only compact their own sessions, so they never compact the same rows.
+     *
+     * @param day The epoch day of the first reset day that is not compacted.
+     * @return The number of compacted sessions.
+     */
+    @Override
+    public int compactSessions(long day) {
+        try {
+            int[] compacted = new int[1];
+            inTransaction(() -> {
+                execute(upserts.sessionRollups(), statement -> {
+                    statement.setString(1, sessionServerId);
+                    statement.setLong(2, day);
+                    return statement.executeUpdate();
+                });
+                compacted[0] = execute(DELETE_COMPACTED_SESSIONS_SQL, statement -> {
+                    statement.setString(1, sessionServerId);
+                    statement.setLong(2, day);
+                    return statement.executeUpdate();
+                });
+            });
+            log.info("Compacted {} sessions before day {}", compacted[0], LocalDate.ofEpochDay(day));
+            return compacted[0];
+        } catch (SQLException e) {
+            log.error("Failed to compact sessions: {}", e.getMessage());
+            return 0;
+        }
+    }
+
+    @Override
+    public List<PlaytimeHistoryDay> getPlaytimeHistory(UUID playerUUID, long fromDay) {
+        byte[] uuid = toBytes(playerUUID);
+        try {
+            return execute(SELECT_PLAYTIME_HISTORY_SQL, statement -> {
+                statement.setBytes(1, uuid);
+                statement.setLong(2, fromDay);
+                List<PlaytimeHistoryDay> history = new ArrayList<>();
+                try (ResultSet resultSet = statement.executeQuery()) {
+                    while (resultSet.next()) {
+                        history.add(new PlaytimeHistoryDay(resultSet.getLong("day"), resultSet.getInt("seconds")));
+                    }
+                }
+                return history;
+            });
+        } catch (SQLException e) {
+            log.error("Failed to get playtime history: {}", e.getMessage());
+            return List.of();
+        }
+    }
+
+    @Override
+    public Map<UUID, Integer> getRolledUpPlaytimes(long fromDay, long toDay) {
+        try {
+            return execute(SELECT_ROLLED_UP_PLAYTIMES_SQL, statement -> {
+                statement.setLong(1, fromDay);
+                statement.setLong(2, toDay);
+                return readPlaytimes(statement);
+            });
+        } catch (SQLException e) {
+            log.error("Failed to get rolled up playtimes: {}", e.getMessage());
+            return Map.of();
+        }
+    }
+
+    private static Map<UUID, Integer> readPlaytimes(PreparedStatement statement) throws SQLException {
+        Map<UUID, Integer> playtimes = new HashMap<>();
+        try (ResultSet resultSet = statement.executeQuery()) {
+            while (resultSet.next()) {
+                playtimes.put(fromBytes(resultSet.getBytes("uuid")), resultSet.getInt("playtime"));
+            }
+        }
+        return playtimes;
+    }
+
+    /*
+     * Database Network Area
+     */
+
+    @Override
+    public boolean isNetworkMode() {
+        return serverId != null;
+    }
+
+    /**
+     * Polls the versions of the other servers and fetches the playtime of the players
+     * whose contributions were written by a server since the last poll.
+     *
+     * @return The playtime in seconds on all other servers per player and the day it was read for.
+     */
+    @Override
+    public NetworkPlaytimes pollNetworkPlaytimes() {
+        long day = currentDay;
+        if (serverId == null) return new NetworkPlaytimes(day, Map.of());
+        try {
+            Map<UUID, Integer> networkPlaytimes = new HashMap<>();
+            for (Map.Entry<String, Long> server : getNetworkVersions().entrySet()) {
+                long seenVersion = seenNetworkVersions.getOrDefault(server.getKey(), 0L);
+                if (server.getValue() <= seenVersion) continue;
+
+                networkPlaytimes.putAll(getChangedNetworkPlaytimes(server.getKey(), seenVersion, day));
+                seenNetworkVersions.put(server.getKey(), server.getValue());
+            }
+            return new NetworkPlaytimes(day, networkPlaytimes);
+        } catch (SQLException e) {
+            log.error("Failed to poll network playtimes: {}", e.getMessage());
+            return new NetworkPlaytimes(day, Map.of());
+        }
+    }
+
+    private Map<String, Long> getNetworkVersions() throws SQLException {
+        return execute(SELECT_NETWORK_VERSIONS_SQL, statement -> {
+            statement.setString(1, serverId);
+            Map<String, Long> versions = new HashMap<>();
+            try (ResultSet resultSet = statement.executeQuery()) {
+                while (resultSet.next()) {
+                    versions.put(resultSet.getString("server_id"), resultSet.getLong("version"));
+                }
+            }
+            return versions;
+        });
+    }
+
+    private Map<UUID, Integer> getChangedNetworkPlaytimes(String changedServerId, long sinceVersion, long day)
+            throws SQLException {
+        return execute(SELECT_CHANGED_NETWORK_PLAYTIMES_SQL, statement -> {
+            statement.setLong(1, day);
+            statement.setString(2, serverId);
+            statement.setString(3, changedServerId);
+            statement.setLong(4, sinceVersion);
+            statement.setLong(5, day);
+            Map<UUID, Integer> networkPlaytimes = new HashMap<>();
+            try (ResultSet resultSet = statement.executeQuery()) {
+                while (resultSet.next()) {
+                    networkPlaytimes.put(fromBytes(resultSet.getBytes("uuid")), resultSet.getInt("playtime"));
+                }
+            }
+            return networkPlaytimes;
+        });
+    }
+
+    /**
+     * Sums the contributions of a player on the current day.
+     *
+     * @param uuid         The UUID of the player in its 16 byte form.
+     * @param otherServers Whether only the contributions of the other servers are summed.
+     * @return The summed playtime in seconds.
+     */
+    private int getContributions(byte[] uuid, boolean otherServers) throws SQLException {
+        long day = currentDay;
+        return execute(otherServers ? SELECT_OTHER_CONTRIBUTIONS_SQL : SELECT_NETWORK_PLAYTIME_SQL, statement -> {
+            statement.setBytes(1, uuid);
+            statement.setLong(2, day);
+            if (otherServers) statement.setString(3, serverId);
+            try (ResultSet resultSet = statement.executeQuery()) {
+                return resultSet.next() ? resultSet.getInt(1) : 0;
+            }
+        });
+    }
+
+    /**
+     * Writes the contributions of this server with a new version, must be called in a transaction.
+     * The version of the server is written in the same transaction, so a server that sees the new version
+     * also sees all contributions written with it.
+     *
+     * @param updates The playtime of the players on this server.
+     */
+    private void writeContributions(Collection<PlaytimeUpdate> updates) throws SQLException {
+        long version = networkVersion.incrementAndGet();
+        long day = currentDay;
+        execute(upserts.playtimeContribution(), statement -> {
+            for (PlaytimeUpdate update : updates) {
+                statement.setBytes(1, toBytes(update.uuid()));
+                statement.setLong(2, day);
+                statement.setString(3, serverId);
+                statement.setInt(4, update.playtime());
+                statement.setLong(5, version);
+                statement.addBatch();
+            }
+            return statement.executeBatch();
+        });
+        execute(upserts.networkServer(), statement -> {
+            statement.setString(1, serverId);
+            statement.setLong(2, version);
+            return statement.executeUpdate();
+        });
+    }
+
+    /**
+     * Deletes the contributions of past days. The playtime of the new day starts at zero without any writes,
+     * because it only sums the contributions of the new day. Every server of the network does this on its reset,
+     * deleting the same rows again has no effect.
+     *
+     * @param day The epoch day of the new reset day.
+     * @return The number of deleted contributions.
+     */
+    private int deletePastContributions(long day) {
+        try {
+            int deleted = execute(DELETE_PAST_CONTRIBUTIONS_SQL, statement -> {
+                statement.setLong(1, day);
+                return statement.executeUpdate();
+            });
+            log.info("Deleted {} playtime contributions before day {}", deleted, LocalDate.ofEpochDay(day));
+            return deleted;
+        } catch (SQLException e) {
+            log.error("Failed to delete past playtime contributions: {}", e.getMessage());
+            return 0;
+        }
+    }
+}
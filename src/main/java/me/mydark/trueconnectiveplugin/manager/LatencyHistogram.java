@@ -0,0 +1,145 @@
+//********************************************************************************************
+// Author:      V01D-PH03N1X (PinguBasti), TrueConnective Paul & Stolle GbR
+// Project:     TrueConnective Paper Plugin
+// Description: Management Plugin for Paper Servers (Minecraft)
+//********************************************************************************************
+package me.mydark.trueconnectiveplugin.manager;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Lock-free histogram of durations in power of two buckets.
+ * Recording a duration only increments counters, so it never blocks and never allocates.
+ * The reported percentiles are the upper bound of their bucket and at most twice the exact value.
+ */
+public class LatencyHistogram implements LatencyHistogramMXBean {
+    // Bucket i counts the durations below 2^i nanoseconds, the last bucket everything above ~9 minutes
+    static final int BUCKETS = 40;
+
+    private final AtomicLongArray buckets = new AtomicLongArray(BUCKETS);
+    private final LongAdder count = new LongAdder();
+    private final LongAdder totalNanos = new LongAdder();
+    private final AtomicLong maxNanos = new AtomicLong();
+
+    /**
+     * Records a duration.
+     *
+     * @param nanos The duration in nanoseconds.
+     */
+    public void record(long nanos) {
+        if (nanos < 0) nanos = 0;
+        buckets.incrementAndGet(bucketOf(nanos));
+        count.increment();
+        totalNanos.add(nanos);
+        maxNanos.accumulateAndGet(nanos, Math::max);
+    }
+
+    /**
+     * Records the duration from a start time until now.
+     *
+     * @param startNanos The start time from {@link System#nanoTime()}.
+     */
+    public void recordSince(long startNanos) {
+        record(System.nanoTime() - startNanos);
+    }
+
+    /**
+     * Takes a consistent enough copy of the histogram for reporting.
+     * Durations recorded while the copy is taken may be counted in some fields only.
+     *
+     * @return The snapshot of the histogram.
+     */
+    public Snapshot snapshot() {
+        long[] counts = new long[BUCKETS];
+        for (int i = 0; i < BUCKETS; i++) {
+            counts[i] = buckets.get(i);
+        }
+        return new Snapshot(count.sum(), totalNanos.sum(), maxNanos.get(), counts);
+    }
+
+    /**
+     * Returns the upper bound of a bucket.
+     *
+     * @param bucket The index of the bucket.
+     * @return The exclusive upper bound of the bucket in nanoseconds, or {@link Long#MAX_VALUE} for the last bucket.
+     */
+    static long upperBoundNanos(int bucket) {
+        return bucket >= BUCKETS - 1 ? Long.MAX_VALUE : 1L << bucket;
+    }
+
+    private static int bucketOf(long nanos) {
+        return Math.min(BUCKETS - 1, 64 - Long.numberOfLeadingZeros(nanos));
+    }
+
+    @Override
+    public long getCount() {
+        return count.sum();
+    }
+
+    @Override
+    public double getMeanMillis() {
+        return snapshot().meanMillis();
+    }
+
+    @Override
+    public double getMaxMillis() {
+        return toMillis(maxNanos.get());
+    }
+
+    @Override
+    public double getP50Millis() {
+        return snapshot().percentileMillis(0.5);
+    }
+
+    @Override
+    public double getP95Millis() {
+        return snapshot().percentileMillis(0.95);
+    }
+
+    @Override
+    public double getP99Millis() {
+        return snapshot().percentileMillis(0.99);
+    }
+
+    private static double toMillis(long nanos) {
+        return nanos / (double) TimeUnit.MILLISECONDS.toNanos(1);
+    }
+
+    /**
+     * A copy of a histogram at one point in time.
+     *
+     * @param count      The number of recorded durations.
+     * @param totalNanos The sum of all recorded durations.
+     * @param maxNanos   The longest recorded duration.
+     * @param buckets    The number of durations per bucket.
+     */
+    public record Snapshot(long count, long totalNanos, long maxNanos, long[] buckets) {
+        public double meanMillis() {
+            return count == 0 ? 0 : toMillis(totalNanos) / count;
+        }
+
+        public double maxMillis() {
+            return toMillis(maxNanos);
+        }
+
+        /**
+         * Estimates a percentile of the recorded durations.
+         *
+         * @param quantile The percentile between 0 and 1, e.g. 0.95.
+         * @return The upper bound of the bucket the percentile falls into in milliseconds, capped at the maximum.
+         */
+        public double percentileMillis(double quantile) {
+            if (count == 0) return 0;
+            long rank = (long) Math.ceil(quantile * count);
+            long seen = 0;
+            for (int i = 0; i < buckets.length; i++) {
+                seen += buckets[i];
+                if (seen >= rank) return toMillis(Math.min(upperBoundNanos(i), maxNanos));
+            }
+            return maxMillis();
+        }
+    }
+}
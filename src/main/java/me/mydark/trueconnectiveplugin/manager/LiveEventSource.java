@@ -0,0 +1,53 @@
+//********************************************************************************************
+// Author:      V01D-PH03N1X (PinguBasti), TrueConnective Paul & Stolle GbR
+// Project:     TrueConnective Paper Plugin
+// Description: Management Plugin for Paper Servers (Minecraft)
+//********************************************************************************************
+package me.mydark.trueconnectiveplugin.manager;
+
+/**
+ * Source of live stream events of TikTok accounts.
+ * The default implementation connects to TikTok, a local implementation can be used instead for testing.
+ */
+public interface LiveEventSource {
+
+    /**
+     * Opens an event connection to the live stream of a TikTok user.
+     * This call blocks until the connection is established. If the user is not live,
+     * {@link Listener#onLiveEnded()} is called instead of failing.
+     *
+     * @param username The TikTok username.
+     * @param listener The listener that receives the events of the stream.
+     * @return The open connection.
+     * @throws Exception If the connection can't be established.
+     */
+    LiveConnection connect(String username, Listener listener) throws Exception;
+
+    /**
+     * Receives the events of a live stream. Called from the thread of the event source.
+     */
+    interface Listener {
+
+        /**
+         * Called when the stream has ended or the user is not live.
+         */
+        void onLiveEnded();
+
+        /**
+         * Called when the connection to the stream was lost while the stream may still be running.
+         */
+        void onDisconnected();
+    }
+
+    /**
+     * An open event connection to a live stream.
+     */
+    @FunctionalInterface
+    interface LiveConnection {
+
+        /**
+         * Closes the connection.
+         */
+        void close();
+    }
+}
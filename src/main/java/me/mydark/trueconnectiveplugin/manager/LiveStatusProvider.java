@@ -0,0 +1,33 @@
+//********************************************************************************************
+// Author:      V01D-PH03N1X (PinguBasti), TrueConnective Paul & Stolle GbR
+// Project:     TrueConnective Paper Plugin
+// Description: Management Plugin for Paper Servers (Minecraft)
+//********************************************************************************************
+package me.mydark.trueconnectiveplugin.manager;
+
+import io.github.jwdeveloper.tiktok.TikTokLive;
+
+/**
+ * Source of the live status of TikTok accounts.
+ * The default implementation asks TikTok, a local stub can be used instead for testing.
+ */
+@FunctionalInterface
+public interface LiveStatusProvider {
+
+    /**
+     * Checks if the TikTok user is live. This call may block on the network.
+     *
+     * @param username The TikTok username to check.
+     * @return true if the user is live, false otherwise.
+     */
+    boolean isLive(String username);
+
+    /**
+     * Returns the provider that asks TikTok through the TikTok-Live-Java client.
+     *
+     * @return The TikTok live status provider.
+     */
+    static LiveStatusProvider tikTok() {
+        return TikTokLive::isLiveOnline;
+    }
+}
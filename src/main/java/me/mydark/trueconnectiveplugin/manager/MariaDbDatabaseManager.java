@@ -0,0 +1,216 @@
+//********************************************************************************************
+// Author:      V01D-PH03N1X (PinguBasti), TrueConnective Paul & Stolle GbR
+// Project:     TrueConnective Paper Plugin
+// Description: Management Plugin for Paper Servers (Minecraft)
+//********************************************************************************************
+package me.mydark.trueconnectiveplugin.manager;
+
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import lombok.extern.slf4j.Slf4j;
+import me.mydark.trueconnectiveplugin.dto.DatabaseConfig;
+
+/**
+ * Storage on a MariaDB or MySQL server, which can be shared by several servers.
+ * Connections are borrowed from a pool for every statement, a transaction keeps its connection until it ends.
+ * The statements are prepared on the server and the driver caches them per connection, so preparing a statement
+ * again on a pooled connection reuses it. The execution time of every statement is recorded in a timer
+ * of the {@link MetricsRegistry}.
+ */
+@Slf4j
+public class MariaDbDatabaseManager extends JdbcDatabaseManager {
+    private static final String DRIVER_CLASS_NAME = "org.mariadb.jdbc.Driver";
+
+    // The current schema, the tables are only created if they don't exist yet
+    private static final String CREATE_TIKTOK_TABLE_SQL =
+            "CREATE TABLE IF NOT EXISTS TikTokPlayers (uuid BINARY(16) PRIMARY KEY, username VARCHAR(64)) ENGINE = InnoDB";
+    private static final String CREATE_PLAYER_TIMES_TABLE_SQL =
+            "CREATE TABLE IF NOT EXISTS PlayerTimes (uuid BINARY(16) PRIMARY KEY, playtime INT, last_login BIGINT, INDEX (last_login)) ENGINE = InnoDB";
+    private static final String CREATE_PLAYER_SETTINGS_TABLE_SQL =
+            "CREATE TABLE IF NOT EXISTS PlayerSettings (uuid BINARY(16) PRIMARY KEY, flags INT NOT NULL) ENGINE = InnoDB";
+    private static final String CREATE_PLAYER_DIRECTORY_TABLE_SQL =
+            "CREATE TABLE IF NOT EXISTS PlayerDirectory (uuid BINARY(16) PRIMARY KEY, name VARCHAR(32) NOT NULL, lower_name VARCHAR(32) NOT NULL, last_seen BIGINT NOT NULL, INDEX (lower_name)) ENGINE = InnoDB";
+    private static final String CREATE_PLAYTIME_CONTRIBUTIONS_TABLE_SQL =
+            "CREATE TABLE IF NOT EXISTS PlaytimeContributions (uuid BINARY(16) NOT NULL, day BIGINT NOT NULL, server_id VARCHAR(64) NOT NULL, playtime INT NOT NULL, version BIGINT NOT NULL, PRIMARY KEY (uuid, day, server_id), INDEX (server_id, version)) ENGINE = InnoDB";
+    private static final String CREATE_NETWORK_SERVERS_TABLE_SQL =
+            "CREATE TABLE IF NOT EXISTS NetworkServers (server_id VARCHAR(64) PRIMARY KEY, version BIGINT NOT NULL) ENGINE = InnoDB";
+    private static final String CREATE_PLAYTIME_SESSIONS_TABLE_SQL =
+            "CREATE TABLE IF NOT EXISTS PlaytimeSessions (id BIGINT AUTO_INCREMENT PRIMARY KEY, uuid BINARY(16) NOT NULL, server_id VARCHAR(64) NOT NULL, day BIGINT NOT NULL, joined_at BIGINT NOT NULL, left_at BIGINT NOT NULL, seconds INT NOT NULL, INDEX (server_id, day)) ENGINE = InnoDB";
+    private static final String CREATE_PLAYTIME_ROLLUPS_TABLE_SQL =
+            "CREATE TABLE IF NOT EXISTS PlaytimeRollups (uuid BINARY(16) NOT NULL, day BIGINT NOT NULL, server_id VARCHAR(64) NOT NULL, seconds INT NOT NULL, PRIMARY KEY (uuid, day, server_id)) ENGINE = InnoDB";
+
+    private static final String UPSERT_TIKTOK_USERNAME_SQL = "INSERT INTO TikTokPlayers (uuid, username) VALUES (?, ?) "
+            + "ON DUPLICATE KEY UPDATE username = VALUES(username)";
+    private static final String UPSERT_PLAYTIME_SQL = "INSERT INTO PlayerTimes (uuid, playtime, last_login) "
+            + "VALUES (?, ?, ?) ON DUPLICATE KEY UPDATE playtime = VALUES(playtime), last_login = VALUES(last_login)";
+    private static final String UPSERT_PLAYER_SETTINGS_SQL = "INSERT INTO PlayerSettings (uuid, flags) VALUES (?, ?) "
+            + "ON DUPLICATE KEY UPDATE flags = VALUES(flags)";
+    private static final String UPSERT_PLAYER_DIRECTORY_SQL =
+            "INSERT INTO PlayerDirectory (uuid, name, lower_name, last_seen) VALUES (?, ?, ?, ?) "
+                    + "ON DUPLICATE KEY UPDATE name = VALUES(name), lower_name = VALUES(lower_name), "
+                    + "last_seen = VALUES(last_seen)";
+    private static final String UPSERT_PLAYTIME_CONTRIBUTION_SQL =
+            "INSERT INTO PlaytimeContributions (uuid, day, server_id, playtime, version) VALUES (?, ?, ?, ?, ?) "
+                    + "ON DUPLICATE KEY UPDATE playtime = VALUES(playtime), version = VALUES(version)";
+    private static final String UPSERT_NETWORK_SERVER_SQL =
+            "INSERT INTO NetworkServers (server_id, version) VALUES (?, ?) "
+                    + "ON DUPLICATE KEY UPDATE version = VALUES(version)";
+    private static final String UPSERT_SESSION_ROLLUPS_SQL =
+            "INSERT INTO PlaytimeRollups (uuid, day, server_id, seconds) "
+                    + "SELECT uuid, day, server_id, SUM(seconds) FROM PlaytimeSessions WHERE server_id = ? AND day < ? "
+                    + "GROUP BY uuid, day, server_id "
+                    + "ON DUPLICATE KEY UPDATE PlaytimeRollups.seconds = PlaytimeRollups.seconds + VALUES(seconds)";
+
+    private final HikariDataSource dataSource;
+    private final MetricsRegistry metricsRegistry;
+    private final Map<String, LatencyHistogram> timers = new ConcurrentHashMap<>();
+
+    // The connection of the transaction that is running on the current thread
+    private final ThreadLocal<Connection> transactionConnection = new ThreadLocal<>();
+
+    /**
+     * Constructor for MariaDbDatabaseManager.
+     * Opens the connection pool and creates the tables.
+     *
+     * @param config          The database config with the url and credentials of the server and the server id
+     *                        in network mode.
+     * @param metricsRegistry The registry the execution time of the queries is recorded in.
+     */
+    public MariaDbDatabaseManager(DatabaseConfig config, MetricsRegistry metricsRegistry) {
+        super(
+                new Upserts(
+                        UPSERT_TIKTOK_USERNAME_SQL,
+                        UPSERT_PLAYTIME_SQL,
+                        UPSERT_PLAYER_SETTINGS_SQL,
+                        UPSERT_PLAYER_DIRECTORY_SQL,
+                        UPSERT_PLAYTIME_CONTRIBUTION_SQL,
+                        UPSERT_NETWORK_SERVER_SQL,
+                        UPSERT_SESSION_ROLLUPS_SQL),
+                config.serverId());
+        this.metricsRegistry = metricsRegistry;
+
+        HikariConfig hikariConfig = new HikariConfig();
+        hikariConfig.setPoolName("TrueConnective");
+        // The plugin class loader isn't visible to the DriverManager, so the driver is loaded by name
+        hikariConfig.setDriverClassName(DRIVER_CLASS_NAME);
+        hikariConfig.setJdbcUrl(config.url());
+        hikariConfig.setUsername(config.username());
+        hikariConfig.setPassword(config.password());
+        hikariConfig.setMaximumPoolSize(Math.max(1, config.poolSize()));
+        hikariConfig.setMinimumIdle(1);
+        // Without server-side prepared statements the driver has nothing to cache and sends the full SQL every time
+        hikariConfig.addDataSourceProperty("useServerPrepStmts", "true");
+        hikariConfig.addDataSourceProperty("cachePrepStmts", "true");
+        hikariConfig.addDataSourceProperty("prepStmtCacheSize", "250");
+        this.dataSource = new HikariDataSource(hikariConfig);
+        log.info("Database connection pool to {} established", config.url());
+
+        createTables();
+        initializeNetwork();
+    }
+
+    /**
+     * Creates the tables of the current schema if they don't exist yet.
+     */
+    private void createTables() {
+        try (Connection connection = dataSource.getConnection();
+                Statement statement = connection.createStatement()) {
+            statement.executeUpdate(CREATE_TIKTOK_TABLE_SQL);
+            statement.executeUpdate(CREATE_PLAYER_TIMES_TABLE_SQL);
+            statement.executeUpdate(CREATE_PLAYER_SETTINGS_TABLE_SQL);
+            statement.executeUpdate(CREATE_PLAYER_DIRECTORY_TABLE_SQL);
+            statement.executeUpdate(CREATE_PLAYTIME_CONTRIBUTIONS_TABLE_SQL);
+            statement.executeUpdate(CREATE_NETWORK_SERVERS_TABLE_SQL);
+            statement.executeUpdate(CREATE_PLAYTIME_SESSIONS_TABLE_SQL);
+            statement.executeUpdate(CREATE_PLAYTIME_ROLLUPS_TABLE_SQL);
+        } catch (SQLException e) {
+            log.error("Failed to create database tables: {}", e.getMessage());
+        }
+    }
+
+    @Override
+    protected <T> T execute(String sql, StatementCache.StatementAction<T> action) throws SQLException {
+        LatencyHistogram timer = timers.get(sql);
+        if (timer == null) {
+            timer = timers.computeIfAbsent(sql, key -> metricsRegistry.timer(MetricsRegistry.DATABASE, key));
+        }
+
+        Connection connection = transactionConnection.get();
+        if (connection != null) return execute(connection, sql, action, timer);
+        // A broken connection is evicted from the pool, so a retry isn't needed
+        try (Connection pooledConnection = dataSource.getConnection()) {
+            return execute(pooledConnection, sql, action, timer);
+        }
+    }
+
+    private <T> T execute(
+            Connection connection, String sql, StatementCache.StatementAction<T> action, LatencyHistogram timer)
+            throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement(sql)) {
+            long start = System.nanoTime();
+            try {
+                return action.apply(statement);
+            } finally {
+                timer.recordSince(start);
+            }
+        }
+    }
+
+    @Override
+    protected void inTransaction(TransactionAction action) throws SQLException {
+        if (transactionConnection.get() != null) {
+            // Already in a transaction, the action becomes part of it
+            action.run();
+            return;
+        }
+
+        try (Connection connection = dataSource.getConnection()) {
+            connection.setAutoCommit(false);
+            transactionConnection.set(connection);
+            try {
+                action.run();
+                connection.commit();
+            } catch (SQLException | RuntimeException e) {
+                try {
+                    connection.rollback();
+                } catch (SQLException rollbackException) {
+                    // The connection is broken, the server rolls the transaction back when it is closed
+                    e.addSuppressed(rollbackException);
+                }
+                throw e;
+            } finally {
+                transactionConnection.remove();
+                try {
+                    connection.setAutoCommit(true);
+                } catch (SQLException e) {
+                    // Hikari restores the auto-commit mode when the connection is returned to the pool
+                    log.warn("Failed to end the transaction on the database connection: {}", e.getMessage());
+                }
+            }
+        }
+    }
+
+    @Override
+    public Map<String, Long> getStatementExecutionCounts() {
+        Map<String, Long> executionCounts = new TreeMap<>();
+        timers.forEach((sql, timer) -> executionCounts.put(sql, timer.getCount()));
+        return executionCounts;
+    }
+
+    /**
+     * Closes the connection pool.
+     */
+    @Override
+    public void close() {
+        getStatementExecutionCounts().forEach((sql, count) -> log.info("{} executions: {}", count, sql));
+        dataSource.close();
+        log.info("Database connection pool closed");
+    }
+}
@@ -0,0 +1,207 @@
+//********************************************************************************************
+// Author:      V01D-PH03N1X (PinguBasti), TrueConnective Paul & Stolle GbR
+// Project:     TrueConnective Paper Plugin
+// Description: Management Plugin for Paper Servers (Minecraft)
+//********************************************************************************************
+package me.mydark.trueconnectiveplugin.manager;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.EnumMap;
+import java.util.Map;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import me.mydark.trueconnectiveplugin.TrueConnective;
+import net.kyori.adventure.text.Component;
+import net.kyori.adventure.text.minimessage.MiniMessage;
+import net.kyori.adventure.text.minimessage.tag.resolver.Placeholder;
+import net.kyori.adventure.text.minimessage.tag.resolver.TagResolver;
+import org.bukkit.configuration.file.YamlConfiguration;
+
+/**
+ * Catalog of all user-facing messages, loaded from the messages.yml in the plugin folder.
+ * Every template is parsed once, the resulting components are immutable and shared.
+ * Messages with a single number placeholder are additionally cached per value.
+ */
+@Slf4j
+public class MessageManager {
+    private static final String FILE_NAME = "messages.yml";
+    private static final int MAX_CACHED_VALUE = 1440; // One day in minutes
+
+    private final TrueConnective plugin;
+    private final MiniMessage miniMessage = MiniMessage.miniMessage();
+
+    private volatile Catalog catalog;
+
+    public MessageManager(TrueConnective plugin) {
+        this.plugin = plugin;
+        reload();
+    }
+
+    /**
+     * Creates a catalog from an already loaded configuration without a plugin folder, e.g. for benchmarks.
+     * A catalog created this way can't be reloaded.
+     *
+     * @param configuration The loaded messages configuration.
+     */
+    MessageManager(YamlConfiguration configuration) {
+        this.plugin = null;
+        load(configuration);
+    }
+
+    /**
+     * Loads the messages.yml from the plugin folder and parses all templates.
+     * Missing messages fall back to the defaults shipped with the plugin.
+     */
+    public void reload() {
+        File file = new File(plugin.getDataFolder(), FILE_NAME);
+        if (!file.exists()) {
+            plugin.saveResource(FILE_NAME, false);
+        }
+
+        YamlConfiguration configuration = YamlConfiguration.loadConfiguration(file);
+        try (InputStream defaults = plugin.getResource(FILE_NAME)) {
+            if (defaults != null) {
+                configuration.setDefaults(YamlConfiguration.loadConfiguration(
+                        new InputStreamReader(defaults, StandardCharsets.UTF_8)));
+            }
+        } catch (IOException e) {
+            log.error("Failed to load default messages: {}", e.getMessage());
+        }
+        load(configuration);
+    }
+
+    private void load(YamlConfiguration configuration) {
+        Map<Message, String> templates = new EnumMap<>(Message.class);
+        Map<Message, Component> components = new EnumMap<>(Message.class);
+        for (Message message : Message.values()) {
+            String template = configuration.getString(message.getKey(), message.getKey());
+            templates.put(message, template);
+            components.put(message, miniMessage.deserialize(template));
+        }
+        catalog = new Catalog(templates, components, new Component[Message.values().length][]);
+        log.info("Loaded {} messages", templates.size());
+    }
+
+    /**
+     * Returns the cached component of a message without placeholders.
+     *
+     * @param message The message to get.
+     * @return The immutable component of the message.
+     */
+    public Component get(Message message) {
+        return catalog.components().get(message);
+    }
+
+    /**
+     * Renders a message with placeholders.
+     *
+     * @param message      The message to render.
+     * @param placeholders The placeholders to replace in the message.
+     * @return The rendered component.
+     */
+    public Component get(Message message, TagResolver... placeholders) {
+        return miniMessage.deserialize(catalog.templates().get(message), placeholders);
+    }
+
+    /**
+     * Returns a message with a single number placeholder, rendered once per value and cached.
+     *
+     * @param message     The message to get.
+     * @param placeholder The name of the number placeholder.
+     * @param value       The value of the placeholder.
+     * @return The immutable component of the message for this value.
+     */
+    public Component get(Message message, String placeholder, int value) {
+        if (value < 0 || value > MAX_CACHED_VALUE) {
+            return get(message, Placeholder.unparsed(placeholder, String.valueOf(value)));
+        }
+
+        Catalog current = catalog;
+        Component[] values = current.values()[message.ordinal()];
+        if (values == null) {
+            values = new Component[MAX_CACHED_VALUE + 1];
+            current.values()[message.ordinal()] = values;
+        }
+
+        Component component = values[value];
+        if (component == null) {
+            component = get(message, Placeholder.unparsed(placeholder, String.valueOf(value)));
+            values[value] = component;
+        }
+        return component;
+    }
+
+    /**
+     * All messages of the plugin with their key in the messages.yml.
+     */
+    public enum Message {
+        JOIN_WELCOME("join.welcome"),
+        JOIN_INFO("join.info"),
+        KICK_NOT_LIVE("kick.not-live"),
+        KICK_PLAYTIME_LIMIT("kick.playtime-limit"),
+        PLAYTIME_REMAINING("playtime.remaining"),
+        PLAYTIME_UNLIMITED("playtime.unlimited"),
+        PLAYTIME_KICK_SOON("playtime.kick-soon"),
+        COMMAND_NO_PERMISSION("command.no-permission"),
+        COMMAND_NO_PERMISSION_MENU("command.no-permission-menu"),
+        COMMAND_PLAYER_NOT_FOUND("command.player-not-found"),
+        COMMAND_PLAYTIME_ADDED("command.playtime-added"),
+        COMMAND_REMAINING_SELF("command.remaining-self"),
+        COMMAND_REMAINING_OTHER("command.remaining-other"),
+        COMMAND_RESET_SELF("command.reset-self"),
+        COMMAND_RESET_OTHER("command.reset-other"),
+        COMMAND_INVALID_TIKTOK_USERNAME("command.invalid-tiktok-username"),
+        COMMAND_TIKTOK_CONNECTED("command.tiktok-connected"),
+        COMMAND_RELOADED("command.reloaded"),
+        COMMAND_STATS_HEADER("command.stats-header"),
+        COMMAND_STATS_TIMER("command.stats-timer"),
+        COMMAND_STATS_VALUE("command.stats-value"),
+        COMMAND_HISTORY_USAGE("command.history-usage"),
+        COMMAND_HISTORY_HEADER("command.history-header"),
+        COMMAND_HISTORY_DAY("command.history-day"),
+        COMMAND_HISTORY_EMPTY("command.history-empty"),
+        COMMAND_TOP_USAGE("command.top-usage"),
+        COMMAND_TOP_HEADER("command.top-header"),
+        COMMAND_TOP_ENTRY("command.top-entry"),
+        COMMAND_TOP_OWN_RANK("command.top-own-rank"),
+        COMMAND_TOP_EMPTY("command.top-empty"),
+        SETTINGS_TITLE("settings.title"),
+        SETTINGS_ACTIONBAR_NAME("settings.actionbar-name"),
+        SETTINGS_ACTIONBAR_LORE("settings.actionbar-lore"),
+        SETTINGS_BOSSBAR_NAME("settings.bossbar-name"),
+        SETTINGS_BOSSBAR_LORE("settings.bossbar-lore"),
+        SETTINGS_SAVED("settings.saved"),
+        SETTINGS_NOT_LOADED("settings.not-loaded"),
+        SETTINGS_ACTIONBAR_STATE("settings.actionbar-state"),
+        SETTINGS_BOSSBAR_STATE("settings.bossbar-state"),
+        SETTINGS_ENABLED("settings.enabled"),
+        SETTINGS_DISABLED("settings.disabled"),
+        LEADERBOARD_TITLE("leaderboard.title"),
+        LEADERBOARD_DAILY("leaderboard.daily"),
+        LEADERBOARD_WEEKLY("leaderboard.weekly"),
+        LEADERBOARD_ENTRY_NAME("leaderboard.entry-name"),
+        LEADERBOARD_ENTRY_LORE("leaderboard.entry-lore"),
+        LEADERBOARD_OWN_RANK("leaderboard.own-rank"),
+        LEADERBOARD_OWN_UNRANKED("leaderboard.own-unranked"),
+        LEADERBOARD_PAGE("leaderboard.page"),
+        LEADERBOARD_SWITCH_PERIOD("leaderboard.switch-period"),
+        LEADERBOARD_PREVIOUS("leaderboard.previous"),
+        LEADERBOARD_NEXT("leaderboard.next"),
+        MENU_TITLE("menu.title"),
+        MENU_WEBSITE_ITEM("menu.website-item"),
+        MENU_WEBSITE("menu.website");
+
+        @Getter
+        private final String key;
+
+        Message(String key) {
+            this.key = key;
+        }
+    }
+
+    private record Catalog(Map<Message, String> templates, Map<Message, Component> components, Component[][] values) {}
+}
@@ -0,0 +1,181 @@
+//********************************************************************************************
+// Author:      V01D-PH03N1X (PinguBasti), TrueConnective Paul & Stolle GbR
+// Project:     TrueConnective Paper Plugin
+// Description: Management Plugin for Paper Servers (Minecraft)
+//********************************************************************************************
+package me.mydark.trueconnectiveplugin.manager;
+
+import java.lang.management.ManagementFactory;
+import java.util.Comparator;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import javax.management.StandardMBean;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Plugin-wide registry of timers, counters and gauges.
+ * Metrics are created once and the hot paths keep the returned instance, so recording never looks up,
+ * locks or allocates. The registry can be read from any thread, e.g. by the stats command, JMX or the exporter.
+ */
+@Slf4j
+public class MetricsRegistry {
+    public static final String DATABASE = "database";
+    public static final String TASK = "task";
+    public static final String EVENT = "event";
+    public static final String TIKTOK = "tiktok";
+    public static final String SESSION = "session";
+
+    private static final String JMX_DOMAIN = "me.mydark.trueconnectiveplugin";
+
+    private final Map<MetricName, LatencyHistogram> timers = new ConcurrentHashMap<>();
+    private final Map<MetricName, LongAdder> counters = new ConcurrentHashMap<>();
+    private final Map<MetricName, LongSupplier> gauges = new ConcurrentHashMap<>();
+
+    private volatile MBeanServer mBeanServer;
+
+    /**
+     * Returns the timer with the given name and creates it on first use.
+     *
+     * @param category The category of the timer, e.g. {@link #DATABASE}.
+     * @param name     The name of the timer within its category.
+     * @return The timer.
+     */
+    public LatencyHistogram timer(String category, String name) {
+        return timers.computeIfAbsent(new MetricName(category, name), metricName -> {
+            LatencyHistogram timer = new LatencyHistogram();
+            register(metricName, new StandardMBean(timer, LatencyHistogramMXBean.class, true));
+            return timer;
+        });
+    }
+
+    /**
+     * Returns the counter with the given name and creates it on first use.
+     *
+     * @param category The category of the counter.
+     * @param name     The name of the counter within its category.
+     * @return The counter.
+     */
+    public LongAdder counter(String category, String name) {
+        return counters.computeIfAbsent(new MetricName(category, name), metricName -> {
+            LongAdder counter = new LongAdder();
+            register(metricName, valueBean(counter::sum));
+            return counter;
+        });
+    }
+
+    /**
+     * Registers a value that is read whenever the metrics are reported.
+     * The supplier must be safe to call from any thread.
+     *
+     * @param category The category of the gauge.
+     * @param name     The name of the gauge within its category.
+     * @param value    The supplier of the current value.
+     */
+    public void gauge(String category, String name, LongSupplier value) {
+        MetricName metricName = new MetricName(category, name);
+        if (gauges.putIfAbsent(metricName, value) == null) {
+            register(metricName, valueBean(value));
+        }
+    }
+
+    /**
+     * Returns all timers, sorted by category and name.
+     *
+     * @return The timers by their name.
+     */
+    public Map<MetricName, LatencyHistogram> getTimers() {
+        return sorted(timers);
+    }
+
+    /**
+     * Returns the current values of all counters and gauges, sorted by category and name.
+     *
+     * @return The values by their name.
+     */
+    public Map<MetricName, Long> getValues() {
+        Map<MetricName, Long> values = new TreeMap<>(MetricName.ORDER);
+        counters.forEach((name, counter) -> values.put(name, counter.sum()));
+        gauges.forEach((name, gauge) -> values.put(name, gauge.getAsLong()));
+        return values;
+    }
+
+    /**
+     * Registers all metrics as MBeans of the platform MBean server.
+     * Metrics that are created afterwards are registered as soon as they are created.
+     */
+    public synchronized void registerMBeans() {
+        if (mBeanServer != null) return;
+        mBeanServer = ManagementFactory.getPlatformMBeanServer();
+        timers.forEach((name, timer) -> register(name, new StandardMBean(timer, LatencyHistogramMXBean.class, true)));
+        counters.forEach((name, counter) -> register(name, valueBean(counter::sum)));
+        gauges.forEach((name, gauge) -> register(name, valueBean(gauge)));
+        log.info("Registered {} metrics as MBeans", timers.size() + counters.size() + gauges.size());
+    }
+
+    /**
+     * Removes all MBeans of the plugin, so a reloaded plugin can register them again.
+     */
+    public synchronized void unregisterMBeans() {
+        MBeanServer server = mBeanServer;
+        if (server == null) return;
+        mBeanServer = null;
+        try {
+            for (ObjectName objectName : server.queryNames(new ObjectName(JMX_DOMAIN + ":*"), null)) {
+                server.unregisterMBean(objectName);
+            }
+        } catch (JMException e) {
+            log.warn("Failed to unregister the metric MBeans: {}", e.getMessage());
+        }
+    }
+
+    private void register(MetricName name, Object mBean) {
+        MBeanServer server = mBeanServer;
+        if (server == null) return;
+        try {
+            ObjectName objectName =
+                    new ObjectName(JMX_DOMAIN + ":type=" + name.category() + ",name=" + ObjectName.quote(name.name()));
+            if (!server.isRegistered(objectName)) server.registerMBean(mBean, objectName);
+        } catch (JMException e) {
+            log.warn("Failed to register the MBean of metric {}: {}", name, e.getMessage());
+        }
+    }
+
+    private static StandardMBean valueBean(LongSupplier value) {
+        return new StandardMBean(value::getAsLong, ValueMXBean.class, true);
+    }
+
+    private static <T> Map<MetricName, T> sorted(Map<MetricName, T> metrics) {
+        Map<MetricName, T> sorted = new TreeMap<>(MetricName.ORDER);
+        sorted.putAll(metrics);
+        return sorted;
+    }
+
+    /**
+     * JMX view of a counter or gauge.
+     */
+    public interface ValueMXBean {
+        long getValue();
+    }
+
+    /**
+     * The name of a metric.
+     *
+     * @param category The category of the metric, e.g. {@link #DATABASE}.
+     * @param name     The name of the metric within its category.
+     */
+    public record MetricName(String category, String name) {
+        static final Comparator<MetricName> ORDER =
+                Comparator.comparing(MetricName::category).thenComparing(MetricName::name);
+
+        @Override
+        public String toString() {
+            return category + "/" + name;
+        }
+    }
+}
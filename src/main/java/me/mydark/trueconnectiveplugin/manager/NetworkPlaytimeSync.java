@@ -0,0 +1,80 @@
+//********************************************************************************************
+// Author:      V01D-PH03N1X (PinguBasti), TrueConnective Paul & Stolle GbR
+// Project:     TrueConnective Paper Plugin
+// Description: Management Plugin for Paper Servers (Minecraft)
+//********************************************************************************************
+package me.mydark.trueconnectiveplugin.manager;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.concurrent.atomic.LongAdder;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Keeps the playtime of the online players on the other servers of the network up to date.
+ * Every poll only reads the versions of the other servers, the playtimes are only fetched
+ * for the servers that wrote since the last poll.
+ * A poll that was read for an earlier reset day than the current one is dropped, the first poll of the new day
+ * fetches the playtime of that day again.
+ */
+@Slf4j
+public class NetworkPlaytimeSync {
+    private final TaskScheduler scheduler;
+    private final AsyncDatabaseManager asyncDatabaseManager;
+    private final PlaytimeLedger playtimeLedger;
+    private final DailyResetScheduler dailyResetScheduler;
+    private final LongAdder updatedPlayers;
+
+    private TaskScheduler.Task task;
+    // Whether a poll is queued on the database thread, so a slow database doesn't pile up polls
+    private boolean polling;
+
+    public NetworkPlaytimeSync(
+            TaskScheduler scheduler,
+            AsyncDatabaseManager asyncDatabaseManager,
+            PlaytimeLedger playtimeLedger,
+            DailyResetScheduler dailyResetScheduler,
+            MetricsRegistry metricsRegistry) {
+        this.scheduler = scheduler;
+        this.asyncDatabaseManager = asyncDatabaseManager;
+        this.playtimeLedger = playtimeLedger;
+        this.dailyResetScheduler = dailyResetScheduler;
+        this.updatedPlayers = metricsRegistry.counter(MetricsRegistry.SESSION, "network-playtime-updates");
+    }
+
+    /**
+     * Starts polling the playtime on the other servers.
+     *
+     * @param interval The interval between two polls.
+     */
+    public void start(Duration interval) {
+        long intervalTicks = Math.max(1, interval.toMillis() / 50);
+        task = scheduler.runGlobalTimer(this::poll, intervalTicks, intervalTicks);
+        log.info("Polling the network playtime every {} seconds", interval.toSeconds());
+    }
+
+    /**
+     * Stops polling.
+     */
+    public void stop() {
+        if (task != null) {
+            task.cancel();
+            task = null;
+        }
+    }
+
+    private void poll() {
+        if (polling) return;
+        polling = true;
+        asyncDatabaseManager.pollNetworkPlaytimes().whenComplete((networkPlaytimes, throwable) -> {
+            polling = false;
+            if (networkPlaytimes == null || networkPlaytimes.playtimes().isEmpty()) return;
+            // Completes on the global thread like the reset, so the ledger can't be reset in between
+            if (networkPlaytimes.day() != dailyResetScheduler.getCurrentDay()) {
+                log.debug("Dropped network playtimes of {}", LocalDate.ofEpochDay(networkPlaytimes.day()));
+                return;
+            }
+            updatedPlayers.add(playtimeLedger.updateNetworkPlaytimes(networkPlaytimes.playtimes()));
+        });
+    }
+}
@@ -0,0 +1,88 @@
+//********************************************************************************************
+// Author:      V01D-PH03N1X (PinguBasti), TrueConnective Paul & Stolle GbR
+// Project:     TrueConnective Paper Plugin
+// Description: Management Plugin for Paper Servers (Minecraft)
+//********************************************************************************************
+package me.mydark.trueconnectiveplugin.manager;
+
+import me.mydark.trueconnectiveplugin.TrueConnective;
+import org.bukkit.Bukkit;
+import org.bukkit.entity.Entity;
+import org.bukkit.entity.Player;
+import org.bukkit.scheduler.BukkitRunnable;
+import org.bukkit.scheduler.BukkitScheduler;
+
+/**
+ * Scheduler for Paper, every task except the async ones runs on the main thread through the Bukkit scheduler.
+ * The tasks of an entity are dropped once it's removed, like on Folia. A dead entity isn't removed yet,
+ * so a player on the death screen still gets their tasks.
+ */
+public class PaperTaskScheduler implements TaskScheduler {
+    private final TrueConnective plugin;
+
+    public PaperTaskScheduler(TrueConnective plugin) {
+        this.plugin = plugin;
+    }
+
+    @Override
+    public boolean isRegionized() {
+        return false;
+    }
+
+    @Override
+    public void runGlobal(Runnable task) {
+        scheduler().runTask(plugin, task);
+    }
+
+    @Override
+    public Task runGlobalLater(Runnable task, long delayTicks) {
+        return scheduler().runTaskLater(plugin, task, delayTicks)::cancel;
+    }
+
+    @Override
+    public Task runGlobalTimer(Runnable task, long delayTicks, long periodTicks) {
+        return scheduler().runTaskTimer(plugin, task, delayTicks, periodTicks)::cancel;
+    }
+
+    @Override
+    public Task runAsyncTimer(Runnable task, long delayTicks, long periodTicks) {
+        return scheduler().runTaskTimerAsynchronously(plugin, task, delayTicks, periodTicks)::cancel;
+    }
+
+    @Override
+    public void runAtEntity(Entity entity, Runnable task) {
+        scheduler().runTask(plugin, () -> {
+            if (!isRemoved(entity)) task.run();
+        });
+    }
+
+    @Override
+    public Task runAtEntityTimer(Entity entity, Runnable task, long delayTicks, long periodTicks) {
+        if (isRemoved(entity)) return null;
+        BukkitRunnable runnable = new BukkitRunnable() {
+            @Override
+            public void run() {
+                if (isRemoved(entity)) {
+                    cancel();
+                    return;
+                }
+                task.run();
+            }
+        };
+        return runnable.runTaskTimer(plugin, delayTicks, periodTicks)::cancel;
+    }
+
+    /**
+     * Checks if an entity has been removed from the server, which Entity#isValid() also reports for dead entities.
+     * Players are removed when they leave, so a handle of a player who relogged is removed as well even though a player
+     * with the same UUID is online. Other entities are removed when they are no longer in a loaded world.
+     */
+    private static boolean isRemoved(Entity entity) {
+        if (entity instanceof Player player) return Bukkit.getPlayer(player.getUniqueId()) != player;
+        return Bukkit.getEntity(entity.getUniqueId()) == null;
+    }
+
+    private static BukkitScheduler scheduler() {
+        return Bukkit.getScheduler();
+    }
+}
@@ -5,90 +5,115 @@
 //********************************************************************************************
 package me.mydark.trueconnectiveplugin.manager;
 
-import java.util.HashMap;
 import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
-import me.mydark.trueconnectiveplugin.TrueConnective;
+import me.mydark.trueconnectiveplugin.dto.QuotaPolicy;
+import me.mydark.trueconnectiveplugin.dto.QuotaTier;
+import me.mydark.trueconnectiveplugin.manager.MessageManager.Message;
 import net.kyori.adventure.bossbar.BossBar;
 import net.kyori.adventure.text.Component;
-import net.kyori.adventure.text.TextComponent;
-import net.kyori.adventure.text.format.TextColor;
-import net.kyori.adventure.text.format.TextDecoration;
+import org.bukkit.OfflinePlayer;
 import org.bukkit.entity.Player;
 
 @Slf4j
 public class PlayTimeManager {
-    private static DatabaseManager databaseManager;
-    private static TrueConnective instance;
+    private final ConfigManager configManager;
 
-    private final Map<UUID, BossBar> playerBossBars = new HashMap<>();
+    @Getter
+    private final PlaytimeLedger playtimeLedger;
 
-    public PlayTimeManager(TrueConnective plugin, DatabaseManager dbmanager) {
-        databaseManager = dbmanager;
-        instance = plugin;
+    private final MessageManager messageManager;
+
+    // Updated on the region threads of the players on Folia
+    private final Map<UUID, BossBar> playerBossBars = new ConcurrentHashMap<>();
+
+    public PlayTimeManager(ConfigManager config, PlaytimeLedger ledger, MessageManager messages) {
+        configManager = config;
+        playtimeLedger = ledger;
+        messageManager = messages;
+    }
+
+    /**
+     * Resolves the playtime quota of a player from their permissions and the quota tiers of the config.
+     *
+     * @param player The player to resolve the quota for.
+     * @return The quota of the player.
+     */
+    public QuotaPolicy resolveQuotaPolicy(Player player) {
+        boolean bypass = player.hasPermission("trueconnective.playtime.bypass");
+        QuotaTier tier = configManager.get().resolveTier(player);
+        return new QuotaPolicy(bypass, tier.name(), tier.maxPlaytimeSeconds());
+    }
+
+    /**
+     * Calculates the remaining playtime of an online player.
+     *
+     * @param player The player whose remaining playtime is to be calculated.
+     * @return The remaining playtime of the player in minutes.
+     */
+    public int getRemainingMinutes(Player player) {
+        return (resolveQuotaPolicy(player).maxPlaytimeSeconds() - getPlaytime(player)) / 60;
     }
 
     /**
      * Checks the player's playtime and kicks them if they exceed the daily limit.
      *
      * @param player The player to check.
+     * @param quotaPolicy The quota of the player.
      */
-    public void checkPlaytime(Player player) {
-        int playtimeSeconds = databaseManager.getPlaytime(player);
-        int maxPlaytimeSeconds;
-
-        if (player.hasPermission("trueconnective.playtime.bypass")) {
+    public void checkPlaytime(Player player, QuotaPolicy quotaPolicy) {
+        if (quotaPolicy.bypass()) {
             return;
         }
-        if (player.hasPermission("trueconnective.creator")) {
-            maxPlaytimeSeconds = instance.getConfig().getInt("creator.max-playtime") * 60; // Convert minutes of the Config to seconds
-        } else {
-            maxPlaytimeSeconds = instance.getConfig().getInt("viewer.max-playtime") * 60; // Convert minutes of the Config to seconds
-        }
 
-        if (playtimeSeconds >= maxPlaytimeSeconds) {
-            TextComponent kickMessage = Component.text()
-                    .content("Du hast dein tägliches Spielzeitlimit erreicht! \nDu kannst morgen wieder spielen.")
-                    .color(TextColor.color(0xff6969))
-                    .decoration(TextDecoration.BOLD, true)
-                    .build();
-            player.kick(kickMessage);
-        } else {
-            databaseManager.updatePlaytime(player, playtimeSeconds + 60); // Update the playtime of the Player in seconds
+        // The playtime of the current session is derived from the clock, it doesn't have to be counted up here
+        if (playtimeLedger.getPlaytime(player) >= quotaPolicy.maxPlaytimeSeconds()) {
+            player.kick(messageManager.get(Message.KICK_PLAYTIME_LIMIT));
         }
     }
 
     public void addPlaytime(Player player, int seconds) {
-        int currentPlaytime = databaseManager.getPlaytime(player);
-        databaseManager.updatePlaytime(player, currentPlaytime - seconds);
+        int currentPlaytime = playtimeLedger.getPlaytime(player);
+        playtimeLedger.setPlaytime(player, currentPlaytime - seconds);
+    }
+
+    /**
+     * Retrieves the playtime of a player.
+     *
+     * @param player The player whose playtime is to be retrieved.
+     * @return The playtime of the player in seconds.
+     */
+    public int getPlaytime(OfflinePlayer player) {
+        return playtimeLedger.getPlaytime(player);
+    }
+
+    /**
+     * Resets the playtime of a player.
+     *
+     * @param player The player whose playtime is to be reset.
+     */
+    public void resetPlaytime(OfflinePlayer player) {
+        playtimeLedger.setPlaytime(player, 0);
     }
 
     /**
      * Updates the action bar with the remaining playtime for the player.
      *
      * @param player The player to update.
+     * @param quotaPolicy The quota of the player.
      */
-    public void actionBarTask(Player player) {
-        int playtimeSeconds = databaseManager.getPlaytime(player);
-        int maxPlaytimeSeconds;
-
-        if (player.hasPermission("trueconnective.playtime.bypass")) {
-            player.sendActionBar(Component.text()
-                    .content("Du hast unbegrenzte Spielzeit!")
-                    .color(TextColor.color(0xff6969))
-                    .decoration(TextDecoration.BOLD, true)
-                    .build());
+    public void actionBarTask(Player player, QuotaPolicy quotaPolicy) {
+        if (quotaPolicy.bypass()) {
+            player.sendActionBar(messageManager.get(Message.PLAYTIME_UNLIMITED));
             return;
         }
-        if (player.hasPermission("trueconnective.creator")) {
-            maxPlaytimeSeconds = instance.getConfig().getInt("creator.max-playtime") * 60; // Convert minutes of the Config to seconds
-        } else {
-            maxPlaytimeSeconds = instance.getConfig().getInt("viewer.max-playtime") * 60; // Convert minutes of the Config to seconds
-        }
 
-        player.sendActionBar(
-                formatRemainingTime((maxPlaytimeSeconds - playtimeSeconds) / 60)); // Display remaining time in minutes
+        int playtimeSeconds = playtimeLedger.getPlaytime(player);
+        player.sendActionBar(formatRemainingTime(
+                (quotaPolicy.maxPlaytimeSeconds() - playtimeSeconds) / 60)); // Display remaining time in minutes
     }
 
     /**
@@ -97,54 +122,32 @@ public class PlayTimeManager {
      * @param minutes The remaining playtime in minutes.
      * @return The formatted text component.
      */
-    private TextComponent formatRemainingTime(int minutes) {
-        // Calculate remaining ours and minutes
-        // int hours = minutes / 60;
-        // int remainingMinutes = minutes % 60;
-
-        return Component.text()
-                .content("Du hast " + minutes + " Minuten verbleibend!")
-                .color(TextColor.color(0xDFDFDF))
-                .build();
+    Component formatRemainingTime(int minutes) {
+        return messageManager.get(Message.PLAYTIME_REMAINING, "minutes", minutes);
     }
 
     /**
      * The Task for the scheduled update of the Bossbar.
      * @param player the player which should see the BossBar.
+     * @param quotaPolicy The quota of the player.
      */
-    public void playtimeBossbarTask(Player player) {
+    public void playtimeBossbarTask(Player player, QuotaPolicy quotaPolicy) {
         UUID playerUUID = player.getUniqueId();
-        int playtimeSeconds = databaseManager.getPlaytime(player);
-        int maxPlaytimeSeconds;
+        int playtimeSeconds = playtimeLedger.getPlaytime(player);
+        int maxPlaytimeSeconds = quotaPolicy.maxPlaytimeSeconds();
 
-        if (player.hasPermission("trueconnective.playtime.bypass")) {
+        if (quotaPolicy.bypass()) {
             if (playerBossBars.get(playerUUID) != null) {
                 updateBossBar(
-                        playerBossBars.get(playerUUID),
-                        Component.text()
-                                .content("Du hast unbegrenzte Spielzeit!")
-                                .color(TextColor.color(0xff6969))
-                                .decoration(TextDecoration.BOLD, true)
-                                .build(),
-                        (float) 0.01);
+                        playerBossBars.get(playerUUID), messageManager.get(Message.PLAYTIME_UNLIMITED), (float) 0.01);
             } else {
-                BossBar playtimeBossBar = formatPlaytimeBossBar(
-                        Component.text()
-                                .content("Du hast unbegrenzte Spielzeit!")
-                                .color(TextColor.color(0xff6969))
-                                .decoration(TextDecoration.BOLD, true)
-                                .build(),
-                        (float) 0.01);
+                BossBar playtimeBossBar =
+                        formatPlaytimeBossBar(messageManager.get(Message.PLAYTIME_UNLIMITED), (float) 0.01);
                 playerBossBars.put(playerUUID, playtimeBossBar);
                 player.showBossBar(playtimeBossBar);
             }
             return;
         }
-        if (player.hasPermission("trueconnective.creator")) {
-            maxPlaytimeSeconds = instance.getConfig().getInt("creator.max-playtime") * 60; // Convert minutes of the Config to seconds
-        } else {
-            maxPlaytimeSeconds = instance.getConfig().getInt("viewer.max-playtime") * 60; // Convert minutes of the Config to seconds
-        }
 
         int remainingPlaytimeSeconds = maxPlaytimeSeconds - playtimeSeconds;
         float progress = getPercentage(maxPlaytimeSeconds, remainingPlaytimeSeconds);
@@ -168,7 +171,7 @@ public class PlayTimeManager {
      * @param progress the Progress of the Playtime
      * @return formatted BossBar Object.
      */
-    private BossBar formatPlaytimeBossBar(TextComponent title, float progress) {
+    private BossBar formatPlaytimeBossBar(Component title, float progress) {
         BossBar playtimeBossBar;
 
         if (progress < 0.33)
@@ -186,13 +189,11 @@ public class PlayTimeManager {
      * @param title the new title of the Bossbar. (needed for the TextUpdate of the Playtime)
      * @param progress the new Progress of the Playtime.
      */
-    private void updateBossBar(BossBar playerBossBar, TextComponent title, float progress) {
+    private void updateBossBar(BossBar playerBossBar, Component title, float progress) {
         playerBossBar.progress(progress);
         playerBossBar.name(title);
         if (progress == 0) {
-            playerBossBar.name(Component.text()
-                    .content("Du wirst in wenigen Sekunden gekickt!")
-                    .color(TextColor.color(0xff6969)));
+            playerBossBar.name(messageManager.get(Message.PLAYTIME_KICK_SOON));
             return;
         }
         if (progress < 0.33) playerBossBar.color(BossBar.Color.RED);
@@ -201,8 +202,8 @@ public class PlayTimeManager {
     }
 
     public void removeBossBar(Player player) {
-        player.hideBossBar(playerBossBars.get(player.getUniqueId()));
-        playerBossBars.remove(player.getUniqueId());
+        BossBar playerBossBar = playerBossBars.remove(player.getUniqueId());
+        if (playerBossBar != null) player.hideBossBar(playerBossBar);
     }
 
     /**
@@ -211,7 +212,7 @@ public class PlayTimeManager {
      * @param value The actual value that you want to be calculated
      * @return The percentage as float value between 0 and 1
      */
-    private float getPercentage(int max, int value) {
+    float getPercentage(int max, int value) {
         float progress;
         if (value == 0) {
             return 0;
@@ -0,0 +1,105 @@
+//********************************************************************************************
+// Author:      V01D-PH03N1X (PinguBasti), TrueConnective Paul & Stolle GbR
+// Project:     TrueConnective Paper Plugin
+// Description: Management Plugin for Paper Servers (Minecraft)
+//********************************************************************************************
+package me.mydark.trueconnectiveplugin.manager;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import lombok.extern.slf4j.Slf4j;
+import me.mydark.trueconnectiveplugin.dto.PlayerDirectoryEntry;
+import org.bukkit.OfflinePlayer;
+import org.bukkit.Server;
+import org.bukkit.entity.Player;
+
+/**
+ * Directory of the names and UUIDs of all players that joined, persisted in the database
+ * and kept in memory in the {@link PlayerNameIndex}.
+ * Commands resolve the names of their targets here instead of with {@link Server#getOfflinePlayer(String)},
+ * which can look up unknown names at Mojang and reads the player data from disk on the main thread.
+ * Names that aren't in memory, e.g. players that joined another server of the network since the start,
+ * are looked up in the database on the database thread.
+ */
+@Slf4j
+public class PlayerDirectory {
+    private final AsyncDatabaseManager asyncDatabaseManager;
+    private final PlayerNameIndex playerNameIndex;
+
+    public PlayerDirectory(AsyncDatabaseManager asyncDatabaseManager, PlayerNameIndex playerNameIndex) {
+        this.asyncDatabaseManager = asyncDatabaseManager;
+        this.playerNameIndex = playerNameIndex;
+    }
+
+    /**
+     * Loads the directory from the database into the name index.
+     * If the directory is still empty, it's filled once from the offline players of the server.
+     *
+     * @param server The server to import the offline players from.
+     */
+    public void load(Server server) {
+        asyncDatabaseManager.loadPlayerDirectory().thenAccept(entries -> {
+            if (entries.isEmpty()) {
+                importOfflinePlayers(server);
+                return;
+            }
+            playerNameIndex.addAll(entries);
+        });
+    }
+
+    /**
+     * Records a player that joined with their current name.
+     *
+     * @param player The player that joined.
+     */
+    public void record(Player player) {
+        PlayerDirectoryEntry entry =
+                new PlayerDirectoryEntry(player.getUniqueId(), player.getName(), System.currentTimeMillis());
+        playerNameIndex.add(entry);
+        asyncDatabaseManager.updatePlayerDirectory(List.of(entry));
+    }
+
+    /**
+     * Resolves the name of a player, ignoring the case.
+     * The future completes on the main thread, right away if the name is in memory.
+     *
+     * @param name The name of the player.
+     * @return A future with the player, or empty if no player with the name ever joined.
+     */
+    public CompletableFuture<Optional<PlayerDirectoryEntry>> resolve(String name) {
+        PlayerDirectoryEntry entry = playerNameIndex.find(name);
+        if (entry != null) return CompletableFuture.completedFuture(Optional.of(entry));
+        return asyncDatabaseManager.findPlayer(name).thenApply(found -> {
+            found.ifPresent(playerNameIndex::add);
+            return found;
+        });
+    }
+
+    /**
+     * Completes a player name.
+     *
+     * @param prefix The typed beginning of the name, in any case.
+     * @return Up to 50 names starting with the prefix, in alphabetical order.
+     */
+    public List<String> complete(String prefix) {
+        return playerNameIndex.complete(prefix);
+    }
+
+    /**
+     * Imports the players that played on the server before the directory existed.
+     * This scans the player data once, afterwards the directory is only read from the database.
+     * The time they were last seen is unknown, so joined players always keep their name.
+     */
+    private void importOfflinePlayers(Server server) {
+        List<PlayerDirectoryEntry> entries = new ArrayList<>();
+        for (OfflinePlayer player : server.getOfflinePlayers()) {
+            String name = player.getName();
+            if (name != null) entries.add(new PlayerDirectoryEntry(player.getUniqueId(), name, 0));
+        }
+        playerNameIndex.addAll(entries);
+        asyncDatabaseManager.updatePlayerDirectory(entries);
+        log.info("Imported {} players into the player directory", entries.size());
+    }
+}
@@ -0,0 +1,105 @@
+//********************************************************************************************
+// Author:      V01D-PH03N1X (PinguBasti), TrueConnective Paul & Stolle GbR
+// Project:     TrueConnective Paper Plugin
+// Description: Management Plugin for Paper Servers (Minecraft)
+//********************************************************************************************
+package me.mydark.trueconnectiveplugin.manager;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.UUID;
+import lombok.extern.slf4j.Slf4j;
+import me.mydark.trueconnectiveplugin.dto.PlayerDirectoryEntry;
+
+/**
+ * Case-insensitive prefix index of the names of all known players, used for tab completion, to resolve the names
+ * typed in commands and to show the names of players that are only known by their UUID.
+ * The index is the in-memory copy of the {@link PlayerDirectory}. It's filled once from the database when the plugin
+ * is enabled and updated when players join, so completing a name only walks the matching range of a sorted map.
+ */
+@Slf4j
+public class PlayerNameIndex {
+    private static final int MAX_COMPLETIONS = 50;
+
+    private final TreeMap<String, PlayerDirectoryEntry> entriesByLowerName = new TreeMap<>();
+    private final Map<UUID, PlayerDirectoryEntry> entriesByUUID = new HashMap<>();
+
+    /**
+     * Adds many players to the index.
+     *
+     * @param entries The players of the player directory.
+     */
+    public synchronized void addAll(Collection<PlayerDirectoryEntry> entries) {
+        entries.forEach(this::put);
+        log.info("Indexed {} player names", entriesByLowerName.size());
+    }
+
+    /**
+     * Adds or updates the name of a player, e.g. when they join after a name change.
+     *
+     * @param entry The player with their current name.
+     */
+    public synchronized void add(PlayerDirectoryEntry entry) {
+        put(entry);
+    }
+
+    /**
+     * Retrieves the current name of a player.
+     *
+     * @param playerUUID The UUID of the player.
+     * @return The name of the player, or null if the player isn't known.
+     */
+    public synchronized String getName(UUID playerUUID) {
+        PlayerDirectoryEntry entry = entriesByUUID.get(playerUUID);
+        return entry == null ? null : entry.name();
+    }
+
+    /**
+     * Finds a player by name, ignoring the case.
+     *
+     * @param name The name of the player.
+     * @return The player, or null if no player with the name is indexed.
+     */
+    public synchronized PlayerDirectoryEntry find(String name) {
+        return entriesByLowerName.get(toKey(name));
+    }
+
+    /**
+     * Completes a player name.
+     *
+     * @param prefix The typed beginning of the name, in any case.
+     * @return Up to 50 names starting with the prefix, in alphabetical order.
+     */
+    public synchronized List<String> complete(String prefix) {
+        String key = toKey(prefix);
+        List<String> completions = new ArrayList<>();
+        for (Map.Entry<String, PlayerDirectoryEntry> entry : entriesByLowerName.tailMap(key, true).entrySet()) {
+            if (!entry.getKey().startsWith(key) || completions.size() >= MAX_COMPLETIONS) break;
+            completions.add(entry.getValue().name());
+        }
+        return completions;
+    }
+
+    private void put(PlayerDirectoryEntry entry) {
+        PlayerDirectoryEntry previous = entriesByUUID.put(entry.uuid(), entry);
+        if (previous != null && !previous.name().equalsIgnoreCase(entry.name())) {
+            entriesByLowerName.remove(toKey(previous.name()), previous);
+        }
+
+        // A name can be taken over by another player after a name change, the player seen last keeps the name
+        String key = toKey(entry.name());
+        PlayerDirectoryEntry current = entriesByLowerName.get(key);
+        if (current == null || current.uuid().equals(entry.uuid()) || current.lastSeen() <= entry.lastSeen()) {
+            entriesByLowerName.put(key, entry);
+        }
+    }
+
+    private static String toKey(String name) {
+        return name.toLowerCase(Locale.ROOT);
+    }
+}
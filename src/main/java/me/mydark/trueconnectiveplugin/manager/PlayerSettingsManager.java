@@ -0,0 +1,136 @@
+//********************************************************************************************
+// Author:      V01D-PH03N1X (PinguBasti), TrueConnective Paul & Stolle GbR
+// Project:     TrueConnective Paper Plugin
+// Description: Management Plugin for Paper Servers (Minecraft)
+//********************************************************************************************
+package me.mydark.trueconnectiveplugin.manager;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import lombok.extern.slf4j.Slf4j;
+import me.mydark.trueconnectiveplugin.dto.PlayerSettings;
+import me.mydark.trueconnectiveplugin.dto.PlayerSettingsUpdate;
+
+/**
+ * In-memory write-behind cache for the settings of online players.
+ * Changed settings are only marked and written back in one batch with the periodic flush and when the player
+ * leaves, so a burst of toggles results in at most one write per player and flush interval.
+ * The cache is synchronized, since on Folia the settings are toggled on the region threads of the players.
+ */
+@Slf4j
+public class PlayerSettingsManager {
+    private final AsyncDatabaseManager asyncDatabaseManager;
+
+    private final Map<UUID, Entry> entries = new HashMap<>();
+    private final Set<UUID> changed = new LinkedHashSet<>();
+
+    public PlayerSettingsManager(AsyncDatabaseManager asyncDatabaseManager) {
+        this.asyncDatabaseManager = asyncDatabaseManager;
+    }
+
+    /**
+     * Loads the already fetched settings of a player into the cache.
+     *
+     * @param playerUUID The UUID of the player.
+     * @param settings   The settings of the player, as stored in the database.
+     */
+    public synchronized void load(UUID playerUUID, PlayerSettings settings) {
+        entries.put(playerUUID, new Entry(settings, settings.toStoredFlags()));
+    }
+
+    /**
+     * Retrieves the settings of an online player.
+     *
+     * @param playerUUID The UUID of the player.
+     * @return The settings of the player, or null if they are not loaded.
+     */
+    public synchronized PlayerSettings getSettings(UUID playerUUID) {
+        Entry entry = entries.get(playerUUID);
+        return entry == null ? null : entry.settings;
+    }
+
+    /**
+     * Enables or disables a setting of an online player.
+     *
+     * @param playerUUID The UUID of the player.
+     * @param flag       The setting, e.g. {@link PlayerSettings#ACTIONBAR}.
+     * @param enabled    Whether the setting is enabled.
+     */
+    public synchronized void setEnabled(UUID playerUUID, int flag, boolean enabled) {
+        Entry entry = entries.get(playerUUID);
+        if (entry == null) return;
+
+        entry.settings.setEnabled(flag, enabled);
+        changed.add(playerUUID);
+    }
+
+    /**
+     * Writes the settings of a player back to the database if they changed and removes them from the cache.
+     *
+     * @param playerUUID The UUID of the player.
+     */
+    public synchronized void unload(UUID playerUUID) {
+        Entry entry = entries.remove(playerUUID);
+        if (entry == null || !changed.remove(playerUUID)) return;
+
+        int storedFlags = entry.settings.toStoredFlags();
+        if (storedFlags != entry.persistedFlags) {
+            asyncDatabaseManager.updatePlayerSettings(List.of(new PlayerSettingsUpdate(playerUUID, storedFlags)));
+        }
+    }
+
+    /**
+     * Queues the settings of all players that changed since the last flush to be written back in one batch.
+     *
+     * @return The number of players that were queued.
+     */
+    public synchronized int flush() {
+        List<PlayerSettingsUpdate> updates = collectUpdates();
+        if (!updates.isEmpty()) {
+            asyncDatabaseManager.updatePlayerSettings(updates);
+            log.debug("Flushed settings of {} players", updates.size());
+        }
+        return updates.size();
+    }
+
+    /**
+     * Writes all changed settings back to the database on the calling thread and clears the cache.
+     * Only used on shutdown, after the database thread has been stopped.
+     */
+    public synchronized void flushAll() {
+        asyncDatabaseManager.getDatabaseManager().updatePlayerSettings(collectUpdates());
+        entries.clear();
+    }
+
+    private List<PlayerSettingsUpdate> collectUpdates() {
+        List<PlayerSettingsUpdate> updates = new ArrayList<>();
+        for (UUID playerUUID : changed) {
+            Entry entry = entries.get(playerUUID);
+            if (entry == null) continue;
+
+            // Toggling a setting back and forth between two flushes doesn't need a write
+            int storedFlags = entry.settings.toStoredFlags();
+            if (storedFlags == entry.persistedFlags) continue;
+            updates.add(new PlayerSettingsUpdate(playerUUID, storedFlags));
+            entry.persistedFlags = storedFlags;
+        }
+        changed.clear();
+        return updates;
+    }
+
+    private static final class Entry {
+        private final PlayerSettings settings;
+        // The flags as last written to the database
+        private int persistedFlags;
+
+        private Entry(PlayerSettings settings, int persistedFlags) {
+            this.settings = settings;
+            this.persistedFlags = persistedFlags;
+        }
+    }
+}
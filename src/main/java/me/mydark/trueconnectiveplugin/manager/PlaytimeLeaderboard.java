@@ -0,0 +1,145 @@
+//********************************************************************************************
+// Author:      V01D-PH03N1X (PinguBasti), TrueConnective Paul & Stolle GbR
+// Project:     TrueConnective Paper Plugin
+// Description: Management Plugin for Paper Servers (Minecraft)
+//********************************************************************************************
+package me.mydark.trueconnectiveplugin.manager;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import lombok.extern.slf4j.Slf4j;
+import me.mydark.trueconnectiveplugin.dto.LeaderboardEntry;
+
+/**
+ * Daily and weekly leaderboard of the playtime, kept in memory so reading it never touches the database.
+ * The {@link PlaytimeLedger} updates the leaderboard whenever it writes or changes the playtime of a player,
+ * the leaderboard is only loaded from the database once when the plugin is enabled.
+ * A week starts on the Monday reset day. The weekly playtime is the playtime of the past days of the week,
+ * which only changes when a day ends, plus the playtime of the current day.
+ * The leaderboard is synchronized, since on Folia it's updated and read from several region threads.
+ */
+@Slf4j
+public class PlaytimeLeaderboard {
+    private final PlaytimeRanking daily = new PlaytimeRanking();
+    private final PlaytimeRanking weekly = new PlaytimeRanking();
+    // The playtime in seconds on the past days of the current week per player
+    private final Map<UUID, Integer> pastDaysOfWeek = new HashMap<>();
+    private long currentDay;
+    private long weekStart;
+
+    public enum Period {
+        DAILY,
+        WEEKLY
+    }
+
+    /**
+     * Loads the playtime of the current day and of the past days of the week from the database.
+     * Players whose playtime was updated in the meantime keep their newer playtime of the current day.
+     *
+     * @param asyncDatabaseManager The database to load the playtime from.
+     * @param day                  The epoch day of the current reset day.
+     */
+    public synchronized void load(AsyncDatabaseManager asyncDatabaseManager, long day) {
+        currentDay = day;
+        weekStart = weekStart(day);
+        CompletableFuture<Map<UUID, Integer>> pastPlaytimes = asyncDatabaseManager.getRolledUpPlaytimes(weekStart, day);
+        asyncDatabaseManager.getDailyPlaytimes().thenAcceptBoth(pastPlaytimes, (dailyPlaytimes, pastDays) -> {
+            synchronized (this) {
+                // The day may have ended while loading, then the loaded playtime is outdated
+                if (currentDay == day) apply(dailyPlaytimes, pastDays);
+            }
+        });
+    }
+
+    private void apply(Map<UUID, Integer> dailyPlaytimes, Map<UUID, Integer> pastPlaytimes) {
+        pastDaysOfWeek.putAll(pastPlaytimes);
+        Set<UUID> players = new HashSet<>(dailyPlaytimes.keySet());
+        players.addAll(pastPlaytimes.keySet());
+        for (UUID playerUUID : players) {
+            int playtime = daily.get(playerUUID);
+            update(playerUUID, playtime > 0 ? playtime : dailyPlaytimes.getOrDefault(playerUUID, 0));
+        }
+        log.info("Loaded leaderboard with {} players today and {} this week", daily.size(), weekly.size());
+    }
+
+    /**
+     * Updates the playtime of a player on the current day.
+     *
+     * @param playerUUID      The UUID of the player.
+     * @param playtimeSeconds The playtime of the player on the current day in seconds.
+     */
+    public synchronized void update(UUID playerUUID, int playtimeSeconds) {
+        daily.set(playerUUID, playtimeSeconds);
+        weekly.set(playerUUID, pastDaysOfWeek.getOrDefault(playerUUID, 0) + Math.max(0, playtimeSeconds));
+    }
+
+    /**
+     * Starts a new reset day. The playtime of the ended day is added to the past days of the week,
+     * or the weekly leaderboard starts over if the new day belongs to the next week.
+     *
+     * @param day The epoch day of the new reset day.
+     */
+    public synchronized void startDay(long day) {
+        currentDay = day;
+        long newWeekStart = weekStart(day);
+        if (newWeekStart != weekStart) {
+            weekStart = newWeekStart;
+            pastDaysOfWeek.clear();
+            weekly.clear();
+        } else {
+            daily.forEach((playerUUID, seconds) -> pastDaysOfWeek.merge(playerUUID, seconds, Integer::sum));
+        }
+        daily.clear();
+    }
+
+    /**
+     * Lists a page of the leaderboard.
+     *
+     * @param period   The period of the leaderboard.
+     * @param page     The page to list, starting at 0.
+     * @param pageSize The number of players per page.
+     * @return The players on the page in the order of their rank.
+     */
+    public synchronized List<LeaderboardEntry> getPage(Period period, int page, int pageSize) {
+        return ranking(period).range(page * pageSize, pageSize);
+    }
+
+    /**
+     * Finds the rank of a player.
+     *
+     * @param period     The period of the leaderboard.
+     * @param playerUUID The UUID of the player.
+     * @return The rank of the player with their playtime in seconds, or null if they haven't played.
+     */
+    public synchronized LeaderboardEntry getRank(Period period, UUID playerUUID) {
+        PlaytimeRanking ranking = ranking(period);
+        int rank = ranking.rank(playerUUID);
+        return rank == 0 ? null : new LeaderboardEntry(rank, playerUUID, ranking.get(playerUUID));
+    }
+
+    /**
+     * Counts the pages of the leaderboard.
+     *
+     * @param period   The period of the leaderboard.
+     * @param pageSize The number of players per page.
+     * @return The number of pages, at least 1.
+     */
+    public synchronized int getPageCount(Period period, int pageSize) {
+        return Math.max(1, (ranking(period).size() + pageSize - 1) / pageSize);
+    }
+
+    private PlaytimeRanking ranking(Period period) {
+        return period == Period.DAILY ? daily : weekly;
+    }
+
+    private static long weekStart(long day) {
+        return LocalDate.ofEpochDay(day).with(DayOfWeek.MONDAY).toEpochDay();
+    }
+}
@@ -0,0 +1,281 @@
+//********************************************************************************************
+// Author:      V01D-PH03N1X (PinguBasti), TrueConnective Paul & Stolle GbR
+// Project:     TrueConnective Paper Plugin
+// Description: Management Plugin for Paper Servers (Minecraft)
+//********************************************************************************************
+package me.mydark.trueconnectiveplugin.manager;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import lombok.extern.slf4j.Slf4j;
+import me.mydark.trueconnectiveplugin.dto.PlaytimeSession;
+import me.mydark.trueconnectiveplugin.dto.PlaytimeUpdate;
+import org.bukkit.OfflinePlayer;
+
+/**
+ * In-memory write-behind ledger for the playtime of online players.
+ * The session of a player starts when their playtime is loaded on join, their playtime is derived on demand
+ * from the monotonic clock and written back to the database at periodic checkpoints and when they leave.
+ * In network mode only the playtime on this server is written back, the playtime on the other servers is added
+ * on top and kept up to date by the {@link NetworkPlaytimeSync}.
+ * The sessions are appended to the session log in segments, cut at every checkpoint and at the daily reset.
+ * The last segment of a player that leaves is kept until the next checkpoint, so it's written in the same batch.
+ * The {@link PlaytimeLeaderboard} is updated at the same points, whenever a playtime is written or changed.
+ * The ledger is accessed from the main server thread, on Folia from the region threads of the players and the
+ * global region thread, so all methods are synchronized.
+ */
+@Slf4j
+public class PlaytimeLedger {
+    private final AsyncDatabaseManager asyncDatabaseManager;
+    private final PlaytimeLeaderboard leaderboard;
+
+    private final Map<UUID, Entry> entries = new HashMap<>();
+    // Last session segments of players that left since the last checkpoint
+    private final List<PlaytimeSession> pendingSessions = new ArrayList<>();
+
+    public PlaytimeLedger(AsyncDatabaseManager asyncDatabaseManager, PlaytimeLeaderboard leaderboard) {
+        this.asyncDatabaseManager = asyncDatabaseManager;
+        this.leaderboard = leaderboard;
+    }
+
+    /**
+     * Loads the already fetched playtime of a player into the ledger and starts their session.
+     *
+     * @param player                 The player whose playtime is to be loaded.
+     * @param playtimeSeconds        The playtime of the player in seconds on this server, as stored in the database.
+     * @param networkPlaytimeSeconds The playtime of the player in seconds on the other servers of the network.
+     */
+    public synchronized void load(OfflinePlayer player, int playtimeSeconds, int networkPlaytimeSeconds) {
+        entries.put(
+                player.getUniqueId(),
+                new Entry(playtimeSeconds, networkPlaytimeSeconds, System.nanoTime(), System.currentTimeMillis()));
+    }
+
+    /**
+     * Checks if the playtime of a player is loaded into the ledger.
+     *
+     * @param player The player to check.
+     * @return True if the playtime is loaded, false otherwise.
+     */
+    public synchronized boolean isLoaded(OfflinePlayer player) {
+        return entries.containsKey(player.getUniqueId());
+    }
+
+    /**
+     * Ends the session of a player, writes their playtime back to the database and removes them from the ledger.
+     * The last segment of the session is appended to the session log at the next checkpoint.
+     *
+     * @param player The player whose playtime is to be unloaded.
+     */
+    public synchronized void unload(OfflinePlayer player) {
+        Entry entry = entries.remove(player.getUniqueId());
+        if (entry == null) return;
+
+        long now = System.nanoTime();
+        PlaytimeSession session = entry.cutSession(player.getUniqueId(), now);
+        if (session != null) pendingSessions.add(session);
+        leaderboard.update(player.getUniqueId(), entry.getPlaytime(now));
+
+        int playtime = entry.getLocalPlaytime(now);
+        if (playtime != entry.persistedPlaytime) {
+            asyncDatabaseManager.updatePlaytimes(List.of(new PlaytimeUpdate(player.getUniqueId(), playtime)));
+        }
+    }
+
+    /**
+     * Retrieves the playtime of a loaded player, including their current session.
+     *
+     * @param player The player whose playtime is to be retrieved.
+     * @return The playtime of the player in seconds, or 0 if the player is not loaded.
+     */
+    public synchronized int getPlaytime(OfflinePlayer player) {
+        Entry entry = entries.get(player.getUniqueId());
+        return entry == null ? 0 : entry.getPlaytime(System.nanoTime());
+    }
+
+    /**
+     * Retrieves the playtime of any player.
+     * Players that are not loaded are read from the database.
+     *
+     * @param player The player whose playtime is to be retrieved.
+     * @return A future with the playtime of the player in seconds.
+     */
+    public synchronized CompletableFuture<Integer> fetchPlaytime(OfflinePlayer player) {
+        Entry entry = entries.get(player.getUniqueId());
+        if (entry == null) {
+            return asyncDatabaseManager.getPlaytime(player);
+        }
+        return CompletableFuture.completedFuture(entry.getPlaytime(System.nanoTime()));
+    }
+
+    /**
+     * Sets the playtime of a player. The session of a loaded player continues from the new playtime.
+     * Players that are not loaded are written directly to the database.
+     *
+     * @param player The player whose playtime is to be set.
+     * @param playtimeSeconds The new playtime in seconds.
+     */
+    public synchronized void setPlaytime(OfflinePlayer player, int playtimeSeconds) {
+        Entry entry = entries.get(player.getUniqueId());
+        leaderboard.update(player.getUniqueId(), playtimeSeconds);
+        if (entry == null) {
+            asyncDatabaseManager.updatePlaytime(player, playtimeSeconds);
+            return;
+        }
+        entry.setPlaytime(playtimeSeconds, System.nanoTime());
+    }
+
+    /**
+     * Updates the playtime of loaded players on the other servers of the network.
+     *
+     * @param networkPlaytimes The playtime in seconds on all other servers per player.
+     * @return The number of loaded players that were updated.
+     */
+    public synchronized int updateNetworkPlaytimes(Map<UUID, Integer> networkPlaytimes) {
+        long now = System.nanoTime();
+        int updated = 0;
+        for (Map.Entry<UUID, Integer> networkPlaytime : networkPlaytimes.entrySet()) {
+            Entry entry = entries.get(networkPlaytime.getKey());
+            if (entry == null) continue;
+            entry.networkPlaytime = networkPlaytime.getValue();
+            leaderboard.update(networkPlaytime.getKey(), entry.getPlaytime(now));
+            updated++;
+        }
+        return updated;
+    }
+
+    /**
+     * Queues the playtime of all players whose playtime changed since the last checkpoint
+     * to be written back to the database in one batch, and the session segments since the last checkpoint
+     * to be appended to the session log in another.
+     *
+     * @return The number of players whose playtime was queued.
+     */
+    public synchronized int flush() {
+        List<PlaytimeUpdate> updates = collectUpdates();
+        if (!updates.isEmpty()) {
+            asyncDatabaseManager.updatePlaytimes(updates);
+            log.debug("Flushed playtime of {} players", updates.size());
+        }
+        appendSessions();
+        return updates.size();
+    }
+
+    /**
+     * Writes all changed playtimes and session segments back to the database on the calling thread
+     * and clears the ledger. Only used on shutdown, after the database thread has been stopped.
+     */
+    public synchronized void flushAll() {
+        DatabaseManager databaseManager = asyncDatabaseManager.getDatabaseManager();
+        databaseManager.updatePlaytimes(collectUpdates());
+        databaseManager.appendSessions(collectSessions());
+        entries.clear();
+    }
+
+    /**
+     * Resets the playtime of all loaded players for a new reset day, their sessions continue from zero.
+     * The database is reset separately, so the reset playtime doesn't have to be written back.
+     * The session segments are cut and queued first, so they are logged for the day that ends,
+     * and the leaderboard is updated with the final playtime of the day before it starts the new day.
+     *
+     * @param day The epoch day of the new reset day.
+     */
+    public synchronized void resetAll(long day) {
+        appendSessions();
+        long now = System.nanoTime();
+        entries.forEach((playerUUID, entry) -> leaderboard.update(playerUUID, entry.getPlaytime(now)));
+        leaderboard.startDay(day);
+        entries.values().forEach(entry -> {
+            entry.networkPlaytime = 0;
+            entry.setPlaytime(0, now);
+            entry.persistedPlaytime = 0;
+        });
+    }
+
+    private List<PlaytimeUpdate> collectUpdates() {
+        long now = System.nanoTime();
+        List<PlaytimeUpdate> updates = new ArrayList<>();
+        entries.forEach((playerUUID, entry) -> {
+            int playtime = entry.getLocalPlaytime(now);
+            if (playtime == entry.persistedPlaytime) return;
+            updates.add(new PlaytimeUpdate(playerUUID, playtime));
+            entry.persistedPlaytime = playtime;
+            leaderboard.update(playerUUID, entry.getPlaytime(now));
+        });
+        return updates;
+    }
+
+    private void appendSessions() {
+        List<PlaytimeSession> sessions = collectSessions();
+        if (!sessions.isEmpty()) {
+            asyncDatabaseManager.appendSessions(sessions);
+        }
+    }
+
+    private List<PlaytimeSession> collectSessions() {
+        long now = System.nanoTime();
+        List<PlaytimeSession> sessions = new ArrayList<>(pendingSessions);
+        pendingSessions.clear();
+        entries.forEach((playerUUID, entry) -> {
+            PlaytimeSession session = entry.cutSession(playerUUID, now);
+            if (session != null) sessions.add(session);
+        });
+        return sessions;
+    }
+
+    private static final class Entry {
+        // Playtime on this server in nanoseconds up to the start of the current session
+        private long playtimeNanos;
+        private long sessionStart;
+        // Playtime on this server in seconds as last written to the database
+        private int persistedPlaytime;
+        // Playtime on the other servers of the network in seconds
+        private int networkPlaytime;
+        // Start of the session segment that hasn't been logged yet, on the monotonic clock and in epoch milliseconds
+        private long segmentStart;
+        private long segmentStartMillis;
+
+        private Entry(int playtimeSeconds, int networkPlaytimeSeconds, long now, long nowMillis) {
+            this.networkPlaytime = networkPlaytimeSeconds;
+            this.playtimeNanos = TimeUnit.SECONDS.toNanos(playtimeSeconds);
+            this.sessionStart = now;
+            this.persistedPlaytime = playtimeSeconds;
+            this.segmentStart = now;
+            this.segmentStartMillis = nowMillis;
+        }
+
+        /**
+         * Ends the current session segment and starts the next one.
+         * Only whole seconds are logged, the remainder is carried over into the next segment.
+         *
+         * @return The ended segment, or null if it was shorter than a second.
+         */
+        private PlaytimeSession cutSession(UUID playerUUID, long now) {
+            long seconds = TimeUnit.NANOSECONDS.toSeconds(now - segmentStart);
+            if (seconds == 0) return null;
+            long joinedAt = segmentStartMillis;
+            segmentStart += TimeUnit.SECONDS.toNanos(seconds);
+            segmentStartMillis += TimeUnit.SECONDS.toMillis(seconds);
+            return new PlaytimeSession(playerUUID, joinedAt, segmentStartMillis, (int) seconds);
+        }
+
+        private int getLocalPlaytime(long now) {
+            return (int) TimeUnit.NANOSECONDS.toSeconds(playtimeNanos + (now - sessionStart));
+        }
+
+        private int getPlaytime(long now) {
+            return getLocalPlaytime(now) + networkPlaytime;
+        }
+
+        private void setPlaytime(int playtimeSeconds, long now) {
+            // The playtime on this server makes up the difference to the other servers
+            playtimeNanos = TimeUnit.SECONDS.toNanos(playtimeSeconds - networkPlaytime);
+            sessionStart = now;
+        }
+    }
+}
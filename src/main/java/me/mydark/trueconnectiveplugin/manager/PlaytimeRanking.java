@@ -0,0 +1,224 @@
+//********************************************************************************************
+// Author:      V01D-PH03N1X (PinguBasti), TrueConnective Paul & Stolle GbR
+// Project:     TrueConnective Paper Plugin
+// Description: Management Plugin for Paper Servers (Minecraft)
+//********************************************************************************************
+package me.mydark.trueconnectiveplugin.manager;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.ObjIntConsumer;
+import me.mydark.trueconnectiveplugin.dto.LeaderboardEntry;
+
+/**
+ * Players ordered by their playtime in an indexable skip list, with the highest playtime first.
+ * Every link of the list stores how many players it skips, so updates, the rank of a player and the player
+ * at a rank are found in O(log n) without walking the list. Players with the same playtime are ordered by UUID.
+ * Not thread-safe.
+ */
+final class PlaytimeRanking {
+    private static final int MAX_LEVEL = 32;
+    // Chance that a node also appears on the next higher level
+    private static final double LEVEL_PROBABILITY = 0.25;
+
+    private final Node head = new Node(null, Integer.MAX_VALUE, MAX_LEVEL);
+    private final Map<UUID, Node> nodes = new HashMap<>();
+    private int level = 1;
+
+    // Reused by every insert and remove for the last node before the position on each level
+    private final Node[] update = new Node[MAX_LEVEL];
+    private final int[] updateRank = new int[MAX_LEVEL];
+
+    /**
+     * Sets the playtime of a player, players without playtime are removed.
+     *
+     * @param playerUUID The UUID of the player.
+     * @param seconds    The playtime of the player in seconds.
+     */
+    void set(UUID playerUUID, int seconds) {
+        Node node = nodes.get(playerUUID);
+        if (node != null) {
+            if (node.seconds == seconds) return;
+            unlink(node);
+            nodes.remove(playerUUID);
+        }
+        // The size of the map is the number of linked players while inserting
+        if (seconds > 0) nodes.put(playerUUID, insert(playerUUID, seconds));
+    }
+
+    /**
+     * Retrieves the playtime of a player.
+     *
+     * @param playerUUID The UUID of the player.
+     * @return The playtime of the player in seconds, or 0 if the player isn't ranked.
+     */
+    int get(UUID playerUUID) {
+        Node node = nodes.get(playerUUID);
+        return node == null ? 0 : node.seconds;
+    }
+
+    /**
+     * Finds the rank of a player.
+     *
+     * @param playerUUID The UUID of the player.
+     * @return The rank of the player starting at 1, or 0 if the player isn't ranked.
+     */
+    int rank(UUID playerUUID) {
+        Node node = nodes.get(playerUUID);
+        if (node == null) return 0;
+
+        Node x = head;
+        int rank = 0;
+        for (int i = level - 1; i >= 0; i--) {
+            while (x.next[i] != null && !isBefore(node, x.next[i])) {
+                rank += x.span[i];
+                x = x.next[i];
+            }
+            if (x == node) return rank;
+        }
+        return 0;
+    }
+
+    /**
+     * Lists the players from a rank on.
+     *
+     * @param offset The number of players before the first listed player.
+     * @param limit  The maximum number of listed players.
+     * @return The players in the order of their rank.
+     */
+    List<LeaderboardEntry> range(int offset, int limit) {
+        List<LeaderboardEntry> entries = new ArrayList<>(Math.max(0, Math.min(limit, nodes.size() - offset)));
+        int rank = offset + 1;
+        for (Node x = nodeAt(rank); x != null && entries.size() < limit; x = x.next[0]) {
+            entries.add(new LeaderboardEntry(rank++, x.playerUUID, x.seconds));
+        }
+        return entries;
+    }
+
+    int size() {
+        return nodes.size();
+    }
+
+    void forEach(ObjIntConsumer<UUID> action) {
+        for (Node x = head.next[0]; x != null; x = x.next[0]) {
+            action.accept(x.playerUUID, x.seconds);
+        }
+    }
+
+    void clear() {
+        for (int i = 0; i < MAX_LEVEL; i++) {
+            head.next[i] = null;
+            head.span[i] = 0;
+        }
+        nodes.clear();
+        level = 1;
+    }
+
+    private Node nodeAt(int rank) {
+        if (rank < 1 || rank > nodes.size()) return null;
+        Node x = head;
+        int traversed = 0;
+        for (int i = level - 1; i >= 0; i--) {
+            while (x.next[i] != null && traversed + x.span[i] <= rank) {
+                traversed += x.span[i];
+                x = x.next[i];
+            }
+            if (traversed == rank) return x;
+        }
+        return null;
+    }
+
+    private Node insert(UUID playerUUID, int seconds) {
+        Node x = head;
+        for (int i = level - 1; i >= 0; i--) {
+            updateRank[i] = i == level - 1 ? 0 : updateRank[i + 1];
+            while (x.next[i] != null && isBefore(x.next[i], seconds, playerUUID)) {
+                updateRank[i] += x.span[i];
+                x = x.next[i];
+            }
+            update[i] = x;
+        }
+
+        int nodeLevel = randomLevel();
+        if (nodeLevel > level) {
+            for (int i = level; i < nodeLevel; i++) {
+                updateRank[i] = 0;
+                update[i] = head;
+                head.span[i] = nodes.size();
+            }
+            level = nodeLevel;
+        }
+
+        Node node = new Node(playerUUID, seconds, nodeLevel);
+        for (int i = 0; i < nodeLevel; i++) {
+            node.next[i] = update[i].next[i];
+            update[i].next[i] = node;
+            node.span[i] = update[i].span[i] - (updateRank[0] - updateRank[i]);
+            update[i].span[i] = updateRank[0] - updateRank[i] + 1;
+        }
+        // The links above the new node now skip one more player
+        for (int i = nodeLevel; i < level; i++) {
+            update[i].span[i]++;
+        }
+        return node;
+    }
+
+    private void unlink(Node node) {
+        Node x = head;
+        for (int i = level - 1; i >= 0; i--) {
+            while (x.next[i] != null && isBefore(x.next[i], node.seconds, node.playerUUID)) {
+                x = x.next[i];
+            }
+            update[i] = x;
+        }
+
+        for (int i = 0; i < level; i++) {
+            if (update[i].next[i] == node) {
+                update[i].span[i] += node.span[i] - 1;
+                update[i].next[i] = node.next[i];
+            } else {
+                update[i].span[i]--;
+            }
+        }
+        while (level > 1 && head.next[level - 1] == null) {
+            level--;
+        }
+    }
+
+    private static boolean isBefore(Node node, Node other) {
+        return isBefore(node, other.seconds, other.playerUUID);
+    }
+
+    private static boolean isBefore(Node node, int seconds, UUID playerUUID) {
+        if (node.seconds != seconds) return node.seconds > seconds;
+        return node.playerUUID.compareTo(playerUUID) < 0;
+    }
+
+    private static int randomLevel() {
+        int nodeLevel = 1;
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        while (nodeLevel < MAX_LEVEL && random.nextDouble() < LEVEL_PROBABILITY) {
+            nodeLevel++;
+        }
+        return nodeLevel;
+    }
+
+    private static final class Node {
+        private final UUID playerUUID;
+        private final int seconds;
+        private final Node[] next;
+        // The number of players each link skips, including the player it points to
+        private final int[] span;
+
+        private Node(UUID playerUUID, int seconds, int level) {
+            this.playerUUID = playerUUID;
+            this.seconds = seconds;
+            this.next = new Node[level];
+            this.span = new int[level];
+        }
+    }
+}
@@ -0,0 +1,82 @@
+//********************************************************************************************
+// Author:      V01D-PH03N1X (PinguBasti), TrueConnective Paul & Stolle GbR
+// Project:     TrueConnective Paper Plugin
+// Description: Management Plugin for Paper Servers (Minecraft)
+//********************************************************************************************
+package me.mydark.trueconnectiveplugin.manager;
+
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import me.mydark.trueconnectiveplugin.dto.PlayerProfile;
+
+/**
+ * Caches the profiles of players for the duration of their session.
+ * Profiles are preloaded during the async pre-login and picked up when the player joins,
+ * so joining doesn't need any database query.
+ * A login can still fail after the pre-login, so a preloaded profile expires if the player doesn't join in time.
+ */
+public class ProfileManager {
+    // How long a preloaded profile waits for the join, longer than the configuration phase of a login
+    private static final long PRELOAD_TTL_NANOS = TimeUnit.SECONDS.toNanos(60);
+
+    private final Map<UUID, PreloadedProfile> preloadedProfiles = new ConcurrentHashMap<>();
+    private final Map<UUID, PlayerProfile> profiles = new ConcurrentHashMap<>();
+
+    /**
+     * Stores a profile that was loaded before the player joined.
+     *
+     * @param profile The preloaded profile.
+     */
+    public void preload(PlayerProfile profile) {
+        long now = System.nanoTime();
+        // Drop the profiles of logins that failed after the pre-login
+        preloadedProfiles.values().removeIf(preloaded -> preloaded.expiresAt() - now <= 0);
+        preloadedProfiles.put(profile.uuid(), new PreloadedProfile(profile, now + PRELOAD_TTL_NANOS));
+    }
+
+    /**
+     * Takes the preloaded profile of a joining player and keeps it for their session.
+     *
+     * @param playerUUID The UUID of the joining player.
+     * @return The profile of the player, or null if it wasn't preloaded or has expired.
+     */
+    public PlayerProfile activate(UUID playerUUID) {
+        PreloadedProfile preloaded = preloadedProfiles.remove(playerUUID);
+        if (preloaded == null || preloaded.expiresAt() - System.nanoTime() <= 0) return null;
+        profiles.put(playerUUID, preloaded.profile());
+        return preloaded.profile();
+    }
+
+    /**
+     * Keeps a profile that was loaded after the player joined for their session.
+     *
+     * @param profile The loaded profile.
+     */
+    public void activate(PlayerProfile profile) {
+        profiles.put(profile.uuid(), profile);
+    }
+
+    /**
+     * Retrieves the profile of an online player.
+     *
+     * @param playerUUID The UUID of the player.
+     * @return The profile of the player, or null if the player is not online.
+     */
+    public PlayerProfile getProfile(UUID playerUUID) {
+        return profiles.get(playerUUID);
+    }
+
+    /**
+     * Removes the profile of a player that left.
+     *
+     * @param playerUUID The UUID of the player.
+     */
+    public void remove(UUID playerUUID) {
+        preloadedProfiles.remove(playerUUID);
+        profiles.remove(playerUUID);
+    }
+
+    private record PreloadedProfile(PlayerProfile profile, long expiresAt) {}
+}
@@ -0,0 +1,118 @@
+//********************************************************************************************
+// Author:      V01D-PH03N1X (PinguBasti), TrueConnective Paul & Stolle GbR
+// Project:     TrueConnective Paper Plugin
+// Description: Management Plugin for Paper Servers (Minecraft)
+//********************************************************************************************
+package me.mydark.trueconnectiveplugin.manager;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Locale;
+import java.util.Map;
+import lombok.extern.slf4j.Slf4j;
+import me.mydark.trueconnectiveplugin.manager.MetricsRegistry.MetricName;
+
+/**
+ * Writes the metrics in the Prometheus text format to a file, e.g. for the textfile collector of the node exporter.
+ * The file is replaced atomically, so a collector never reads a partially written file.
+ */
+@Slf4j
+public class PrometheusExporter {
+    private static final String PREFIX = "trueconnective_";
+
+    private final MetricsRegistry metricsRegistry;
+    private final Path file;
+
+    public PrometheusExporter(MetricsRegistry metricsRegistry, Path file) {
+        this.metricsRegistry = metricsRegistry;
+        this.file = file;
+    }
+
+    /**
+     * Writes the current metrics to the file. Must not be called on the main thread.
+     */
+    public void export() {
+        try {
+            Path directory = file.toAbsolutePath().getParent();
+            if (directory != null) Files.createDirectories(directory);
+            Path temporaryFile = file.resolveSibling(file.getFileName() + ".tmp");
+            Files.writeString(temporaryFile, format(), StandardCharsets.UTF_8);
+            Files.move(temporaryFile, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            log.warn("Failed to write the metrics to {}: {}", file, e.getMessage());
+        }
+    }
+
+    private String format() {
+        StringBuilder text = new StringBuilder();
+        String currentFamily = null;
+        for (Map.Entry<MetricName, LatencyHistogram> entry : metricsRegistry.getTimers().entrySet()) {
+            String family = PREFIX + entry.getKey().category() + "_duration_seconds";
+            if (!family.equals(currentFamily)) {
+                text.append("# TYPE ").append(family).append(" histogram\n");
+                currentFamily = family;
+            }
+            appendHistogram(text, family, label(entry.getKey()), entry.getValue().snapshot());
+        }
+        for (Map.Entry<MetricName, Long> entry : metricsRegistry.getValues().entrySet()) {
+            String family = PREFIX + entry.getKey().category();
+            if (!family.equals(currentFamily)) {
+                text.append("# TYPE ").append(family).append(" untyped\n");
+                currentFamily = family;
+            }
+            text.append(family)
+                    .append('{')
+                    .append(label(entry.getKey()))
+                    .append("} ")
+                    .append(entry.getValue())
+                    .append('\n');
+        }
+        return text.toString();
+    }
+
+    private static void appendHistogram(
+            StringBuilder text, String family, String label, LatencyHistogram.Snapshot snapshot) {
+        long cumulative = 0;
+        long[] buckets = snapshot.buckets();
+        for (int i = 0; i < buckets.length; i++) {
+            cumulative += buckets[i];
+            // Empty leading buckets carry no information, only the cumulative counts matter
+            if (cumulative == 0 && i < buckets.length - 1) continue;
+            long upperBound = LatencyHistogram.upperBoundNanos(i);
+            String le = upperBound == Long.MAX_VALUE ? "+Inf" : seconds(upperBound);
+            text.append(family)
+                    .append("_bucket{")
+                    .append(label)
+                    .append(",le=\"")
+                    .append(le)
+                    .append("\"} ")
+                    .append(cumulative)
+                    .append('\n');
+        }
+        text.append(family)
+                .append("_sum{")
+                .append(label)
+                .append("} ")
+                .append(seconds(snapshot.totalNanos()))
+                .append('\n');
+        // The count is taken from the buckets, so it always matches the +Inf bucket
+        text.append(family)
+                .append("_count{")
+                .append(label)
+                .append("} ")
+                .append(cumulative)
+                .append('\n');
+    }
+
+    private static String label(MetricName name) {
+        String escaped = name.name().replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n");
+        return "name=\"" + escaped + "\"";
+    }
+
+    private static String seconds(long nanos) {
+        return String.format(Locale.ROOT, "%.9f", nanos / 1e9);
+    }
+}
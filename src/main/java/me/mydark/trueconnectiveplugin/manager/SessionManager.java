@@ -0,0 +1,250 @@
+//********************************************************************************************
+// Author:      V01D-PH03N1X (PinguBasti), TrueConnective Paul & Stolle GbR
+// Project:     TrueConnective Paper Plugin
+// Description: Management Plugin for Paper Servers (Minecraft)
+//********************************************************************************************
+package me.mydark.trueconnectiveplugin.manager;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import lombok.extern.slf4j.Slf4j;
+import me.mydark.trueconnectiveplugin.dto.PlayerSession;
+import me.mydark.trueconnectiveplugin.dto.PlayerSettings;
+import me.mydark.trueconnectiveplugin.dto.QuotaPolicy;
+import me.mydark.trueconnectiveplugin.manager.TaskScheduler.Task;
+import org.bukkit.entity.Player;
+
+/**
+ * Registry of the sessions of all online players.
+ * On Paper a single plugin-wide ticker serves the playtime check, the action bar and the boss bar of every session,
+ * so the scheduler overhead stays the same no matter how many players are online.
+ * On Folia the players are spread over the region threads, so every session gets its own ticker
+ * on the entity scheduler of the player instead, which runs on the thread of the player's region.
+ */
+@Slf4j
+public class SessionManager {
+    private static final long TICK_INTERVAL = 20L; // 20L = 1 second
+    private static final int QUOTA_REFRESH_INTERVAL = 60; // Ticker runs between two quota resolutions = 1 minute
+
+    private final TaskScheduler scheduler;
+    private final PlayTimeManager playTimeManager;
+
+    // Opened and closed on the region threads of the players on Folia
+    private final Map<UUID, PlayerSession> sessions = new ConcurrentHashMap<>();
+    // The sessions served by the plugin-wide ticker on Paper
+    private final List<PlayerSession> activeSessions = new ArrayList<>();
+    // The tickers of the sessions on Folia
+    private final Map<UUID, Task> sessionTickers = new ConcurrentHashMap<>();
+
+    private final LatencyHistogram tickTimer;
+    private final LatencyHistogram playtimeCheckTimer;
+    private final LatencyHistogram actionBarTimer;
+    private final LatencyHistogram bossBarTimer;
+
+    private Task ticker;
+    private boolean ticking;
+    // Copy of the number of sessions for the metrics, which are read from other threads
+    private volatile int sessionCount;
+
+    public SessionManager(TaskScheduler scheduler, PlayTimeManager playTimeManager, MetricsRegistry metricsRegistry) {
+        this.scheduler = scheduler;
+        this.playTimeManager = playTimeManager;
+        this.tickTimer = metricsRegistry.timer(MetricsRegistry.TASK, "session-tick");
+        this.playtimeCheckTimer = metricsRegistry.timer(MetricsRegistry.TASK, "playtime-check");
+        this.actionBarTimer = metricsRegistry.timer(MetricsRegistry.TASK, "action-bar");
+        this.bossBarTimer = metricsRegistry.timer(MetricsRegistry.TASK, "boss-bar");
+        metricsRegistry.gauge(MetricsRegistry.SESSION, "online", () -> sessionCount);
+    }
+
+    /**
+     * Starts the session ticker. On Folia the tickers are started per session when it's opened.
+     */
+    public void start() {
+        if (scheduler.isRegionized()) return;
+        ticker = scheduler.runGlobalTimer(this::tick, TICK_INTERVAL, TICK_INTERVAL);
+    }
+
+    /**
+     * Stops the session ticker and closes all sessions.
+     */
+    public void stop() {
+        if (ticker != null) {
+            ticker.cancel();
+            ticker = null;
+        }
+        sessionTickers.values().forEach(Task::cancel);
+        sessionTickers.clear();
+        sessions.values().forEach(PlayerSession::close);
+        activeSessions.clear();
+        sessions.clear();
+        sessionCount = 0;
+    }
+
+    /**
+     * Opens the session of a player whose data has been loaded.
+     *
+     * @param player The player to open the session for.
+     * @param playerSettings The settings of the player.
+     * @param quotaPolicy The resolved quota of the player.
+     * @return The opened session.
+     */
+    public PlayerSession openSession(Player player, PlayerSettings playerSettings, QuotaPolicy quotaPolicy) {
+        PlayerSession session = new PlayerSession(player, playerSettings, quotaPolicy);
+        PlayerSession previous = sessions.put(player.getUniqueId(), session);
+        if (previous != null) {
+            previous.close();
+            if (!ticking) activeSessions.remove(previous);
+        }
+        sessionCount = sessions.size();
+
+        if (scheduler.isRegionized()) {
+            Task sessionTicker =
+                    scheduler.runAtEntityTimer(player, () -> tickSession(session), TICK_INTERVAL, TICK_INTERVAL);
+            Task previousTicker = sessionTicker == null
+                    ? sessionTickers.remove(player.getUniqueId())
+                    : sessionTickers.put(player.getUniqueId(), sessionTicker);
+            if (previousTicker != null) previousTicker.cancel();
+        } else {
+            activeSessions.add(session);
+        }
+        return session;
+    }
+
+    /**
+     * Closes the session of a player and removes their boss bar.
+     *
+     * @param player The player whose session is to be closed.
+     */
+    public void closeSession(Player player) {
+        PlayerSession session = sessions.remove(player.getUniqueId());
+        if (session == null) return;
+        sessionCount = sessions.size();
+        Task sessionTicker = sessionTickers.remove(player.getUniqueId());
+        if (sessionTicker != null) sessionTicker.cancel();
+
+        // A kick during the ticker run closes the session while it is iterated,
+        // in that case it is removed from the active sessions on the next ticker run.
+        session.close();
+        if (!ticking) activeSessions.remove(session);
+        if (session.isBossbarEnabled()) playTimeManager.removeBossBar(player);
+    }
+
+    /**
+     * Resolves the quota of a player again, e.g. after they changed the world and their permissions may differ.
+     *
+     * @param player The player whose quota is to be resolved.
+     */
+    public void refreshQuotaPolicy(Player player) {
+        PlayerSession session = sessions.get(player.getUniqueId());
+        if (session != null) session.setQuotaPolicy(playTimeManager.resolveQuotaPolicy(player));
+    }
+
+    /**
+     * Resolves the quota of all online players again on their next tick, e.g. after the config was reloaded.
+     */
+    public void refreshQuotaPolicies() {
+        for (PlayerSession session : sessions.values()) {
+            Player player = session.getPlayer();
+            scheduler.runAtEntity(
+                    player, () -> session.setQuotaPolicy(playTimeManager.resolveQuotaPolicy(player)));
+        }
+    }
+
+    /**
+     * Returns the session of an online player.
+     *
+     * @param playerUUID The UUID of the player.
+     * @return The session of the player, or null if the player has no session.
+     */
+    public PlayerSession getSession(UUID playerUUID) {
+        return sessions.get(playerUUID);
+    }
+
+    /**
+     * Returns the number of open sessions.
+     *
+     * @return The number of open sessions.
+     */
+    public int getSessionCount() {
+        return sessions.size();
+    }
+
+    private void tick() {
+        long start = System.nanoTime();
+        activeSessions.removeIf(PlayerSession::isClosed);
+
+        ticking = true;
+        try {
+            tickSessions();
+        } finally {
+            ticking = false;
+            tickTimer.recordSince(start);
+        }
+    }
+
+    private void tickSessions() {
+        // The work of all sessions is summed up, so each timer records the main thread time of one ticker run
+        TickTimes tickTimes = new TickTimes();
+        for (int i = 0; i < activeSessions.size(); i++) {
+            tickSession(activeSessions.get(i), tickTimes);
+        }
+        tickTimes.record();
+    }
+
+    /**
+     * Ticks a single session on Folia, on the thread of the player's region.
+     * Each timer records the time of one session there.
+     */
+    private void tickSession(PlayerSession session) {
+        if (session.isClosed()) return;
+        long start = System.nanoTime();
+        TickTimes tickTimes = new TickTimes();
+        tickSession(session, tickTimes);
+        tickTimes.record();
+        tickTimer.recordSince(start);
+    }
+
+    private void tickSession(PlayerSession session, TickTimes tickTimes) {
+        Player player = session.getPlayer();
+
+        if (session.isQuotaRefreshDue(QUOTA_REFRESH_INTERVAL)) {
+            // Bukkit has no event for changed permissions, so the quota is resolved again periodically
+            session.setQuotaPolicy(playTimeManager.resolveQuotaPolicy(player));
+        }
+        // Deriving the playtime is cheap, so the limit is checked with every run
+        long start = System.nanoTime();
+        playTimeManager.checkPlaytime(player, session.getQuotaPolicy());
+        long end = System.nanoTime();
+        tickTimes.playtimeCheckNanos += end - start;
+        // The playtime check may have kicked the player
+        if (session.isClosed()) return;
+
+        QuotaPolicy quotaPolicy = session.getQuotaPolicy();
+        if (session.isActionbarEnabled()) {
+            start = end;
+            playTimeManager.actionBarTask(player, quotaPolicy);
+            end = System.nanoTime();
+            tickTimes.actionBarNanos += end - start;
+        }
+        if (session.isBossbarEnabled()) {
+            start = end;
+            playTimeManager.playtimeBossbarTask(player, quotaPolicy);
+            tickTimes.bossBarNanos += System.nanoTime() - start;
+        }
+    }
+
+    private final class TickTimes {
+        private long playtimeCheckNanos;
+        private long actionBarNanos;
+        private long bossBarNanos;
+
+        private void record() {
+            playtimeCheckTimer.record(playtimeCheckNanos);
+            actionBarTimer.record(actionBarNanos);
+            bossBarTimer.record(bossBarNanos);
+        }
+    }
+}
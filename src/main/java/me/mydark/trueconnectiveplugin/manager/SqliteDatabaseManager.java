@@ -0,0 +1,525 @@
+//********************************************************************************************
+// Author:      V01D-PH03N1X (PinguBasti), TrueConnective Paul & Stolle GbR
+// Project:     TrueConnective Paper Plugin
+// Description: Management Plugin for Paper Servers (Minecraft)
+//********************************************************************************************
+package me.mydark.trueconnectiveplugin.manager;
+
+import java.io.File;
+import java.sql.*;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import lombok.extern.slf4j.Slf4j;
+import me.mydark.trueconnectiveplugin.dto.PlayerSettings;
+
+/**
+ * Storage in a local SQLite database file, the default for a single server.
+ * All statements share one connection and are prepared once, see {@link StatementCache}.
+ * The schema is versioned with PRAGMA user_version and migrated on startup.
+ */
+@Slf4j
+public class SqliteDatabaseManager extends JdbcDatabaseManager {
+    private final String databaseUrl;
+    private final StatementCache statementCache;
+
+    private Connection connection;
+    // The number of nested transactions running on the connection, statements in a transaction are never retried
+    private int transactionDepth;
+
+    // Format of the last_login column before schema version 2
+    private static final DateTimeFormatter LEGACY_DATE_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd");
+
+    // Schema version 1, the tables as they were created before the schema was versioned
+    private static final String CREATE_TIKTOK_TABLE_V1_SQL =
+            "CREATE TABLE IF NOT EXISTS TikTokPlayers (uuid TEXT PRIMARY KEY, username TEXT)";
+    private static final String CREATE_PLAYER_TIMES_TABLE_V1_SQL =
+            "CREATE TABLE IF NOT EXISTS PlayerTimes (uuid TEXT PRIMARY KEY, playtime INTEGER, last_login TEXT)";
+    private static final String CREATE_PLAYER_SETTINGS_TABLE_V1_SQL =
+            "CREATE TABLE IF NOT EXISTS PlayerSettings (uuid TEXT PRIMARY KEY, actionbar_enabled BOOLEAN DEFAULT TRUE, bossbar_enabled BOOLEAN DEFAULT TRUE, joined_before BOOLEAN DEFAULT FALSE)";
+
+    // TikTok SQL Queries, the uuid is stored as 16 byte BLOB
+    private static final String CREATE_TIKTOK_TABLE_SQL =
+            "CREATE TABLE TikTokPlayers (uuid BLOB PRIMARY KEY, username TEXT) WITHOUT ROWID";
+    private static final String INSERT_OR_REPLACE_TIKTOK_USERNAME_SQL =
+            "INSERT OR REPLACE INTO TikTokPlayers (uuid, username) VALUES (?, ?)";
+
+    // PlayerTimes SQL Queries, the last_login is stored as epoch day
+    private static final String CREATE_PLAYER_TIMES_TABLE_SQL =
+            "CREATE TABLE PlayerTimes (uuid BLOB PRIMARY KEY, playtime INTEGER, last_login INTEGER) WITHOUT ROWID";
+    private static final String INSERT_OR_REPLACE_PLAYTIME_SQL =
+            "INSERT OR REPLACE INTO PlayerTimes (uuid, playtime, last_login) VALUES (?, ?, ?)";
+
+    // Schema version 2, the settings before they were packed into flags
+    private static final String CREATE_PLAYER_SETTINGS_TABLE_V2_SQL =
+            "CREATE TABLE PlayerSettings (uuid BLOB PRIMARY KEY, actionbar_enabled BOOLEAN DEFAULT TRUE, bossbar_enabled BOOLEAN DEFAULT TRUE, joined_before BOOLEAN DEFAULT FALSE) WITHOUT ROWID";
+    private static final String INSERT_OR_REPLACE_PLAYER_SETTINGS_V2_SQL =
+            "INSERT OR REPLACE INTO PlayerSettings (uuid, actionbar_enabled, bossbar_enabled, joined_before) VALUES (?, ?, ?, ?)";
+
+    // PlayerSettings SQL Queries
+    private static final String CREATE_PLAYER_SETTINGS_TABLE_SQL =
+            "CREATE TABLE PlayerSettings (uuid BLOB PRIMARY KEY, flags INTEGER NOT NULL) WITHOUT ROWID";
+    private static final String INSERT_OR_REPLACE_PLAYER_SETTINGS_SQL =
+            "INSERT OR REPLACE INTO PlayerSettings (uuid, flags) VALUES (?, ?)";
+
+    // PlayerDirectory SQL Queries
+    private static final String CREATE_PLAYER_DIRECTORY_TABLE_SQL =
+            "CREATE TABLE PlayerDirectory (uuid BLOB PRIMARY KEY, name TEXT NOT NULL, lower_name TEXT NOT NULL, last_seen INTEGER NOT NULL) WITHOUT ROWID";
+    private static final String CREATE_PLAYER_DIRECTORY_NAME_INDEX_SQL =
+            "CREATE INDEX PlayerDirectory_lower_name ON PlayerDirectory (lower_name)";
+    private static final String INSERT_OR_REPLACE_PLAYER_DIRECTORY_SQL =
+            "INSERT OR REPLACE INTO PlayerDirectory (uuid, name, lower_name, last_seen) VALUES (?, ?, ?, ?)";
+
+    // Network SQL Queries, see JdbcDatabaseManager
+    private static final String CREATE_PLAYTIME_CONTRIBUTIONS_TABLE_SQL =
+            "CREATE TABLE PlaytimeContributions (uuid BLOB NOT NULL, day INTEGER NOT NULL, server_id TEXT NOT NULL, playtime INTEGER NOT NULL, version INTEGER NOT NULL, PRIMARY KEY (uuid, day, server_id)) WITHOUT ROWID";
+    private static final String CREATE_PLAYTIME_CONTRIBUTIONS_VERSION_INDEX_SQL =
+            "CREATE INDEX PlaytimeContributions_server_version ON PlaytimeContributions (server_id, version)";
+    private static final String CREATE_NETWORK_SERVERS_TABLE_SQL =
+            "CREATE TABLE NetworkServers (server_id TEXT PRIMARY KEY, version INTEGER NOT NULL) WITHOUT ROWID";
+    private static final String INSERT_OR_REPLACE_PLAYTIME_CONTRIBUTION_SQL =
+            "INSERT OR REPLACE INTO PlaytimeContributions (uuid, day, server_id, playtime, version) VALUES (?, ?, ?, ?, ?)";
+    private static final String INSERT_OR_REPLACE_NETWORK_SERVER_SQL =
+            "INSERT OR REPLACE INTO NetworkServers (server_id, version) VALUES (?, ?)";
+
+    // Session Log SQL Queries, see JdbcDatabaseManager. The sessions are only appended, so they keep the rowid
+    private static final String CREATE_PLAYTIME_SESSIONS_TABLE_SQL =
+            "CREATE TABLE PlaytimeSessions (uuid BLOB NOT NULL, server_id TEXT NOT NULL, day INTEGER NOT NULL, joined_at INTEGER NOT NULL, left_at INTEGER NOT NULL, seconds INTEGER NOT NULL)";
+    private static final String CREATE_PLAYTIME_SESSIONS_DAY_INDEX_SQL =
+            "CREATE INDEX PlaytimeSessions_server_day ON PlaytimeSessions (server_id, day)";
+    private static final String CREATE_PLAYTIME_ROLLUPS_TABLE_SQL =
+            "CREATE TABLE PlaytimeRollups (uuid BLOB NOT NULL, day INTEGER NOT NULL, server_id TEXT NOT NULL, seconds INTEGER NOT NULL, PRIMARY KEY (uuid, day, server_id)) WITHOUT ROWID";
+    private static final String UPSERT_SESSION_ROLLUPS_SQL =
+            "INSERT INTO PlaytimeRollups (uuid, day, server_id, seconds) "
+                    + "SELECT uuid, day, server_id, SUM(seconds) FROM PlaytimeSessions WHERE server_id = ? AND day < ? "
+                    + "GROUP BY uuid, day, server_id "
+                    + "ON CONFLICT (uuid, day, server_id) DO UPDATE SET seconds = seconds + excluded.seconds";
+
+    // How long a connection waits for another server that is writing to the same database file
+    private static final int BUSY_TIMEOUT_MILLIS = 5000;
+
+    // Schema migrations in the order they are applied, the version is stored in PRAGMA user_version
+    private final List<Migration> migrations = List.of(
+            new Migration(1, "create tables", this::createTablesV1),
+            new Migration(2, "compact UUID keys and epoch day dates", this::migrateToCompactKeys),
+            new Migration(3, "packed player settings flags", this::migrateToSettingsFlags),
+            new Migration(4, "network playtime contributions", this::createNetworkTables),
+            new Migration(5, "session log and daily rollups", this::createSessionLogTables),
+            new Migration(6, "player directory", this::createPlayerDirectoryTable));
+
+    /**
+     * Constructor for SqliteDatabaseManager with a custom database file, e.g. for benchmarks.
+     * Initializes the database and tables.
+     *
+     * @param databaseFile The SQLite database file.
+     */
+    public SqliteDatabaseManager(File databaseFile) {
+        this(databaseFile, null, new MetricsRegistry());
+    }
+
+    /**
+     * Constructor for SqliteDatabaseManager.
+     * Initializes the database and tables.
+     *
+     * @param databaseFile    The SQLite database file.
+     * @param serverId        The id of this server in the network, or null outside of network mode.
+     *                        In network mode the database file is shared by the servers of the network.
+     * @param metricsRegistry The registry the execution time of the queries is recorded in.
+     */
+    public SqliteDatabaseManager(File databaseFile, String serverId, MetricsRegistry metricsRegistry) {
+        super(
+                new Upserts(
+                        INSERT_OR_REPLACE_TIKTOK_USERNAME_SQL,
+                        INSERT_OR_REPLACE_PLAYTIME_SQL,
+                        INSERT_OR_REPLACE_PLAYER_SETTINGS_SQL,
+                        INSERT_OR_REPLACE_PLAYER_DIRECTORY_SQL,
+                        INSERT_OR_REPLACE_PLAYTIME_CONTRIBUTION_SQL,
+                        INSERT_OR_REPLACE_NETWORK_SERVER_SQL,
+                        UPSERT_SESSION_ROLLUPS_SQL),
+                serverId);
+        this.databaseUrl = "jdbc:sqlite:" + databaseFile.getPath();
+        this.statementCache = new StatementCache(metricsRegistry);
+        // Initialize Database and Tables.
+        initializeDatabase(databaseFile.getAbsoluteFile().getParentFile());
+    }
+
+    /**
+     * Initializes the database and tables.
+     *
+     * @param pluginFolder The folder the database file is stored in.
+     */
+    private void initializeDatabase(File pluginFolder) {
+        // Create directory if it is not existing
+        if (!pluginFolder.exists()) {
+            if (pluginFolder.mkdirs()) {
+                log.info("Creating Plugin directory: {}", pluginFolder.getAbsolutePath());
+            } else {
+                log.error("Couldn't create plugin directory: {}", pluginFolder.getAbsolutePath());
+            }
+        }
+        // Connect to the database.
+        connect();
+
+        migrateSchema();
+        initializeNetwork();
+    }
+
+    /*
+     * Database Schema Area
+     */
+
+    /**
+     * Applies all migrations that are newer than the schema version of the database.
+     * Every migration runs in its own transaction together with the update of the schema version.
+     */
+    private void migrateSchema() {
+        try {
+            int schemaVersion = getSchemaVersion();
+            for (Migration migration : migrations) {
+                if (migration.version() <= schemaVersion) continue;
+
+                log.info("Migrating database to version {}: {}", migration.version(), migration.description());
+                inTransaction(() -> {
+                    migration.action().run();
+                    setSchemaVersion(migration.version());
+                });
+            }
+        } catch (SQLException e) {
+            log.error("Failed to migrate database: {}", e.getMessage());
+        }
+    }
+
+    private int getSchemaVersion() throws SQLException {
+        try (Statement statement = getConnection().createStatement();
+                ResultSet resultSet = statement.executeQuery("PRAGMA user_version")) {
+            return resultSet.next() ? resultSet.getInt(1) : 0;
+        }
+    }
+
+    private void setSchemaVersion(int version) throws SQLException {
+        try (Statement statement = getConnection().createStatement()) {
+            // PRAGMA statements don't support parameters
+            statement.executeUpdate("PRAGMA user_version = " + version);
+        }
+    }
+
+    /**
+     * Version 1: Creates the original tables, which already exist in databases from before the schema was versioned.
+     */
+    private void createTablesV1() throws SQLException {
+        try (Statement statement = getConnection().createStatement()) {
+            statement.executeUpdate(CREATE_TIKTOK_TABLE_V1_SQL);
+            statement.executeUpdate(CREATE_PLAYER_TIMES_TABLE_V1_SQL);
+            statement.executeUpdate(CREATE_PLAYER_SETTINGS_TABLE_V1_SQL);
+        }
+    }
+
+    /**
+     * Version 2: Rebuilds all tables with 16 byte BLOB keys as WITHOUT ROWID tables
+     * and converts the last_login column to an epoch day.
+     */
+    private void migrateToCompactKeys() throws SQLException {
+        try (Statement statement = getConnection().createStatement()) {
+            statement.executeUpdate("ALTER TABLE TikTokPlayers RENAME TO TikTokPlayers_v1");
+            statement.executeUpdate("ALTER TABLE PlayerTimes RENAME TO PlayerTimes_v1");
+            statement.executeUpdate("ALTER TABLE PlayerSettings RENAME TO PlayerSettings_v1");
+            statement.executeUpdate(CREATE_TIKTOK_TABLE_SQL);
+            statement.executeUpdate(CREATE_PLAYER_TIMES_TABLE_SQL);
+            statement.executeUpdate(CREATE_PLAYER_SETTINGS_TABLE_V2_SQL);
+        }
+
+        copyRows(
+                "SELECT uuid, username FROM TikTokPlayers_v1",
+                INSERT_OR_REPLACE_TIKTOK_USERNAME_SQL,
+                (row, insert) -> insert.setString(2, row.getString("username")));
+        copyRows(
+                "SELECT uuid, playtime, last_login FROM PlayerTimes_v1",
+                INSERT_OR_REPLACE_PLAYTIME_SQL,
+                (row, insert) -> {
+                    insert.setInt(2, row.getInt("playtime"));
+                    insert.setLong(3, parseLegacyDate(row.getString("last_login")));
+                });
+        copyRows(
+                "SELECT uuid, actionbar_enabled, bossbar_enabled, joined_before FROM PlayerSettings_v1",
+                INSERT_OR_REPLACE_PLAYER_SETTINGS_V2_SQL,
+                (row, insert) -> {
+                    insert.setBoolean(2, row.getBoolean("actionbar_enabled"));
+                    insert.setBoolean(3, row.getBoolean("bossbar_enabled"));
+                    insert.setBoolean(4, row.getBoolean("joined_before"));
+                });
+
+        try (Statement statement = getConnection().createStatement()) {
+            statement.executeUpdate("DROP TABLE TikTokPlayers_v1");
+            statement.executeUpdate("DROP TABLE PlayerTimes_v1");
+            statement.executeUpdate("DROP TABLE PlayerSettings_v1");
+        }
+    }
+
+    /**
+     * Schema version 3: Packs the settings of a player into a single flags column.
+     * Only the bits that differ from the default settings are stored. Rows of players that haven't joined
+     * before only held the defaults and are dropped, they are stored again when the player joins.
+     */
+    private void migrateToSettingsFlags() throws SQLException {
+        try (Statement statement = getConnection().createStatement()) {
+            statement.executeUpdate("ALTER TABLE PlayerSettings RENAME TO PlayerSettings_v2");
+            statement.executeUpdate(CREATE_PLAYER_SETTINGS_TABLE_SQL);
+            int migrated = statement.executeUpdate("INSERT INTO PlayerSettings (uuid, flags) "
+                    + "SELECT uuid, (CASE WHEN actionbar_enabled THEN 0 ELSE " + PlayerSettings.ACTIONBAR + " END) "
+                    + "| (CASE WHEN bossbar_enabled THEN 0 ELSE " + PlayerSettings.BOSSBAR + " END) "
+                    + "FROM PlayerSettings_v2 WHERE joined_before");
+            statement.executeUpdate("DROP TABLE PlayerSettings_v2");
+            log.info("Migrated {} player settings to flags", migrated);
+        }
+    }
+
+    /**
+     * Schema version 4: Creates the tables of the network mode, see {@link JdbcDatabaseManager}.
+     * They are created in every database, so a server can join a network later on.
+     */
+    private void createNetworkTables() throws SQLException {
+        try (Statement statement = getConnection().createStatement()) {
+            statement.executeUpdate(CREATE_PLAYTIME_CONTRIBUTIONS_TABLE_SQL);
+            statement.executeUpdate(CREATE_PLAYTIME_CONTRIBUTIONS_VERSION_INDEX_SQL);
+            statement.executeUpdate(CREATE_NETWORK_SERVERS_TABLE_SQL);
+        }
+    }
+
+    /**
+     * Schema version 5: Creates the session log and the daily rollups it is compacted into.
+     */
+    private void createSessionLogTables() throws SQLException {
+        try (Statement statement = getConnection().createStatement()) {
+            statement.executeUpdate(CREATE_PLAYTIME_SESSIONS_TABLE_SQL);
+            statement.executeUpdate(CREATE_PLAYTIME_SESSIONS_DAY_INDEX_SQL);
+            statement.executeUpdate(CREATE_PLAYTIME_ROLLUPS_TABLE_SQL);
+        }
+    }
+
+    /**
+     * Schema version 6: Creates the player directory. It's filled from the offline players of the server
+     * when the plugin is enabled, see {@link PlayerDirectory}.
+     */
+    private void createPlayerDirectoryTable() throws SQLException {
+        try (Statement statement = getConnection().createStatement()) {
+            statement.executeUpdate(CREATE_PLAYER_DIRECTORY_TABLE_SQL);
+            statement.executeUpdate(CREATE_PLAYER_DIRECTORY_NAME_INDEX_SQL);
+        }
+    }
+
+    /**
+     * Copies all rows of a table with a TEXT uuid column into a table with a BLOB uuid column.
+     * Rows with an invalid UUID are skipped.
+     *
+     * @param selectSql The query for the rows to copy, including the uuid column.
+     * @param insertSql The insert statement, with the uuid as first parameter.
+     * @param copier    Sets the remaining parameters of the insert statement from a row.
+     */
+    private void copyRows(String selectSql, String insertSql, RowCopier copier) throws SQLException {
+        Connection migrationConnection = getConnection();
+        int copied = 0;
+        try (Statement select = migrationConnection.createStatement();
+                ResultSet row = select.executeQuery(selectSql);
+                PreparedStatement insert = migrationConnection.prepareStatement(insertSql)) {
+            while (row.next()) {
+                UUID playerUUID = parseLegacyUUID(row.getString("uuid"));
+                if (playerUUID == null) continue;
+
+                insert.setBytes(1, toBytes(playerUUID));
+                copier.copy(row, insert);
+                insert.addBatch();
+                copied++;
+            }
+            insert.executeBatch();
+        }
+        log.info("Migrated {} rows: {}", copied, selectSql);
+    }
+
+    @FunctionalInterface
+    private interface RowCopier {
+        void copy(ResultSet row, PreparedStatement insert) throws SQLException;
+    }
+
+    private record Migration(int version, String description, TransactionAction action) {}
+
+    private static UUID parseLegacyUUID(String uuid) {
+        try {
+            return UUID.fromString(uuid);
+        } catch (IllegalArgumentException | NullPointerException e) {
+            log.warn("Skipping row with invalid UUID {}", uuid);
+            return null;
+        }
+    }
+
+    private static long parseLegacyDate(String lastLogin) {
+        try {
+            return LocalDate.parse(lastLogin, LEGACY_DATE_FORMATTER).toEpochDay();
+        } catch (DateTimeParseException | NullPointerException e) {
+            // The epoch is always a past day, so the playtime is reset on the next login
+            return 0;
+        }
+    }
+
+    /*
+     * Database Connection Area
+     */
+
+    /**
+     * Establishes a connection to the SQLite database.
+     */
+    private synchronized void connect() {
+        try {
+            Class.forName("org.sqlite.JDBC");
+            connection = DriverManager.getConnection(databaseUrl);
+            try (Statement statement = connection.createStatement()) {
+                // Wait instead of failing while another server writes to a shared database file
+                statement.executeUpdate("PRAGMA busy_timeout = " + BUSY_TIMEOUT_MILLIS);
+                if (isNetworkMode()) {
+                    // Readers of the other servers don't block the writer and the other way around
+                    statement.execute("PRAGMA journal_mode = WAL");
+                }
+            }
+            log.info("Database connection established");
+        } catch (ClassNotFoundException | SQLException e) {
+            log.error("Database connection failed: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Returns the database connection and reconnects if it has been closed.
+     *
+     * @return The open database connection.
+     * @throws SQLException If the connection can't be established.
+     */
+    public synchronized Connection getConnection() throws SQLException {
+        if (connection == null || connection.isClosed()) {
+            log.warn("Database connection is closed, reconnecting");
+            statementCache.closeAll();
+            connect();
+            if (connection == null) throw new SQLException("Database connection is not available");
+        }
+        return connection;
+    }
+
+    /**
+     * Executes an action with the cached prepared statement for the given SQL.
+     * If the statement fails because the connection broke, the connection is re-established and the action retried once.
+     * Inside a transaction the earlier statements are lost with the connection, so the failure is passed on
+     * and the whole transaction is retried instead, see {@link #inTransaction(TransactionAction)}.
+     *
+     * @param sql    The SQL of the statement.
+     * @param action The action to execute with the statement.
+     * @return The result of the action.
+     * @throws SQLException If the statement fails.
+     */
+    @Override
+    protected <T> T execute(String sql, StatementCache.StatementAction<T> action) throws SQLException {
+        try {
+            return statementCache.execute(getConnection(), sql, action);
+        } catch (SQLException e) {
+            if (isInTransaction() || isConnectionValid()) throw e;
+
+            log.warn("Database connection broke, reconnecting: {}", e.getMessage());
+            reconnect();
+            return statementCache.execute(getConnection(), sql, action);
+        }
+    }
+
+    /**
+     * Executes an action in a single transaction, a nested transaction becomes part of the outer one.
+     * If the connection breaks during the transaction, nothing of it has been applied, so the connection is
+     * re-established and the whole action is retried once.
+     *
+     * @param action The action to execute.
+     * @throws SQLException If the action or the commit fails.
+     */
+    @Override
+    protected synchronized void inTransaction(TransactionAction action) throws SQLException {
+        if (transactionDepth > 0) {
+            action.run();
+            return;
+        }
+
+        try {
+            runTransaction(action);
+        } catch (SQLException e) {
+            if (isConnectionValid()) throw e;
+
+            log.warn("Database connection broke during a transaction, reconnecting: {}", e.getMessage());
+            reconnect();
+            runTransaction(action);
+        }
+    }
+
+    private void runTransaction(TransactionAction action) throws SQLException {
+        Connection transactionConnection = getConnection();
+        transactionConnection.setAutoCommit(false);
+        transactionDepth++;
+        try {
+            action.run();
+            transactionConnection.commit();
+        } catch (SQLException | RuntimeException e) {
+            try {
+                transactionConnection.rollback();
+            } catch (SQLException rollbackException) {
+                // The connection is broken, SQLite rolls the transaction back on its own
+                e.addSuppressed(rollbackException);
+            }
+            throw e;
+        } finally {
+            transactionDepth--;
+            try {
+                transactionConnection.setAutoCommit(true);
+            } catch (SQLException e) {
+                log.warn("Failed to end the transaction on the database connection: {}", e.getMessage());
+            }
+        }
+    }
+
+    private synchronized boolean isInTransaction() {
+        return transactionDepth > 0;
+    }
+
+    private synchronized boolean isConnectionValid() {
+        try {
+            return connection != null && connection.isValid(1);
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+
+    private synchronized void reconnect() {
+        statementCache.closeAll();
+        try {
+            if (connection != null) connection.close();
+        } catch (SQLException e) {
+            log.warn("Failed to close broken database connection: {}", e.getMessage());
+        }
+        connection = null;
+        connect();
+    }
+
+    @Override
+    public Map<String, Long> getStatementExecutionCounts() {
+        return statementCache.getExecutionCounts();
+    }
+
+    /**
+     * Closes all prepared statements and the database connection.
+     */
+    @Override
+    public synchronized void close() {
+        getStatementExecutionCounts().forEach((sql, count) -> log.info("{} executions: {}", count, sql));
+        statementCache.closeAll();
+        try {
+            if (connection != null) connection.close();
+            log.info("Database connection closed");
+        } catch (SQLException e) {
+            log.error("Failed to close database connection: {}", e.getMessage());
+        }
+        connection = null;
+    }
+}
@@ -0,0 +1,116 @@
+//********************************************************************************************
+// Author:      V01D-PH03N1X (PinguBasti), TrueConnective Paul & Stolle GbR
+// Project:     TrueConnective Paper Plugin
+// Description: Management Plugin for Paper Servers (Minecraft)
+//********************************************************************************************
+package me.mydark.trueconnectiveplugin.manager;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Registry of prepared statements that are prepared once per connection and reused for every call.
+ * Each statement is guarded by its own lock, so it can safely be used from multiple threads.
+ * The execution time of every statement is recorded in a timer of the {@link MetricsRegistry}.
+ */
+@Slf4j
+public class StatementCache {
+    private final MetricsRegistry metricsRegistry;
+    private final Map<String, CachedStatement> statements = new ConcurrentHashMap<>();
+
+    public StatementCache(MetricsRegistry metricsRegistry) {
+        this.metricsRegistry = metricsRegistry;
+    }
+
+    /**
+     * Executes an action with the cached prepared statement for the given SQL.
+     * The statement is prepared on first use and again whenever the connection has changed.
+     *
+     * @param connection The connection the statement belongs to.
+     * @param sql        The SQL of the statement.
+     * @param action     The action to execute with the statement.
+     * @return The result of the action.
+     * @throws SQLException If preparing or executing the statement fails.
+     */
+    public <T> T execute(Connection connection, String sql, StatementAction<T> action) throws SQLException {
+        CachedStatement cached = statements.get(sql);
+        if (cached == null) {
+            // The capturing lambda would allocate on every call, so it is only used when the statement is new
+            cached = statements.computeIfAbsent(
+                    sql, key -> new CachedStatement(metricsRegistry.timer(MetricsRegistry.DATABASE, key)));
+        }
+        synchronized (cached) {
+            if (cached.statement == null
+                    || cached.statement.isClosed()
+                    || cached.statement.getConnection() != connection) {
+                closeQuietly(cached.statement);
+                cached.statement = connection.prepareStatement(sql);
+            }
+
+            // Only the execution is timed, not the wait for the lock of the statement
+            long start = System.nanoTime();
+            try {
+                PreparedStatement statement = cached.statement;
+                statement.clearParameters();
+                return action.apply(statement);
+            } finally {
+                cached.latency.recordSince(start);
+            }
+        }
+    }
+
+    /**
+     * Returns how often each statement has been executed since the plugin was enabled.
+     *
+     * @return The execution count per SQL statement, sorted by SQL.
+     */
+    public Map<String, Long> getExecutionCounts() {
+        Map<String, Long> executionCounts = new TreeMap<>();
+        statements.forEach((sql, cached) -> executionCounts.put(sql, cached.latency.getCount()));
+        return executionCounts;
+    }
+
+    /**
+     * Closes all prepared statements. The execution counts are kept.
+     */
+    public void closeAll() {
+        statements.values().forEach(cached -> {
+            synchronized (cached) {
+                closeQuietly(cached.statement);
+                cached.statement = null;
+            }
+        });
+    }
+
+    private void closeQuietly(PreparedStatement statement) {
+        if (statement == null) return;
+        try {
+            statement.close();
+        } catch (SQLException e) {
+            log.warn("Failed to close prepared statement: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * An action executed with a cached prepared statement.
+     * The action must not close the statement.
+     */
+    @FunctionalInterface
+    public interface StatementAction<T> {
+        T apply(PreparedStatement statement) throws SQLException;
+    }
+
+    private static final class CachedStatement {
+        private final LatencyHistogram latency;
+        private PreparedStatement statement;
+
+        private CachedStatement(LatencyHistogram latency) {
+            this.latency = latency;
+        }
+    }
+}
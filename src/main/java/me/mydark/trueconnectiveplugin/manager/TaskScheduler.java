@@ -0,0 +1,105 @@
+//********************************************************************************************
+// Author:      V01D-PH03N1X (PinguBasti), TrueConnective Paul & Stolle GbR
+// Project:     TrueConnective Paper Plugin
+// Description: Management Plugin for Paper Servers (Minecraft)
+//********************************************************************************************
+package me.mydark.trueconnectiveplugin.manager;
+
+import me.mydark.trueconnectiveplugin.TrueConnective;
+import org.bukkit.entity.Entity;
+
+/**
+ * Schedules the tasks of the plugin on the threads the server runs them on.
+ * Paper runs the whole world on the main thread. Folia splits the world into regions that tick on several threads,
+ * there the work on a player runs on the thread of their region, the work that isn't bound to a region
+ * on the global region thread and the exports on the async scheduler.
+ * All delays and periods are in ticks.
+ */
+public interface TaskScheduler {
+
+    /**
+     * Creates the scheduler of the server the plugin runs on.
+     *
+     * @param plugin The instance of the TrueConnective plugin.
+     * @return The Folia scheduler on Folia, the Paper scheduler otherwise.
+     */
+    static TaskScheduler create(TrueConnective plugin) {
+        try {
+            Class.forName("io.papermc.paper.threadedregions.RegionizedServer");
+            return new FoliaTaskScheduler(plugin);
+        } catch (ClassNotFoundException e) {
+            return new PaperTaskScheduler(plugin);
+        }
+    }
+
+    /**
+     * Checks if the world ticks on several threads, so the players have to be served by the thread of their region.
+     *
+     * @return True on Folia, false on Paper.
+     */
+    boolean isRegionized();
+
+    /**
+     * Runs a task on the next tick, on the main thread or the global region thread.
+     *
+     * @param task The task to run.
+     */
+    void runGlobal(Runnable task);
+
+    /**
+     * Runs a task once after a delay, on the main thread or the global region thread.
+     *
+     * @param task       The task to run.
+     * @param delayTicks The delay before the task runs.
+     * @return The scheduled task.
+     */
+    Task runGlobalLater(Runnable task, long delayTicks);
+
+    /**
+     * Runs a task repeatedly, on the main thread or the global region thread.
+     *
+     * @param task        The task to run.
+     * @param delayTicks  The delay before the first run.
+     * @param periodTicks The interval between two runs.
+     * @return The scheduled task.
+     */
+    Task runGlobalTimer(Runnable task, long delayTicks, long periodTicks);
+
+    /**
+     * Runs a task repeatedly off the server threads.
+     *
+     * @param task        The task to run.
+     * @param delayTicks  The delay before the first run.
+     * @param periodTicks The interval between two runs.
+     * @return The scheduled task.
+     */
+    Task runAsyncTimer(Runnable task, long delayTicks, long periodTicks);
+
+    /**
+     * Runs a task on the next tick on the thread that owns an entity.
+     * The task is dropped if the entity has been removed, e.g. because the player left.
+     *
+     * @param entity The entity the task works on.
+     * @param task   The task to run.
+     */
+    void runAtEntity(Entity entity, Runnable task);
+
+    /**
+     * Runs a task repeatedly on the thread that owns an entity, it follows the entity across regions.
+     * The task is cancelled when the entity is removed, e.g. because the player left.
+     *
+     * @param entity      The entity the task works on.
+     * @param task        The task to run.
+     * @param delayTicks  The delay before the first run.
+     * @param periodTicks The interval between two runs.
+     * @return The scheduled task, or null if the entity has already been removed.
+     */
+    Task runAtEntityTimer(Entity entity, Runnable task, long delayTicks, long periodTicks);
+
+    /**
+     * A scheduled task that can be cancelled.
+     */
+    interface Task {
+        void cancel();
+    }
+}
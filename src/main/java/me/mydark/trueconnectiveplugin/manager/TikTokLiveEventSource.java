@@ -0,0 +1,31 @@
+//********************************************************************************************
+// Author:      V01D-PH03N1X (PinguBasti), TrueConnective Paul & Stolle GbR
+// Project:     TrueConnective Paper Plugin
+// Description: Management Plugin for Paper Servers (Minecraft)
+//********************************************************************************************
+package me.mydark.trueconnectiveplugin.manager;
+
+import io.github.jwdeveloper.tiktok.TikTokLive;
+import io.github.jwdeveloper.tiktok.exceptions.TikTokLiveOfflineHostException;
+import io.github.jwdeveloper.tiktok.live.LiveClient;
+
+/**
+ * Live event source that connects to TikTok through the TikTok-Live-Java client.
+ */
+public class TikTokLiveEventSource implements LiveEventSource {
+
+    @Override
+    public LiveConnection connect(String username, Listener listener) {
+        LiveClient client = TikTokLive.newClient(username)
+                .onLiveEnded((liveClient, event) -> listener.onLiveEnded())
+                .onDisconnected((liveClient, event) -> listener.onDisconnected())
+                .build();
+
+        try {
+            client.connect();
+        } catch (TikTokLiveOfflineHostException e) {
+            listener.onLiveEnded();
+        }
+        return client::disconnect;
+    }
+}
@@ -5,35 +5,173 @@
 //********************************************************************************************
 package me.mydark.trueconnectiveplugin.manager;
 
-import io.github.jwdeveloper.tiktok.TikTokLive;
-import io.github.jwdeveloper.tiktok.TikTokLiveMessageHandler;
-import io.github.jwdeveloper.tiktok.data.models.gifts.Gift;
-import io.github.jwdeveloper.tiktok.live.GiftsManager;
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
 import lombok.extern.slf4j.Slf4j;
 
 /**
  * Manager class for handling TikTok related operations.
+ * Live status lookups are cached for a configurable time and concurrent lookups
+ * of the same username share a single request.
  */
 @Slf4j
 public class TikTokManager {
+    // How long the live status at login waits for the join, longer than the configuration phase of a login
+    private static final long LOGIN_LIVE_STATUS_TTL_NANOS = TimeUnit.SECONDS.toNanos(60);
+
+    private final LiveStatusProvider liveStatusProvider;
+    private final long cacheTtlNanos;
+    private final int cacheSize;
+
+    private final Map<String, CachedStatus> liveStatusCache = new ConcurrentHashMap<>();
+    private final Map<String, CompletableFuture<Boolean>> runningLookups = new ConcurrentHashMap<>();
+    private final Map<UUID, PendingLoginLiveStatus> loginLiveStatus = new ConcurrentHashMap<>();
+
+    private final LatencyHistogram lookupTimer;
+    private final LongAdder cacheHits;
+    private final LongAdder cacheMisses;
 
     /**
      * Constructor for TikTokManager.
-     * Initializes the logger.
+     *
+     * @param liveStatusProvider The source of the live status.
+     * @param cacheTtl           How long a live status is cached.
+     * @param cacheSize          The maximum number of cached live statuses.
+     * @param metricsRegistry    The registry the lookup time and cache hit rate are recorded in.
      */
-    public TikTokManager() {}
+    public TikTokManager(
+            LiveStatusProvider liveStatusProvider, Duration cacheTtl, int cacheSize, MetricsRegistry metricsRegistry) {
+        this.liveStatusProvider = liveStatusProvider;
+        this.cacheTtlNanos = cacheTtl.toNanos();
+        this.cacheSize = Math.max(1, cacheSize);
+        this.lookupTimer = metricsRegistry.timer(MetricsRegistry.TIKTOK, "live-lookup");
+        this.cacheHits = metricsRegistry.counter(MetricsRegistry.TIKTOK, "live-cache-hits");
+        this.cacheMisses = metricsRegistry.counter(MetricsRegistry.TIKTOK, "live-cache-misses");
+        metricsRegistry.gauge(MetricsRegistry.TIKTOK, "live-cache-size", liveStatusCache::size);
+    }
 
     /**
      * Checks if the TikTok user is live.
+     * This call may block on the network and must not be used on the main thread.
      *
      * @param username The TikTok username to check.
      * @return true if the user is live, false otherwise.
      */
     public boolean checkTikTokLive(String username) {
-        log.info("Checking if TikTok user {} is live", username);
         if (username == null) {
             return false;
         }
-        return TikTokLive.isLiveOnline(username);
+
+        long now = System.nanoTime();
+        CachedStatus cached = liveStatusCache.get(username);
+        if (cached != null && cached.expiresAt() - now > 0) {
+            cacheHits.increment();
+            return cached.live();
+        }
+        cacheMisses.increment();
+
+        // Only the first caller asks TikTok, concurrent callers wait for its result
+        CompletableFuture<Boolean> lookup = new CompletableFuture<>();
+        CompletableFuture<Boolean> running = runningLookups.putIfAbsent(username, lookup);
+        if (running != null) {
+            return running.join();
+        }
+
+        try {
+            log.info("Checking if TikTok user {} is live", username);
+            long start = System.nanoTime();
+            boolean live;
+            try {
+                live = liveStatusProvider.isLive(username);
+            } finally {
+                lookupTimer.recordSince(start);
+            }
+            cache(username, new CachedStatus(live, System.nanoTime() + cacheTtlNanos));
+            lookup.complete(live);
+            return live;
+        } catch (RuntimeException e) {
+            log.error("Failed to check if TikTok user {} is live: {}", username, e.getMessage());
+            lookup.complete(false);
+            return false;
+        } finally {
+            runningLookups.remove(username, lookup);
+        }
+    }
+
+    /**
+     * Updates the cached live status of a TikTok user, e.g. when their stream has ended.
+     *
+     * @param username The TikTok username.
+     * @param live     Whether the user is live.
+     */
+    public void updateLiveStatus(String username, boolean live) {
+        cache(username, new CachedStatus(live, System.nanoTime() + cacheTtlNanos));
     }
+
+    /**
+     * Stores the live status a player had when logging in, to be checked when they join.
+     * A login can still fail after the pre-login, so the status expires if the player doesn't join in time.
+     *
+     * @param playerUUID The UUID of the player.
+     * @param username   The TikTok username of the player.
+     * @param live       Whether the player's TikTok account was live.
+     */
+    public void setLoginLiveStatus(UUID playerUUID, String username, boolean live) {
+        long now = System.nanoTime();
+        // Drop the statuses of logins that failed after the pre-login
+        loginLiveStatus.values().removeIf(pending -> pending.expiresAt() - now <= 0);
+        loginLiveStatus.put(
+                playerUUID,
+                new PendingLoginLiveStatus(new LoginLiveStatus(username, live), now + LOGIN_LIVE_STATUS_TTL_NANOS));
+    }
+
+    /**
+     * Removes the live status a player had at an earlier login, e.g. because they no longer have a TikTok account.
+     *
+     * @param playerUUID The UUID of the player.
+     */
+    public void clearLoginLiveStatus(UUID playerUUID) {
+        loginLiveStatus.remove(playerUUID);
+    }
+
+    /**
+     * Returns and removes the live status a player had when logging in.
+     *
+     * @param playerUUID The UUID of the player.
+     * @return The live status at login, or null if the player has no connected TikTok account or it expired.
+     */
+    public LoginLiveStatus takeLoginLiveStatus(UUID playerUUID) {
+        PendingLoginLiveStatus pending = loginLiveStatus.remove(playerUUID);
+        if (pending == null || pending.expiresAt() - System.nanoTime() <= 0) return null;
+        return pending.status();
+    }
+
+    private void cache(String username, CachedStatus status) {
+        if (liveStatusCache.size() >= cacheSize) {
+            long now = System.nanoTime();
+            liveStatusCache.values().removeIf(cached -> cached.expiresAt() - now <= 0);
+        }
+        // Still full with valid entries, drop any entry to stay within the bound
+        Iterator<String> iterator = liveStatusCache.keySet().iterator();
+        while (liveStatusCache.size() >= cacheSize && iterator.hasNext()) {
+            iterator.next();
+            iterator.remove();
+        }
+        liveStatusCache.put(username, status);
+    }
+
+    private record CachedStatus(boolean live, long expiresAt) {}
+
+    private record PendingLoginLiveStatus(LoginLiveStatus status, long expiresAt) {}
+
+    /**
+     * The TikTok account of a player and whether it was live when the player logged in.
+     */
+    public record LoginLiveStatus(String username, boolean live) {}
 }